@@ -0,0 +1,126 @@
+package com.cnrasili.moviebooking.benchmark;
+
+import com.cnrasili.moviebooking.model.*;
+import com.cnrasili.moviebooking.service.CinemaSystem;
+import com.cnrasili.moviebooking.util.EventLog;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared JMH state that fills {@link CinemaSystem} with a synthetic cinema chain.
+ * <p>
+ * The size of the data set is controlled by three parameters, which can be overridden from the command line
+ * (e.g., {@code -p branches=500 -p days=30 -p halls=6}):
+ * <ul>
+ * <li>{@code branches}: number of cinema branches.</li>
+ * <li>{@code days}: number of scheduled days per branch.</li>
+ * <li>{@code halls}: number of halls per branch (IMAX, VIP and Standard in rotation).</li>
+ * </ul>
+ * Every hall gets {@value #SESSIONS_PER_DAY} sessions per day, cycling through {@value #MOVIE_COUNT} movies.
+ * The console output of the booking services is silenced while the benchmark runs, so that measurements are
+ * not dominated by writes to the terminal.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDataset {
+
+    static final int SESSIONS_PER_DAY = 4;
+    static final int MOVIE_COUNT = 4;
+    static final int CARD_COUNT = 1024;
+
+    @Param({"4", "100"})
+    public int branches;
+
+    @Param({"5", "30"})
+    public int days;
+
+    @Param({"3"})
+    public int halls;
+
+    List<ShowTime> showTimes;
+    String[] cards;
+
+    private PrintStream originalOut;
+
+    /**
+     * Builds the synthetic chain and registers it in {@link CinemaSystem}.
+     */
+    @Setup(Level.Trial)
+    public void populate() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        CinemaSystem.branches.clear();
+        CinemaSystem.allMovies.clear();
+        CinemaSystem.activeShowTimes.clear();
+        CinemaSystem.soldTickets.clear();
+        CinemaSystem.mockCardDB.clear();
+        CinemaSystem.validStudentIds.clear();
+
+        for (int m = 0; m < MOVIE_COUNT; m++) {
+            CinemaSystem.allMovies.add(m % 2 == 0
+                    ? new Movie2D("Movie " + m, 120, 80.0, Genre.DRAMA, AgeRating.GENERAL_AUDIENCE)
+                    : new Movie3D("Movie " + m, 120, 100.0, Genre.SCI_FI, AgeRating.GENERAL_AUDIENCE));
+        }
+
+        cards = new String[CARD_COUNT];
+        for (int c = 0; c < CARD_COUNT; c++) {
+            cards[c] = String.format("%016d", 4000000000000000L + c);
+            CinemaSystem.mockCardDB.put(cards[c], 1.0e12);
+        }
+
+        LocalDateTime firstDay = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        showTimes = new ArrayList<>();
+
+        for (int b = 0; b < branches; b++) {
+            CinemaBranch branch = new CinemaBranch("Branch " + b, "City", "District " + b);
+            for (int h = 0; h < halls; h++) {
+                switch (h % 3) {
+                    case 0:
+                        branch.addHall(new IMAXHall("IMAX " + h, 6, 8));
+                        break;
+                    case 1:
+                        branch.addHall(new VIPHall("VIP " + h, 4, 4));
+                        break;
+                    default:
+                        branch.addHall(new StandardHall("Standard " + h, 5, 6));
+                }
+            }
+            CinemaSystem.branches.add(branch);
+
+            for (int d = 0; d < days; d++) {
+                for (CinemaHall hall : branch.getHalls()) {
+                    for (int s = 0; s < SESSIONS_PER_DAY; s++) {
+                        Movie movie = CinemaSystem.allMovies.get((d + s) % MOVIE_COUNT);
+                        ShowTime showTime = new ShowTime(firstDay.plusDays(d).withHour(10 + 3 * s), movie, hall);
+                        CinemaSystem.activeShowTimes.add(showTime);
+                        showTimes.add(showTime);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Restores the console output after the trial.
+     */
+    @TearDown(Level.Trial)
+    public void restoreConsole() {
+        EventLog.console().flush();
+        System.setOut(originalOut);
+    }
+}
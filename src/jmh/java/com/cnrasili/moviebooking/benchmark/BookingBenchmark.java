@@ -0,0 +1,102 @@
+package com.cnrasili.moviebooking.benchmark;
+
+import com.cnrasili.moviebooking.exception.AgeLimitException;
+import com.cnrasili.moviebooking.exception.PaymentFailedException;
+import com.cnrasili.moviebooking.exception.SeatOccupiedException;
+import com.cnrasili.moviebooking.model.Customer;
+import com.cnrasili.moviebooking.model.Seat;
+import com.cnrasili.moviebooking.model.ShowTime;
+import com.cnrasili.moviebooking.model.Ticket;
+import com.cnrasili.moviebooking.service.Booking;
+import com.cnrasili.moviebooking.service.CinemaSystem;
+import com.cnrasili.moviebooking.service.CreditCardPaymentService;
+import com.cnrasili.moviebooking.service.PaymentService;
+import com.cnrasili.moviebooking.service.PriceStrategy;
+import com.cnrasili.moviebooking.service.StandardPriceStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the booking hot path: {@link Booking#createTicket}, {@link Booking#isFirstSession} and
+ * {@link ShowTime#getSeat(int, int)}.
+ * <p>
+ * Each benchmark thread picks random sessions and seats from the {@link BenchmarkDataset}. Run with
+ * {@code -t <threads>} to measure contention; with several threads, two buyers occasionally pick the same
+ * seat and one of them gets a {@link SeatOccupiedException}, exactly as in production.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingBenchmark {
+
+    /**
+     * Per-thread random source and booking collaborators.
+     */
+    @State(Scope.Thread)
+    public static class Client {
+        final SplittableRandom random = new SplittableRandom();
+        final Booking booking = new Booking();
+        final PaymentService paymentService = new CreditCardPaymentService();
+        final PriceStrategy strategy = new StandardPriceStrategy();
+        final Customer customer = new Customer("Bench", "User", "bench@mail.com", "5555555555", 1990);
+
+        ShowTime pickShowTime(BenchmarkDataset data) {
+            return data.showTimes.get(random.nextInt(data.showTimes.size()));
+        }
+
+        Seat pickSeat(ShowTime showTime) {
+            return showTime.getSeats().get(random.nextInt(showTime.getSeats().size()));
+        }
+    }
+
+    /**
+     * Books a random seat and immediately releases it again, so the data set never sells out.
+     * <p>
+     * The release (freeing the seat and dropping the ticket from the registry) is part of the measurement;
+     * it is small compared to the booking itself.
+     * </p>
+     */
+    @Benchmark
+    public void createTicket(BenchmarkDataset data, Client client, Blackhole blackhole) {
+        ShowTime showTime = client.pickShowTime(data);
+        Seat seat = client.pickSeat(showTime);
+        String card = data.cards[client.random.nextInt(data.cards.length)];
+
+        try {
+            Ticket ticket = client.booking.createTicket(client.customer, showTime, seat, client.strategy, client.paymentService, card);
+            seat.cancelBooking();
+            CinemaSystem.soldTickets.remove(ticket);
+            blackhole.consume(ticket);
+        } catch (SeatOccupiedException | AgeLimitException | PaymentFailedException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    /**
+     * Checks whether a random session is the first of its day.
+     */
+    @Benchmark
+    public boolean isFirstSession(BenchmarkDataset data, Client client) {
+        return client.booking.isFirstSession(client.pickShowTime(data));
+    }
+
+    /**
+     * Looks up a random seat of a random session by row and number.
+     */
+    @Benchmark
+    public Seat getSeat(BenchmarkDataset data, Client client) {
+        ShowTime showTime = client.pickShowTime(data);
+        int row = 1 + client.random.nextInt(showTime.getHall().getTotalRows());
+        int number = 1 + client.random.nextInt(showTime.getHall().getSeatsInRow(row));
+        return showTime.getSeat(row, number);
+    }
+}
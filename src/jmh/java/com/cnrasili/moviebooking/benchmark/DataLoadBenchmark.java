@@ -0,0 +1,98 @@
+package com.cnrasili.moviebooking.benchmark;
+
+import com.cnrasili.moviebooking.service.DataInitializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark for the application startup path, {@link DataInitializer#loadMockData(String)}.
+ * <p>
+ * Generates a set of CSV files with {@code branches} branches, {@code cards} credit cards and
+ * {@code students} student IDs in a temporary directory and measures a full load, including showtime
+ * generation. Runs in single-shot mode, since every invocation rebuilds the whole system.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataLoadBenchmark {
+
+    @Param({"4", "200"})
+    public int branches;
+
+    @Param({"1000", "100000"})
+    public int cards;
+
+    @Param({"1000", "100000"})
+    public int students;
+
+    private Path dataDirectory;
+    private PrintStream originalOut;
+
+    /**
+     * Writes the generated CSV files.
+     */
+    @Setup(Level.Trial)
+    public void generateFiles() throws IOException {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        dataDirectory = Files.createTempDirectory("moviebooking-bench");
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(dataDirectory.resolve("movies.csv")))) {
+            out.println("Avatar 2,192,100.0,SCI_FI,PLUS_13,3D");
+            out.println("Titanic,195,80.0,ROMANCE,PLUS_13,2D");
+            out.println("Joker,122,80.0,DRAMA,PLUS_18,2D");
+            out.println("Minions,95,80.0,COMEDY,GENERAL_AUDIENCE,2D");
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(dataDirectory.resolve("branches.csv")))) {
+            for (int i = 0; i < branches; i++) {
+                out.println("Branch " + i + ",City,District " + i);
+            }
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(dataDirectory.resolve("credit_cards.csv")))) {
+            for (int i = 0; i < cards; i++) {
+                out.printf("%016d,1000.0%n", 4000000000000000L + i);
+            }
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(dataDirectory.resolve("student_ids.csv")))) {
+            for (int i = 0; i < students; i++) {
+                out.println("ST" + (100000 + i));
+            }
+        }
+    }
+
+    /**
+     * Deletes the generated files and restores the console output.
+     */
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        System.setOut(originalOut);
+        try (Stream<Path> files = Files.walk(dataDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Loads the full data set and generates the schedule.
+     */
+    @Benchmark
+    public void loadMockData() {
+        DataInitializer.loadMockData(dataDirectory.toString());
+    }
+}
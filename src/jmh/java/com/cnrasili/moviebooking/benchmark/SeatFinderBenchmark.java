@@ -0,0 +1,77 @@
+package com.cnrasili.moviebooking.benchmark;
+
+import com.cnrasili.moviebooking.model.AgeRating;
+import com.cnrasili.moviebooking.model.Genre;
+import com.cnrasili.moviebooking.model.IMAXHall;
+import com.cnrasili.moviebooking.model.Movie3D;
+import com.cnrasili.moviebooking.model.Seat;
+import com.cnrasili.moviebooking.model.ShowTime;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link ShowTime#findBestSeats(int)} on a large IMAX hall.
+ * <p>
+ * The hall has {@code rows} x {@code cols} seats (the default 24x24 layout holds 564 seats, the back row being
+ * LoveSeats), and {@code occupiedPercent} of them are booked at random before the measurement starts.
+ * Run with {@code -t <threads>} to search the same session from several threads at once.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeatFinderBenchmark {
+
+    @Param({"24"})
+    public int rows;
+
+    @Param({"24"})
+    public int cols;
+
+    @Param({"0", "50", "90"})
+    public int occupiedPercent;
+
+    private ShowTime showTime;
+
+    /**
+     * Builds the session and books the configured share of its seats.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        IMAXHall hall = new IMAXHall("IMAX Benchmark", rows, cols);
+        showTime = new ShowTime(LocalDateTime.now().plusDays(1), new Movie3D("Benchmark Movie", 120, 100.0, Genre.SCI_FI, AgeRating.PLUS_13), hall);
+
+        SplittableRandom random = new SplittableRandom(42);
+        for (Seat seat : showTime.getSeats()) {
+            if (random.nextInt(100) < occupiedPercent) {
+                seat.reserve();
+            }
+        }
+    }
+
+    /**
+     * Per-thread random source for the party size.
+     */
+    @State(Scope.Thread)
+    public static class Client {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    /**
+     * Searches the best block for a party of 1 to 6 people.
+     */
+    @Benchmark
+    public List<Seat> findBestSeats(Client client) {
+        return showTime.findBestSeats(1 + client.random.nextInt(6));
+    }
+}
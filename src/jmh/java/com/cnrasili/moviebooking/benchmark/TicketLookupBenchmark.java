@@ -0,0 +1,114 @@
+package com.cnrasili.moviebooking.benchmark;
+
+import com.cnrasili.moviebooking.exception.InvalidPNRException;
+import com.cnrasili.moviebooking.model.Customer;
+import com.cnrasili.moviebooking.model.Seat;
+import com.cnrasili.moviebooking.model.ShowTime;
+import com.cnrasili.moviebooking.model.Ticket;
+import com.cnrasili.moviebooking.service.CinemaSystem;
+import com.cnrasili.moviebooking.service.RefundService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the ticket lookup and refund path: {@link CinemaSystem#searchTicketByPNR(String)} and
+ * {@link RefundService#processRefund(String)}.
+ * <p>
+ * Before the trial, {@code soldTickets} tickets are sold across the whole {@link BenchmarkDataset}
+ * (override with {@code -p soldTickets=...}), so lookups run against a realistically filled registry. The tickets
+ * carry PNR codes issued by their branch's shard, like real sales, so each lookup goes straight to that shard.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketLookupBenchmark {
+
+    /**
+     * The set of tickets sold before the measurement starts.
+     */
+    @State(Scope.Benchmark)
+    public static class SoldTickets {
+
+        @Param({"10000"})
+        public int soldTickets;
+
+        Ticket[] tickets;
+
+        /**
+         * Sells tickets round-robin over all sessions and seats of the data set.
+         */
+        @Setup(Level.Trial)
+        public void sell(BenchmarkDataset data) {
+            Customer customer = new Customer("Bench", "User", "bench@mail.com", "5555555555", 1990);
+            int sessions = data.showTimes.size();
+            int count = 0;
+            tickets = new Ticket[soldTickets];
+
+            for (int round = 0; count < soldTickets && round < 64; round++) {
+                for (int s = 0; s < sessions && count < soldTickets; s++) {
+                    ShowTime showTime = data.showTimes.get(s);
+                    if (round >= showTime.getSeats().size()) {
+                        continue;
+                    }
+                    Seat seat = showTime.getSeats().get(round);
+                    seat.reserve();
+                    String pnrCode = CinemaSystem.shards.shardFor(showTime).nextPnr();
+                    Ticket ticket = new Ticket(pnrCode, customer, showTime, seat, 100.0, 100.0);
+                    CinemaSystem.soldTickets.add(ticket);
+                    tickets[count++] = ticket;
+                }
+            }
+
+            if (count < soldTickets) {
+                Ticket[] sold = new Ticket[count];
+                System.arraycopy(tickets, 0, sold, 0, count);
+                tickets = sold;
+            }
+        }
+    }
+
+    /**
+     * Per-thread random source.
+     */
+    @State(Scope.Thread)
+    public static class Client {
+        final SplittableRandom random = new SplittableRandom();
+        final RefundService refundService = new RefundService();
+    }
+
+    /**
+     * Looks up a random sold ticket by its PNR code.
+     */
+    @Benchmark
+    public Ticket searchTicketByPNR(SoldTickets sold, Client client) {
+        return CinemaSystem.searchTicketByPNR(sold.tickets[client.random.nextInt(sold.tickets.length)].getPnrCode());
+    }
+
+    /**
+     * Refunds a random sold ticket and then puts it back, so the registry keeps its size.
+     * <p>
+     * With several threads, two of them occasionally pick the same ticket; the loser gets an
+     * {@link InvalidPNRException}, which is consumed like a regular result.
+     * </p>
+     */
+    @Benchmark
+    public void processRefund(SoldTickets sold, Client client, Blackhole blackhole) {
+        Ticket ticket = sold.tickets[client.random.nextInt(sold.tickets.length)];
+        try {
+            blackhole.consume(client.refundService.processRefund(ticket.getPnrCode()));
+            ticket.getSeat().reserve();
+            CinemaSystem.soldTickets.add(ticket);
+        } catch (InvalidPNRException e) {
+            blackhole.consume(e);
+        }
+    }
+}
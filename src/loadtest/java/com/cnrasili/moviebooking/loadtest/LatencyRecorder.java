@@ -0,0 +1,76 @@
+package com.cnrasili.moviebooking.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Collects latency samples of a single client thread.
+ * <p>
+ * Samples are stored in a growable {@code long[]} without synchronization; recorders of all clients are
+ * merged after the run to compute percentiles.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    /**
+     * Records one latency sample.
+     *
+     * @param nanos The measured latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    /**
+     * Returns the number of recorded samples.
+     *
+     * @return The sample count.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Merges the samples of several recorders into one sorted array.
+     *
+     * @param recorders The recorders to merge.
+     * @return All samples in ascending order.
+     */
+    public static long[] mergeSorted(Iterable<LatencyRecorder> recorders) {
+        int total = 0;
+        for (LatencyRecorder recorder : recorders) {
+            total += recorder.count;
+        }
+        long[] merged = new long[total];
+        int offset = 0;
+        for (LatencyRecorder recorder : recorders) {
+            System.arraycopy(recorder.samples, 0, merged, offset, recorder.count);
+            offset += recorder.count;
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    /**
+     * Returns the value at the given percentile of a sorted sample array.
+     *
+     * @param sorted     The samples in ascending order.
+     * @param percentile The percentile, between {@code 0} and {@code 100}.
+     * @return The sample at that percentile, or {@code 0} if there are no samples.
+     */
+    public static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,407 @@
+package com.cnrasili.moviebooking.loadtest;
+
+import com.cnrasili.moviebooking.exception.AgeLimitException;
+import com.cnrasili.moviebooking.exception.InvalidPNRException;
+import com.cnrasili.moviebooking.exception.PaymentFailedException;
+import com.cnrasili.moviebooking.exception.SeatOccupiedException;
+import com.cnrasili.moviebooking.model.Customer;
+import com.cnrasili.moviebooking.model.Seat;
+import com.cnrasili.moviebooking.model.SeatStatus;
+import com.cnrasili.moviebooking.model.ShowTime;
+import com.cnrasili.moviebooking.model.Ticket;
+import com.cnrasili.moviebooking.service.Booking;
+import com.cnrasili.moviebooking.service.CinemaSystem;
+import com.cnrasili.moviebooking.service.CreditCardPaymentService;
+import com.cnrasili.moviebooking.service.BookingJournal;
+import com.cnrasili.moviebooking.service.BookingMetrics;
+import com.cnrasili.moviebooking.service.DataInitializer;
+import com.cnrasili.moviebooking.service.PaymentService;
+import com.cnrasili.moviebooking.service.PriceStrategy;
+import com.cnrasili.moviebooking.service.RefundService;
+import com.cnrasili.moviebooking.service.StandardPriceStrategy;
+import com.cnrasili.moviebooking.util.EventLog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline load driver that replays concurrent booking traffic against the service layer.
+ * <p>
+ * The generator loads the regular CSV data set, then starts {@code clients} concurrent clients. Each client
+ * repeatedly:
+ * <ul>
+ * <li>picks a showtime from {@link CinemaSystem#activeShowTimes} using a Zipf popularity skew
+ * (a few "premiere" sessions receive most of the traffic),</li>
+ * <li>picks a random seat and calls {@link Booking#createTicket}, retrying with another seat when it
+ * loses the race for the first one,</li>
+ * <li>occasionally refunds one of its own tickets through {@link RefundService#processRefund(String)}.</li>
+ * </ul>
+ * At the end it prints throughput, latency percentiles (p50/p99/p99.9), conflict and retry rates, and verifies
+ * that the system is consistent: no seat is sold twice, every booked seat belongs to exactly one ticket, and the
+ * money missing from the cards equals the money charged for tickets.
+ * </p>
+ * <p>
+ * Usage (all options are optional):
+ * <pre>
+ * java com.cnrasili.moviebooking.loadtest.LoadGenerator --clients=64 --duration=30 --skew=1.1
+ *      --refund-ratio=0.1 --max-retries=5 --data=. --journal=load.journal
+ * </pre>
+ * With {@code --journal}, every booking, refund and card debit is also written to a fresh {@link BookingJournal}
+ * at the given path and snapshotted every second in the background, and the report shows how many records
+ * each {@code fsync} covered and how many snapshots were taken while booking.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.4
+ */
+public class LoadGenerator {
+
+    private static final double CARD_BALANCE = 1.0e9;
+    private static final double BALANCE_TOLERANCE = 0.01;
+
+    private final int clients;
+    private final long durationMillis;
+    private final double skew;
+    private final double refundRatio;
+    private final int maxRetries;
+    private final String dataDirectory;
+    private final String journalFile;
+
+    /**
+     * Constructs a load generator.
+     *
+     * @param clients        Number of concurrent clients.
+     * @param durationMillis How long the clients keep sending requests.
+     * @param skew           Zipf exponent for showtime popularity ({@code 0} = uniform).
+     * @param refundRatio    Probability that a client operation is a refund of one of its own tickets.
+     * @param maxRetries     How many other seats a client tries after losing a seat race.
+     * @param dataDirectory  Directory containing the CSV data set.
+     */
+    public LoadGenerator(int clients, long durationMillis, double skew, double refundRatio, int maxRetries, String dataDirectory) {
+        this(clients, durationMillis, skew, refundRatio, maxRetries, dataDirectory, null);
+    }
+
+    /**
+     * Constructs a load generator that journals all changes.
+     *
+     * @param clients        Number of concurrent clients.
+     * @param durationMillis How long the clients keep sending requests.
+     * @param skew           Zipf exponent for showtime popularity ({@code 0} = uniform).
+     * @param refundRatio    Probability that a client operation is a refund of one of its own tickets.
+     * @param maxRetries     How many other seats a client tries after losing a seat race.
+     * @param dataDirectory  Directory containing the CSV data set.
+     * @param journalFile    Path of the booking journal to write (replaced if it exists), or {@code null} for none.
+     */
+    public LoadGenerator(int clients, long durationMillis, double skew, double refundRatio, int maxRetries, String dataDirectory, String journalFile) {
+        this.clients = clients;
+        this.durationMillis = durationMillis;
+        this.skew = skew;
+        this.refundRatio = refundRatio;
+        this.maxRetries = maxRetries;
+        this.dataDirectory = dataDirectory;
+        this.journalFile = journalFile;
+    }
+
+    /**
+     * Parses the command line, runs the load and prints the report.
+     * Exits with status {@code 1} if the consistency check fails.
+     *
+     * @param args Options in {@code --name=value} form (see class documentation).
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int clients = 64;
+        long durationSeconds = 30;
+        double skew = 1.1;
+        double refundRatio = 0.1;
+        int maxRetries = 5;
+        String data = ".";
+        String journal = null;
+
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            switch (option[0]) {
+                case "--clients": clients = Integer.parseInt(option[1]); break;
+                case "--duration": durationSeconds = Long.parseLong(option[1]); break;
+                case "--skew": skew = Double.parseDouble(option[1]); break;
+                case "--refund-ratio": refundRatio = Double.parseDouble(option[1]); break;
+                case "--max-retries": maxRetries = Integer.parseInt(option[1]); break;
+                case "--data": data = option[1]; break;
+                case "--journal": journal = option[1]; break;
+                default: throw new IllegalArgumentException("Unknown option: " + option[0]);
+            }
+        }
+
+        LoadGenerator generator = new LoadGenerator(clients, TimeUnit.SECONDS.toMillis(durationSeconds), skew, refundRatio, maxRetries, data, journal);
+        boolean consistent = generator.run(System.out);
+        if (!consistent) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Loads the data set, runs all clients for the configured duration and prints the report.
+     *
+     * @param report The stream the report is written to.
+     * @return {@code true} if the system ended in a consistent state.
+     * @throws IOException If the journal can't be created or written.
+     */
+    public boolean run(PrintStream report) throws InterruptedException, IOException {
+        DataInitializer.loadMockData(dataDirectory);
+        CinemaSystem.metrics.reset();
+
+        // Give every card a large balance so the run measures booking, not declined cards
+        for (Map.Entry<String, Double> card : CinemaSystem.mockCardDB.entrySet()) {
+            card.setValue(CARD_BALANCE);
+        }
+        String[] cards = CinemaSystem.mockCardDB.keySet().toArray(new String[0]);
+        double initialBalance = totalBalance();
+
+        // Popularity ranks are assigned to showtimes in a fixed random order, so runs are comparable
+        List<ShowTime> ranked = new ArrayList<>(CinemaSystem.activeShowTimes);
+        Collections.shuffle(ranked, new Random(42));
+        if (ranked.isEmpty() || cards.length == 0) {
+            report.println("No showtimes or cards loaded from " + dataDirectory + "; nothing to do.");
+            return true;
+        }
+        ZipfSampler popularity = new ZipfSampler(ranked.size(), skew);
+
+        BookingJournal journal = null;
+        if (journalFile != null) {
+            Files.deleteIfExists(Paths.get(journalFile));
+            Files.deleteIfExists(Paths.get(journalFile + ".snapshot"));
+            Files.deleteIfExists(Paths.get(journalFile + ".sealed"));
+            journal = BookingJournal.open(Paths.get(journalFile));
+            journal.scheduleSnapshots(1, TimeUnit.SECONDS);
+            CinemaSystem.journal = journal;
+        }
+
+        List<Client> workers = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            workers.add(new Client(i, ranked, popularity, cards));
+        }
+
+        // The services log every transaction to the console; silence it while the load is running
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        // One platform thread per client; on Java 21+ this can become Executors.newVirtualThreadPerTaskExecutor()
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            for (Client worker : workers) {
+                executor.execute(() -> worker.runUntil(deadline));
+            }
+            executor.shutdown();
+            executor.awaitTermination(durationMillis + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS);
+        } finally {
+            executor.shutdownNow();
+            // Events still queued in the log would otherwise be written to the console after it is restored
+            EventLog.console().flush();
+            System.setOut(console);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (journal != null) {
+            CinemaSystem.journal = null;
+            journal.close();
+            report.printf("Journal          : %d records in %d fsyncs (%.1f records per fsync), %d snapshots%n",
+                    journal.getWrittenRecords(), journal.getSyncCount(),
+                    journal.getWrittenRecords() / (double) Math.max(1, journal.getSyncCount()),
+                    journal.getSnapshotCount());
+        }
+
+        return printReport(report, workers, elapsed, initialBalance);
+    }
+
+    private boolean printReport(PrintStream out, List<Client> workers, long elapsedNanos, double initialBalance) {
+        long bookings = 0, conflicts = 0, retries = 0, gaveUp = 0, rejections = 0, refunds = 0, refundFailures = 0;
+        double charged = 0.0;
+        List<LatencyRecorder> bookingLatencies = new ArrayList<>();
+        List<LatencyRecorder> refundLatencies = new ArrayList<>();
+
+        for (Client worker : workers) {
+            bookings += worker.bookings;
+            conflicts += worker.conflicts;
+            retries += worker.retries;
+            gaveUp += worker.gaveUp;
+            rejections += worker.rejections;
+            refunds += worker.refunds;
+            refundFailures += worker.refundFailures;
+            charged += worker.charged;
+            bookingLatencies.add(worker.bookingLatency);
+            refundLatencies.add(worker.refundLatency);
+        }
+
+        long[] booking = LatencyRecorder.mergeSorted(bookingLatencies);
+        long[] refund = LatencyRecorder.mergeSorted(refundLatencies);
+        double seconds = elapsedNanos / 1.0e9;
+        long attempts = booking.length;
+
+        out.println("=========================================");
+        out.println("           LOAD GENERATOR REPORT");
+        out.println("=========================================");
+        out.printf("Clients          : %d (skew %.2f, refund ratio %.2f)%n", clients, skew, refundRatio);
+        out.printf("Duration         : %.1f s%n", seconds);
+        out.printf("Throughput       : %.0f ops/s (%d bookings, %d refunds)%n", (attempts + refund.length) / seconds, bookings, refunds);
+        printLatency(out, "createTicket", booking);
+        printLatency(out, "processRefund", refund);
+        out.printf("Conflict rate    : %.2f%% of booking attempts (%d)%n", percent(conflicts, attempts), conflicts);
+        out.printf("Retry rate       : %.2f%% of booking attempts (%d), %d gave up%n", percent(retries, attempts), retries, gaveUp);
+        out.printf("Rejected         : %d bookings (payment/age), %d refunds%n", rejections, refundFailures);
+        out.println("-----------------------------------------");
+        out.println("createTicket stages (all branches):");
+        out.print(BookingMetrics.format(BookingMetrics.byStage(CinemaSystem.metrics.snapshot())));
+        out.println("-----------------------------------------");
+
+        boolean consistent = true;
+
+        Set<Seat> soldSeats = new HashSet<>();
+        int doubleSold = 0;
+        for (Ticket ticket : CinemaSystem.soldTickets) {
+            if (!soldSeats.add(ticket.getSeat())) {
+                doubleSold++;
+            }
+        }
+        int bookedSeats = 0;
+        for (ShowTime showTime : CinemaSystem.activeShowTimes) {
+            for (Seat seat : showTime.getSeats()) {
+                if (seat.getStatus() == SeatStatus.BOOKED) {
+                    bookedSeats++;
+                }
+            }
+        }
+        out.printf("Double-sold seats: %d%n", doubleSold);
+        out.printf("Booked seats     : %d (tickets: %d)%n", bookedSeats, CinemaSystem.soldTickets.size());
+        consistent &= doubleSold == 0 && bookedSeats == CinemaSystem.soldTickets.size();
+
+        double debited = initialBalance - totalBalance();
+        out.printf("Card balances    : %.2f TL debited, %.2f TL charged for tickets%n", debited, charged);
+        consistent &= Math.abs(debited - charged) <= BALANCE_TOLERANCE;
+
+        out.println("Consistency      : " + (consistent ? "OK" : "FAILED"));
+        out.println("=========================================");
+        return consistent;
+    }
+
+    private static void printLatency(PrintStream out, String operation, long[] sorted) {
+        out.printf("%-17s: p50 %.1f us, p99 %.1f us, p99.9 %.1f us (%d calls)%n", operation,
+                LatencyRecorder.percentile(sorted, 50) / 1000.0,
+                LatencyRecorder.percentile(sorted, 99) / 1000.0,
+                LatencyRecorder.percentile(sorted, 99.9) / 1000.0,
+                sorted.length);
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0.0 : 100.0 * part / whole;
+    }
+
+    private static double totalBalance() {
+        double total = 0.0;
+        for (double balance : CinemaSystem.mockCardDB.values()) {
+            total += balance;
+        }
+        return total;
+    }
+
+    /**
+     * A single simulated customer. All counters are confined to the client's own thread.
+     */
+    private final class Client {
+        private final SplittableRandom random;
+        private final List<ShowTime> ranked;
+        private final ZipfSampler popularity;
+        private final String[] cards;
+        private final Customer customer;
+        private final Booking booking = new Booking();
+        private final RefundService refundService = new RefundService();
+        private final PaymentService paymentService = new CreditCardPaymentService();
+        private final PriceStrategy strategy = new StandardPriceStrategy();
+        private final List<Ticket> ownTickets = new ArrayList<>();
+
+        final LatencyRecorder bookingLatency = new LatencyRecorder();
+        final LatencyRecorder refundLatency = new LatencyRecorder();
+        long bookings, conflicts, retries, gaveUp, rejections, refunds, refundFailures;
+        double charged;
+
+        Client(int id, List<ShowTime> ranked, ZipfSampler popularity, String[] cards) {
+            this.random = new SplittableRandom(id);
+            this.ranked = ranked;
+            this.popularity = popularity;
+            this.cards = cards;
+            this.customer = new Customer("Load", "Client" + id, "client" + id + "@mail.com", "5555555555", 1990);
+        }
+
+        void runUntil(long deadline) {
+            while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                if (!ownTickets.isEmpty() && random.nextDouble() < refundRatio) {
+                    refundOne();
+                } else {
+                    bookOne();
+                }
+            }
+        }
+
+        private void bookOne() {
+            ShowTime showTime = ranked.get(popularity.next(random));
+            List<Seat> seats = showTime.getSeats();
+            String card = cards[random.nextInt(cards.length)];
+
+            for (int attempt = 0; attempt <= maxRetries; attempt++) {
+                if (attempt > 0) {
+                    retries++;
+                }
+                Seat seat = seats.get(random.nextInt(seats.size()));
+                long start = System.nanoTime();
+                try {
+                    Ticket ticket = booking.createTicket(customer, showTime, seat, strategy, paymentService, card);
+                    bookingLatency.record(System.nanoTime() - start);
+                    ownTickets.add(ticket);
+                    charged += ticket.getFinalPrice();
+                    bookings++;
+                    return;
+                } catch (SeatOccupiedException e) {
+                    bookingLatency.record(System.nanoTime() - start);
+                    conflicts++;
+                } catch (PaymentFailedException | AgeLimitException e) {
+                    bookingLatency.record(System.nanoTime() - start);
+                    rejections++;
+                    return;
+                }
+            }
+            gaveUp++;
+        }
+
+        private void refundOne() {
+            Ticket ticket = ownTickets.remove(random.nextInt(ownTickets.size()));
+            long start = System.nanoTime();
+            try {
+                if (refundService.processRefund(ticket.getPnrCode())) {
+                    refunds++;
+                } else {
+                    refundFailures++;
+                }
+            } catch (InvalidPNRException e) {
+                refundFailures++;
+            }
+            refundLatency.record(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.cnrasili.moviebooking.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws ranks from a Zipf (power-law) distribution.
+ * <p>
+ * Rank {@code 0} is the most popular item; the probability of rank {@code k} is proportional to
+ * {@code 1 / (k + 1)^exponent}. An exponent of {@code 0} yields a uniform distribution, while values
+ * around {@code 1.0} model the typical "everyone wants the premiere" skew.
+ * <br>
+ * The cumulative distribution is precomputed once, so each sample is a binary search.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+public class ZipfSampler {
+
+    private final double[] cumulative;
+
+    /**
+     * Precomputes the distribution.
+     *
+     * @param items    The number of ranks.
+     * @param exponent The skew exponent ({@code 0} for uniform).
+     */
+    public ZipfSampler(int items, double exponent) {
+        cumulative = new double[items];
+        double sum = 0.0;
+        for (int k = 0; k < items; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < items; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    /**
+     * Draws one rank.
+     *
+     * @param random The random source of the calling thread.
+     * @return A rank between {@code 0} (inclusive) and the number of items (exclusive).
+     */
+    public int next(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
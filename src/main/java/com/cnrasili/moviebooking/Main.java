@@ -6,9 +6,12 @@ import com.cnrasili.moviebooking.exception.SeatOccupiedException;
 import com.cnrasili.moviebooking.model.*;
 import com.cnrasili.moviebooking.service.*;
 import com.cnrasili.moviebooking.util.ConsoleHelper;
+import com.cnrasili.moviebooking.util.EventLog;
 import com.cnrasili.moviebooking.exception.PaymentFailedException;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The entry point of the Cinema Booking Application.
@@ -23,12 +26,33 @@ import java.util.List;
  * </p>
  *
  * @author cnrasili
- * @version 1.0
+ * @version 1.5
  */
 public class Main {
     private static final Booking booking = new Booking();
     private static final RefundService refundService = new RefundService();
     private static final PaymentService paymentService = new CreditCardPaymentService();
+    private static final SeatHoldService seatHoldService = new SeatHoldService();
+
+    /** File in the working directory recording all bookings, refunds and card debits. */
+    private static final String JOURNAL_FILE = "bookings.journal";
+
+    /** Minutes between two background snapshots of the booking journal. */
+    private static final long SNAPSHOT_INTERVAL_MINUTES = 5;
+
+    /** File holding the tickets of finished showtimes. */
+    private static final String ARCHIVE_FILE = "bookings.archive";
+
+    /** Minutes between two runs of the showtime archiver. */
+    private static final long ARCHIVE_INTERVAL_MINUTES = 10;
+
+    /** File in the working directory receiving the checkout metrics (see {@link BookingMetrics#dump()}). */
+    private static final String METRICS_FILE = "booking-metrics.txt";
+
+    /** Minutes between two writes of {@link #METRICS_FILE}. */
+    private static final long METRICS_INTERVAL_MINUTES = 1;
+
+    private static ShowTimeArchiver archiver;
 
     /**
      * Main method that initializes the system and starts the application loop.
@@ -37,7 +61,92 @@ public class Main {
      */
     public static void main(String[] args) {
         DataInitializer.loadMockData();
+        openJournal();
+        openArchive();
+        // Fills the rest of the schedule horizon in the background, after journaled sessions have been restored
+        CinemaSystem.schedule.start();
+        CinemaSystem.metrics.start(Paths.get(METRICS_FILE), METRICS_INTERVAL_MINUTES, TimeUnit.MINUTES);
         showMainMenu();
+        CinemaSystem.metrics.stop();
+        CinemaSystem.metrics.writeDump(Paths.get(METRICS_FILE));
+        CinemaSystem.schedule.stop();
+        closeArchive();
+        closeJournal();
+        EventLog.console().flush();
+    }
+
+    /**
+     * Restores the tickets, refunds and card debits recorded in {@link #JOURNAL_FILE} and keeps recording new ones.
+     * <p>
+     * The journal is snapshotted every {@link #SNAPSHOT_INTERVAL_MINUTES} minutes, so a restart only replays the
+     * changes made since the last snapshot.
+     * <br>
+     * If the journal can't be opened, the application still starts, but keeps its state in memory only.
+     * </p>
+     */
+    private static void openJournal() {
+        try {
+            BookingJournal journal = BookingJournal.open(Paths.get(JOURNAL_FILE));
+            CinemaSystem.journal = journal;
+            journal.scheduleSnapshots(SNAPSHOT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+            if (CinemaSystem.soldTickets.size() > 0 || journal.getReplayedRecords() > 0) {
+                System.out.println("Restored " + CinemaSystem.soldTickets.size() + " sold tickets ("
+                        + journal.getReplayedRecords() + " journaled changes replayed after the last snapshot).");
+            }
+        } catch (IOException e) {
+            System.err.println("ERROR: Failed to open booking journal. Bookings will not survive a restart. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Flushes and closes the booking journal, if one is open.
+     */
+    private static void closeJournal() {
+        BookingJournal journal = CinemaSystem.journal;
+        if (journal == null) {
+            return;
+        }
+        CinemaSystem.journal = null;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("ERROR: Failed to close booking journal. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens {@link #ARCHIVE_FILE} and starts moving finished showtimes and their tickets there every
+     * {@link #ARCHIVE_INTERVAL_MINUTES} minutes.
+     * <p>
+     * If the archive can't be opened, finished tickets simply stay in memory.
+     * </p>
+     */
+    private static void openArchive() {
+        try {
+            TicketArchive archive = TicketArchive.open(Paths.get(ARCHIVE_FILE));
+            CinemaSystem.archive = archive;
+            archiver = new ShowTimeArchiver(archive);
+            archiver.start(ARCHIVE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        } catch (IOException e) {
+            System.err.println("ERROR: Failed to open ticket archive. Finished showtimes will be kept in memory. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the archiver and closes the ticket archive, if one is open.
+     */
+    private static void closeArchive() {
+        TicketArchive archive = CinemaSystem.archive;
+        if (archive == null) {
+            return;
+        }
+        archiver.stop();
+        CinemaSystem.archive = null;
+        try {
+            archive.close();
+        } catch (IOException e) {
+            System.err.println("ERROR: Failed to close ticket archive. " + e.getMessage());
+        }
     }
 
     /**
@@ -83,12 +192,13 @@ public class Main {
      * <ul>
      * <li>Step 1: Select Branch</li>
      * <li>Step 2: Select Movie</li>
-     * <li>Step 3: Select Showtime (filtered by branch & movie)</li>
-     * <li>Step 4: Select Seat (visual map displayed)</li>
+     * <li>Step 3: Select Showtime (queried by branch & movie, sorted by time)</li>
+     * <li>Step 4: Select Seat (visual map displayed); the seat is held for the rest of the checkout</li>
      * <li>Step 5: Enter Customer Details</li>
      * <li>Step 6: Payment & Finalization (Student check, Card processing)</li>
      * </ul>
-     * Allows users to go back to previous steps by entering '0'.
+     * Allows users to go back to previous steps by entering '0'. Going back to seat selection releases the held
+     * seat; a hold left behind by an abandoned checkout expires on its own.
      * </p>
      */
     private static void handleTicketBooking() {
@@ -98,7 +208,7 @@ public class Main {
         CinemaBranch selectedBranch = null;
         Movie selectedMovie = null;
         ShowTime selectedShow = null;
-        Seat selectedSeat = null;
+        SeatHold seatHold = null;
         Customer customer = null;
         PriceStrategy strategy = null;
 
@@ -146,12 +256,10 @@ public class Main {
                 case 3: // Showtime Selection
                     System.out.println("\n--- AVAILABLE SHOWTIMES (" + selectedBranch.getName() + ") ---");
 
-                    List<ShowTime> filteredShowTimes = new ArrayList<>();
-                    for (ShowTime st : CinemaSystem.activeShowTimes) {
-                        if (st.getMovie().equals(selectedMovie) && selectedBranch.getHalls().contains(st.getHall())) {
-                            filteredShowTimes.add(st);
-                        }
-                    }
+                    List<ShowTime> filteredShowTimes = CinemaSystem.activeShowTimes.query()
+                            .atBranch(selectedBranch)
+                            .forMovie(selectedMovie)
+                            .list();
 
                     if (filteredShowTimes.isEmpty()) {
                         System.out.println("No showtimes available for this movie at this branch.");
@@ -184,7 +292,16 @@ public class Main {
                     break;
 
                 case 4: // Seat Selection
+                    // Re-selecting a seat gives up the previous hold
+                    seatHoldService.release(seatHold);
+                    seatHold = null;
+
                     ConsoleHelper.printSeatMap(selectedShow);
+                    List<Seat> suggestion = selectedShow.findBestSeats(1);
+                    if (!suggestion.isEmpty()) {
+                        Seat best = suggestion.get(0);
+                        System.out.println("Best available seat: Row " + best.getRow() + ", Column " + best.getNumber());
+                    }
                     System.out.println("Enter 0 in Row to Go Back");
 
                     int row = ConsoleHelper.getIntegerInput("Enter Row");
@@ -201,8 +318,14 @@ public class Main {
                     } else if (!seatCandidate.isAvailable()) {
                         System.out.println("Seat is already occupied!");
                     } else {
-                        selectedSeat = seatCandidate;
-                        step++;
+                        try {
+                            seatHold = seatHoldService.hold(selectedShow, seatCandidate);
+                            System.out.println(">> Seat " + seatCandidate + " is held for you for "
+                                    + SeatHoldService.DEFAULT_TTL.toMinutes() + " minutes.");
+                            step++;
+                        } catch (SeatOccupiedException e) {
+                            System.out.println("Seat is already occupied!");
+                        }
                     }
                     break;
 
@@ -261,17 +384,23 @@ public class Main {
                     }
 
                     try {
-                        Ticket ticket = booking.createTicket(customer, selectedShow, selectedSeat, strategy, paymentService, cardNumber);
+                        Ticket ticket = booking.createTicket(customer, seatHold, strategy, paymentService, cardNumber);
+                        // Lets the discount and payment confirmations print before the ticket
+                        EventLog.console().flush();
 
                         System.out.println("\n*** BOOKING SUCCESSFUL ***");
                         ticket.printTicketInfo();
                         return; // Booking complete, return to main menu
 
                     } catch (SeatOccupiedException | AgeLimitException | PaymentFailedException e) {
+                        EventLog.console().flush();
                         System.out.println("Error: " + e.getMessage());
                         // Handle errors by sending user back to relevant step
                         if (e instanceof SeatOccupiedException) step = 4; // Reselect seat
-                        else if (e instanceof AgeLimitException) step = 2; // Reselect movie
+                        else if (e instanceof AgeLimitException) {
+                            seatHoldService.release(seatHold);
+                            step = 2; // Reselect movie
+                        }
                     }
                     break;
             }
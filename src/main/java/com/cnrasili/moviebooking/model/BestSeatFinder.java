@@ -0,0 +1,130 @@
+package com.cnrasili.moviebooking.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds the best block of adjacent available seats for a party in a {@link ShowTime}.
+ * <p>
+ * A block is a run of consecutive available seats in one row whose capacity equals the party size exactly.
+ * A {@link LoveSeat} seats two people and is never split, so a LoveSeat row only fits even-sized parties
+ * (every hall layout uses a single seat type per row).
+ * <br>
+ * Blocks are scored by their distance from the center of the hall: the distance of the row from the middle
+ * row plus the horizontal distance of the block's center from the row's center, measured in standard seat
+ * widths (a LoveSeat is two widths wide). The lowest score wins; ties go to the row nearer the screen.
+ * <br>
+ * The search avoids scanning the whole hall:
+ * <ul>
+ * <li>Rows are visited from the middle row outwards, and the search stops as soon as the row distance alone
+ * reaches the best score found so far.</li>
+ * <li>Rows whose available-seat count (kept by the session's {@link SeatOccupancy}) is too small for the party
+ * are skipped without reading any seat.</li>
+ * <li>A candidate row is read once, tracking the current run of free seats as it goes.</li>
+ * </ul>
+ * The result is a suggestion: under concurrent demand another customer may take one of the seats before it is
+ * claimed, in which case the claim fails and the search can simply be repeated.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+public final class BestSeatFinder {
+
+    private BestSeatFinder() {
+    }
+
+    /**
+     * Finds the best block of adjacent available seats for a party.
+     *
+     * @param showTime  The session to search.
+     * @param partySize The number of people to seat together.
+     * @return The seats of the best block in ascending seat number order, or an empty list if no row can fit
+     *         the party.
+     * @throws IllegalArgumentException If the party size is not positive.
+     */
+    public static List<Seat> findBestSeats(ShowTime showTime, int partySize) {
+        if (partySize < 1) {
+            throw new IllegalArgumentException("Party size must be at least 1.");
+        }
+
+        CinemaHall hall = showTime.getHall();
+        SeatOccupancy occupancy = showTime.getOccupancy();
+        int totalRows = hall.getTotalRows();
+        double middleRow = (totalRows + 1) / 2.0;
+
+        double bestScore = Double.MAX_VALUE;
+        int bestRow = -1;
+        int bestStart = -1;
+        int bestLength = 0;
+
+        // Visit rows by distance from the middle row, the row nearer the screen first on ties
+        int front = (int) Math.floor(middleRow);
+        int back = front + 1;
+        while (front >= 1 || back <= totalRows) {
+            int row;
+            if (back > totalRows || (front >= 1 && middleRow - front <= back - middleRow)) {
+                row = front--;
+            } else {
+                row = back++;
+            }
+            double rowDistance = Math.abs(row - middleRow);
+            if (rowDistance >= bestScore) {
+                break;
+            }
+
+            int seatsInRow = hall.getSeatsInRow(row);
+            if (seatsInRow == 0) {
+                continue;
+            }
+            int offset = hall.getSeatIndex(row, 1);
+            int width = capacity(hall.getSeats().get(offset));
+            if (partySize % width != 0) {
+                continue;
+            }
+            int needed = partySize / width;
+            int available = occupancy.getAvailableInRow(row);
+            if (needed > seatsInRow || (available >= 0 && available < needed)) {
+                continue;
+            }
+
+            // Slide over the row, keeping the length of the current run of available seats
+            int run = 0;
+            for (int i = 0; i < seatsInRow; i++) {
+                if (occupancy.get(offset + i) != SeatStatus.AVAILABLE) {
+                    run = 0;
+                    continue;
+                }
+                run++;
+                if (run >= needed) {
+                    int start = i - needed + 1;
+                    double blockCenter = (start + i + 1) / 2.0;
+                    double score = rowDistance + Math.abs(blockCenter - seatsInRow / 2.0) * width;
+                    if (score < bestScore) {
+                        bestScore = score;
+                        bestRow = row;
+                        bestStart = start;
+                        bestLength = needed;
+                    }
+                }
+            }
+        }
+
+        if (bestRow < 0) {
+            return Collections.emptyList();
+        }
+        List<Seat> block = new ArrayList<>(bestLength);
+        for (int i = 0; i < bestLength; i++) {
+            block.add(showTime.getSeat(bestRow, bestStart + i + 1));
+        }
+        return block;
+    }
+
+    /**
+     * Returns the number of people a seat holds.
+     */
+    private static int capacity(Seat seat) {
+        return seat instanceof LoveSeat ? 2 : 1;
+    }
+}
@@ -9,6 +9,7 @@ package com.cnrasili.moviebooking.model;
  * Any class implementing this interface must provide specific logic for:
  * <ul>
  * <li>Reserving the item (changing status to BOOKED/OCCUPIED).</li>
+ * <li>Atomically claiming the item when several buyers compete for it.</li>
  * <li>Canceling the reservation (reverting status to AVAILABLE).</li>
  * <li>Checking current availability status.</li>
  * </ul>
@@ -16,7 +17,7 @@ package com.cnrasili.moviebooking.model;
  * </p>
  *
  * @author cnrasili
- * @version 1.0
+ * @version 1.1
  */
 public interface Bookable {
 
@@ -29,6 +30,17 @@ public interface Bookable {
      */
     void reserve();
 
+    /**
+     * Atomically reserves the item if, and only if, it is currently available.
+     * <p>
+     * Unlike {@link #reserve()}, this method is safe to call from many threads at once:
+     * when several callers race for the same item, exactly one of them succeeds.
+     * </p>
+     *
+     * @return {@code true} if this call reserved the item; {@code false} if it was no longer available.
+     */
+    boolean tryReserve();
+
     /**
      * Cancels an existing reservation for this item.
      * <p>
@@ -33,12 +33,13 @@ public class CinemaBranch {
     }
 
     /**
-     * Adds a new cinema hall to this branch.
+     * Adds a new cinema hall to this branch and links the hall back to it.
      *
      * @param hall The {@link CinemaHall} object to be added.
      */
     public void addHall(CinemaHall hall) {
         this.halls.add(hall);
+        hall.setBranch(this);
     }
 
     public String getName() {
@@ -7,16 +7,23 @@ import java.util.List;
  * <p>
  * This class defines the common properties of all halls (name, dimensions, seat list)
  * and mandates specific behaviors for subclasses, such as price multipliers and seat initialization.
+ * <br>
+ * After the seats are initialized, the hall builds a row-offset index over its seat blueprint, so the
+ * position of any seat can be computed directly from its row and number. Rows may have different lengths
+ * (e.g., a {@link LoveSeat} row holds half as many seats as a standard row).
  * </p>
  *
  * @author cnrasili
- * @version 1.0
+ * @version 1.1
  */
 public abstract class CinemaHall {
     private String name;
     private int totalRows;
     private int totalCols;
     private List<Seat> seats;
+    private CinemaBranch branch;
+    private int[] rowOffsets;
+    private int[] rowLengths;
 
     /**
      * Constructs a new CinemaHall and initializes the seating arrangement.
@@ -31,6 +38,7 @@ public abstract class CinemaHall {
         this.totalCols = totalCols;
         this.seats = new ArrayList<>();
         initSeats();
+        buildSeatIndex();
     }
 
     /**
@@ -49,6 +57,70 @@ public abstract class CinemaHall {
         }
     }
 
+    /**
+     * Builds the row-offset index over the seat blueprint.
+     * <p>
+     * Seats must be laid out row by row, each row numbered consecutively from 1, which is how every
+     * {@link #initSeats()} implementation fills the hall.
+     * </p>
+     *
+     * @throws IllegalStateException If the seat blueprint is not laid out row by row.
+     */
+    private void buildSeatIndex() {
+        rowOffsets = new int[totalRows];
+        rowLengths = new int[totalRows];
+
+        for (int i = 0; i < seats.size(); i++) {
+            Seat seat = seats.get(i);
+            int rowIndex = seat.getRow() - 1;
+
+            if (rowIndex < 0 || rowIndex >= totalRows) {
+                throw new IllegalStateException("Seat " + seat.getRow() + "-" + seat.getNumber() + " is outside hall " + name);
+            }
+            if (rowLengths[rowIndex] == 0) {
+                rowOffsets[rowIndex] = i;
+            }
+            if (rowOffsets[rowIndex] + rowLengths[rowIndex] != i || seat.getNumber() != rowLengths[rowIndex] + 1) {
+                throw new IllegalStateException("Seats of hall " + name + " are not laid out row by row.");
+            }
+            rowLengths[rowIndex]++;
+        }
+    }
+
+    /**
+     * Returns the position of a seat in the seat blueprint.
+     * <p>
+     * The position is computed directly from the row offset, so the lookup takes constant time
+     * regardless of the hall size.
+     * </p>
+     *
+     * @param row    The row number.
+     * @param number The seat number within the row.
+     * @return The index into {@link #getSeats()}, or {@code -1} if the hall has no such seat.
+     */
+    public int getSeatIndex(int row, int number) {
+        if (row < 1 || row > totalRows || number < 1 || number > rowLengths[row - 1]) {
+            return -1;
+        }
+        return rowOffsets[row - 1] + number - 1;
+    }
+
+    /**
+     * Returns the number of seats in the given row.
+     * <p>
+     * This may be less than {@link #getTotalCols()}, e.g., for a row of {@link LoveSeat}s.
+     * </p>
+     *
+     * @param row The row number.
+     * @return The number of seats in the row, or {@code 0} if the row does not exist.
+     */
+    public int getSeatsInRow(int row) {
+        if (row < 1 || row > totalRows) {
+            return 0;
+        }
+        return rowLengths[row - 1];
+    }
+
     /**
      * Returns the price multiplier specific to this hall type.
      * <p>
@@ -63,6 +135,25 @@ public abstract class CinemaHall {
         return name;
     }
 
+    /**
+     * Returns the branch this hall belongs to.
+     *
+     * @return The owning {@link CinemaBranch}, or {@code null} if the hall has not been added to a branch.
+     */
+    public CinemaBranch getBranch() {
+        return branch;
+    }
+
+    /**
+     * Links this hall to the branch it has been added to.
+     * Called by {@link CinemaBranch#addHall(CinemaHall)}.
+     *
+     * @param branch The owning branch.
+     */
+    void setBranch(CinemaBranch branch) {
+        this.branch = branch;
+    }
+
     public int getTotalRows() {
         return totalRows;
     }
@@ -40,6 +40,14 @@ public class Customer {
         return name + " " + surname;
     }
 
+    public String getName() {
+        return name;
+    }
+
+    public String getSurname() {
+        return surname;
+    }
+
     public int getBirthYear() {
         return birthYear;
     }
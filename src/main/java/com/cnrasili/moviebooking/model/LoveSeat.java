@@ -22,6 +22,18 @@ public class LoveSeat extends Seat {
         super(row, number);
     }
 
+    /**
+     * Constructs a LoveSeat view backed by a slot of a session's occupancy map.
+     *
+     * @param row       The row number.
+     * @param number    The seat number.
+     * @param occupancy The occupancy map holding the seat's status.
+     * @param index     The seat's slot in the occupancy map.
+     */
+    LoveSeat(int row, int number, SeatOccupancy occupancy, int index) {
+        super(row, number, occupancy, index);
+    }
+
     /**
      * Returns the price multiplier for a LoveSeat.
      *
@@ -0,0 +1,88 @@
+package com.cnrasili.moviebooking.model;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a group booking: several tickets for the same showtime, bought together with a single payment.
+ * <p>
+ * Each seat still gets its own {@link Ticket} (and PNR), so tickets can be looked up and refunded individually.
+ * The order only records what was bought and paid for in one go. Totals are summed in whole kurus, so they
+ * match the amount charged to the card exactly.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+public class Order {
+    private final String orderCode;
+    private final LocalDateTime creationDate;
+    private final Customer owner;
+    private final ShowTime showTime;
+    private final List<Ticket> tickets;
+
+    /**
+     * Constructs a new Order.
+     *
+     * @param orderCode Unique code identifying the order.
+     * @param owner     The customer who placed the order.
+     * @param showTime  The session for which the tickets are issued.
+     * @param tickets   The tickets in the order, one per seat.
+     */
+    public Order(String orderCode, Customer owner, ShowTime showTime, List<Ticket> tickets) {
+        this.orderCode = orderCode;
+        this.owner = owner;
+        this.showTime = showTime;
+        this.tickets = Collections.unmodifiableList(tickets);
+        this.creationDate = LocalDateTime.now();
+    }
+
+    /**
+     * Calculates the price of the order before discounts.
+     *
+     * @return The sum of the original prices of all tickets.
+     */
+    public double getOriginalPrice() {
+        long kurus = 0;
+        for (Ticket ticket : tickets) {
+            kurus += Math.round(ticket.getOriginalPrice() * 100);
+        }
+        return kurus / 100.0;
+    }
+
+    /**
+     * Calculates the amount charged for the order.
+     *
+     * @return The sum of the final prices of all tickets.
+     */
+    public double getTotalPrice() {
+        long kurus = 0;
+        for (Ticket ticket : tickets) {
+            kurus += Math.round(ticket.getFinalPrice() * 100);
+        }
+        return kurus / 100.0;
+    }
+
+    /**
+     * Prints a summary of the order followed by every ticket in it.
+     */
+    public void printOrderInfo() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
+        System.out.println("=========================================");
+        System.out.println("           ORDER " + orderCode + " (" + tickets.size() + " tickets)");
+        System.out.println("=========================================");
+        System.out.println("Customer : " + owner.getFullName());
+        System.out.println("Date     : " + creationDate.format(formatter));
+        System.out.println("TOTAL PRICE    : " + getTotalPrice() + " TL");
+        for (Ticket ticket : tickets) {
+            ticket.printTicketInfo();
+        }
+    }
+
+    public String getOrderCode() { return orderCode; }
+    public Customer getOwner() { return owner; }
+    public ShowTime getShowTime() { return showTime; }
+    public List<Ticket> getTickets() { return tickets; }
+}
@@ -0,0 +1,109 @@
+package com.cnrasili.moviebooking.model;
+
+/**
+ * Precomputed ticket prices of one {@link ShowTime}, in kurus (1/100 TL), per seat class and discount context.
+ * <p>
+ * The base price of a seat class is {@code movie price * hall multiplier * seat multiplier}, rounded once to whole
+ * kurus; every discounted price is derived from it with integer arithmetic (see
+ * {@link PricingRules#discount(long, int)}). Pricing a booking is then a single array lookup, and receipts add up
+ * exactly.
+ * <br>
+ * A table is tied to the {@link PricingRules} it was built from; {@link ShowTime#getPriceTable(PricingRules)}
+ * rebuilds it when other rules are passed. The rules are evaluated against the session (its time, hall and movie)
+ * only while building; the movie, hall and time of a session never change, so they never trigger a rebuild.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+public final class PriceTable {
+
+    /** Seat class of {@link StandardSeat}s. */
+    public static final int STANDARD_SEAT = 0;
+
+    /** Seat class of {@link LoveSeat}s. */
+    public static final int LOVE_SEAT = 1;
+
+    /** One seat of each class, in class order, to read the seat multipliers from. */
+    private static final Seat[] SEAT_CLASSES = {new StandardSeat(1, 1), new LoveSeat(1, 1)};
+
+    private final PricingRules rules;
+    private final int columns;
+    private final int[] percents;
+    private final long[] basePrices;
+    private final long[] prices;
+
+    /**
+     * Builds the table of a session.
+     *
+     * @param showTime The session.
+     * @param rules    The promotion rules to apply.
+     */
+    public PriceTable(ShowTime showTime, PricingRules rules) {
+        this.rules = rules;
+        this.columns = rules.getColumnCount();
+        this.percents = new int[columns];
+        this.basePrices = new long[SEAT_CLASSES.length];
+        this.prices = new long[SEAT_CLASSES.length * columns];
+
+        for (int column = 0; column < columns; column++) {
+            percents[column] = rules.percentOf(showTime, column);
+        }
+        double sessionPrice = showTime.getStandardPrice();
+        for (int seatClass = 0; seatClass < SEAT_CLASSES.length; seatClass++) {
+            long base = Math.round(sessionPrice * SEAT_CLASSES[seatClass].getPriceMultiplier() * 100);
+            basePrices[seatClass] = base;
+            for (int column = 0; column < columns; column++) {
+                prices[seatClass * columns + column] = PricingRules.discount(base, percents[column]);
+            }
+        }
+    }
+
+    /**
+     * Returns the seat class of a seat.
+     *
+     * @param seat The seat.
+     * @return {@link #STANDARD_SEAT} or {@link #LOVE_SEAT}, or -1 for other seat types (which have no row).
+     */
+    public static int seatClassOf(Seat seat) {
+        if (seat instanceof LoveSeat) {
+            return LOVE_SEAT;
+        }
+        return seat instanceof StandardSeat ? STANDARD_SEAT : -1;
+    }
+
+    /**
+     * Returns the undiscounted price of a seat class.
+     *
+     * @param seatClass The seat class.
+     * @return The price in kurus.
+     */
+    public long getBasePrice(int seatClass) {
+        return basePrices[seatClass];
+    }
+
+    /**
+     * Returns the price of a seat class for a discount set.
+     *
+     * @param seatClass The seat class.
+     * @param column    The discount context, as defined by the {@link PricingRules}.
+     * @return The price in kurus.
+     */
+    public long getPrice(int seatClass, int column) {
+        return prices[seatClass * columns + column];
+    }
+
+    /**
+     * Returns the total discount of a discount context for this session.
+     *
+     * @param column The discount context.
+     * @return The discount in percent.
+     */
+    public int getPercent(int column) {
+        return percents[column];
+    }
+
+    public PricingRules getRules() {
+        return rules;
+    }
+}
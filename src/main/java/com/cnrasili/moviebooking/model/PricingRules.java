@@ -0,0 +1,45 @@
+package com.cnrasili.moviebooking.model;
+
+/**
+ * The promotion rules that {@link PriceTable}s are built from.
+ * <p>
+ * Rules define a fixed set of table columns, one per <i>discount context</i> (e.g., student or not, first session
+ * or not), and the total discount of each column for a given session. Both are only asked for while a table is
+ * being built, so the rules may be arbitrarily detailed without slowing down the price lookups themselves.
+ * <br>
+ * Rules are immutable. Changing a promotion means installing new rules; every {@link ShowTime} notices the change
+ * on its next price lookup and rebuilds its table once.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+public abstract class PricingRules {
+
+    /**
+     * Returns the number of discount contexts, i.e. the number of columns of a price table.
+     *
+     * @return The column count.
+     */
+    public abstract int getColumnCount();
+
+    /**
+     * Returns the total discount of a column for a session.
+     *
+     * @param showTime The session the table is built for.
+     * @param column   The table column.
+     * @return The discount in percent, between 0 and 100.
+     */
+    public abstract int percentOf(ShowTime showTime, int column);
+
+    /**
+     * Applies a total discount to a price in minor units, rounding half up.
+     *
+     * @param kurus   The undiscounted price in kurus.
+     * @param percent The total discount in percent (may exceed 100 when discounts add up).
+     * @return The discounted price in kurus, never negative.
+     */
+    public static long discount(long kurus, int percent) {
+        return percent >= 100 ? 0 : (kurus * (100 - percent) + 50) / 100;
+    }
+}
@@ -9,30 +9,46 @@ package com.cnrasili.moviebooking.model;
  * Responsibilities:
  * <ul>
  * <li>Maintaining spatial location (Row/Number).</li>
- * <li>Tracking availability status via {@link SeatStatus}.</li>
+ * <li>Tracking availability status via {@link SeatStatus} (updated atomically, so seats can be sold from many threads).</li>
+ * <li>Reading and writing that status through a slot of a {@link SeatOccupancy} map, so the seats of a
+ * {@link ShowTime} are lightweight views over one packed occupancy map rather than independent objects.</li>
  * <li>Defining abstract pricing rules via {@code getPriceMultiplier()}.</li>
  * </ul>
  * </p>
  *
  * @author cnrasili
- * @version 1.1
+ * @version 1.3
  */
 public abstract class Seat implements Bookable {
     private int row;
     private int number;
-    private SeatStatus status;
+    private final SeatOccupancy occupancy;
+    private final int index;
 
     /**
-     * Constructs a new Seat at the specified location.
+     * Constructs a new standalone Seat at the specified location.
      * Initially, the seat status is set to {@link SeatStatus#AVAILABLE}.
      *
      * @param row    The row number of the seat.
      * @param number The column/seat number within the row.
      */
     public Seat(int row, int number) {
+        this(row, number, new SeatOccupancy(1), 0);
+    }
+
+    /**
+     * Constructs a Seat whose status is stored in a slot of a shared occupancy map.
+     *
+     * @param row       The row number of the seat.
+     * @param number    The column/seat number within the row.
+     * @param occupancy The occupancy map holding the seat's status.
+     * @param index     The seat's slot in the occupancy map.
+     */
+    protected Seat(int row, int number, SeatOccupancy occupancy, int index) {
         this.row = row;
         this.number = number;
-        this.status = SeatStatus.AVAILABLE;
+        this.occupancy = occupancy;
+        this.index = index;
     }
 
     /**
@@ -54,7 +70,52 @@ public abstract class Seat implements Bookable {
      */
     @Override
     public void reserve() {
-        this.status = SeatStatus.BOOKED;
+        occupancy.set(index, SeatStatus.BOOKED);
+    }
+
+    /**
+     * Atomically marks the seat as reserved if it is still available.
+     * <p>
+     * Implements {@link Bookable#tryReserve()} with a compare-and-set from {@link SeatStatus#AVAILABLE}
+     * to {@link SeatStatus#BOOKED}, so concurrent buyers never both obtain the same seat.
+     * </p>
+     *
+     * @return {@code true} if this call reserved the seat; {@code false} if it was already taken.
+     */
+    @Override
+    public boolean tryReserve() {
+        return occupancy.compareAndSet(index, SeatStatus.AVAILABLE, SeatStatus.BOOKED);
+    }
+
+    /**
+     * Atomically places a temporary hold on the seat if it is available.
+     * <p>
+     * A held seat is not {@link #isAvailable() available} to anyone else until the hold is either
+     * confirmed with {@link #confirmHold()} or released with {@link #releaseHold()}.
+     * </p>
+     *
+     * @return {@code true} if this call placed the hold; {@code false} if the seat was not available.
+     */
+    public boolean tryHold() {
+        return occupancy.compareAndSet(index, SeatStatus.AVAILABLE, SeatStatus.HELD);
+    }
+
+    /**
+     * Turns a hold into a booking by moving the seat from {@link SeatStatus#HELD} to {@link SeatStatus#BOOKED}.
+     *
+     * @return {@code true} if the seat was held and is now booked.
+     */
+    public boolean confirmHold() {
+        return occupancy.compareAndSet(index, SeatStatus.HELD, SeatStatus.BOOKED);
+    }
+
+    /**
+     * Releases a hold, making the seat available again. Has no effect if the seat is not held.
+     *
+     * @return {@code true} if the seat was held and is now available.
+     */
+    public boolean releaseHold() {
+        return occupancy.compareAndSet(index, SeatStatus.HELD, SeatStatus.AVAILABLE);
     }
 
     /**
@@ -65,7 +126,7 @@ public abstract class Seat implements Bookable {
      */
     @Override
     public void cancelBooking() {
-        this.status = SeatStatus.AVAILABLE;
+        occupancy.set(index, SeatStatus.AVAILABLE);
     }
 
     /**
@@ -75,7 +136,7 @@ public abstract class Seat implements Bookable {
      */
     @Override
     public boolean isAvailable() {
-        return this.status == SeatStatus.AVAILABLE;
+        return occupancy.get(index) == SeatStatus.AVAILABLE;
     }
 
     public int getRow() {
@@ -87,7 +148,34 @@ public abstract class Seat implements Bookable {
     }
 
     public SeatStatus getStatus() {
-        return status;
+        return occupancy.get(index);
+    }
+
+    /**
+     * Checks whether both objects refer to the same seat slot.
+     * <p>
+     * Seats handed out by a {@link ShowTime} are views created on demand, so two lookups of the same seat
+     * yield different objects that are nevertheless equal.
+     * </p>
+     *
+     * @param o The object to compare with.
+     * @return {@code true} if {@code o} is a seat backed by the same occupancy slot.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Seat)) {
+            return false;
+        }
+        Seat other = (Seat) o;
+        return occupancy == other.occupancy && index == other.index;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(occupancy) + index;
     }
 
     /**
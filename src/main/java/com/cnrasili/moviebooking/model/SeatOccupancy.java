@@ -0,0 +1,250 @@
+package com.cnrasili.moviebooking.model;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compact, thread-safe occupancy map holding the {@link SeatStatus} of every seat in a session.
+ * <p>
+ * Instead of one {@link Seat} object per seat and session, the status of each seat is packed into
+ * {@value #BITS_PER_SEAT} bits of a shared {@code long} word (enough for all four {@link SeatStatus} values),
+ * so a single word covers {@value #SEATS_PER_WORD} seats. Seats are addressed by their position in the hall's
+ * seat blueprint (see {@link CinemaHall#getSeats()}); the seat type and location are read from that blueprint
+ * and are never duplicated per session.
+ * <br>
+ * Updates are performed with a compare-and-set on the containing word, which keeps
+ * {@link Bookable#tryReserve()} lock-free while seats in the same word are booked concurrently.
+ * <br>
+ * An occupancy map created for a hall also keeps a count of available seats per row, updated on every
+ * transition into or out of {@link SeatStatus#AVAILABLE}. Seat search (see {@link BestSeatFinder}) uses it to
+ * skip rows that cannot fit a party without reading their seats.
+ * <br>
+ * <b>Lazy allocation:</b> most generated sessions are never opened, so a new map allocates nothing but itself.
+ * Until the first seat leaves {@link SeatStatus#AVAILABLE} (a hold or a booking), every seat reads as available
+ * and the per-row counts are taken from the hall's blueprint. The status words and row counts are allocated on
+ * that first change.
+ * </p>
+ * <p>
+ * <b>Memory comparison</b> (64-bit JVM, compressed oops) for the largest default hall, the 6x8 IMAX hall
+ * with 44 seats. The figures cover the seat state only; the {@link ShowTime} object itself adds about 32 bytes:
+ * <ul>
+ * <li>Previous layout: 44 seat objects (24 bytes each) + 44 {@code AtomicReference} status holders
+ * (16 bytes each) + the {@code ArrayList} and its backing array (~224 bytes) = about 2 KB per session,
+ * i.e. about 46 bytes per seat.</li>
+ * <li>This layout, once a seat has been held or booked: the occupancy object (24 bytes) + its state holder
+ * (24 bytes) + {@code AtomicLongArray} (16 bytes) + a {@code long[2]} (32 bytes), plus 56 bytes for the per-row
+ * available counts ({@code AtomicIntegerArray} over an {@code int[6]}) = about 152 bytes per session,
+ * i.e. about 3.5 bytes per seat (of which 2 bits are the status itself).</li>
+ * <li>This layout, for a session nobody has touched: the occupancy object alone (24 bytes).</li>
+ * </ul>
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.3
+ */
+public class SeatOccupancy {
+
+    /** Number of bits used to encode one {@link SeatStatus}. */
+    private static final int BITS_PER_SEAT = 2;
+
+    /** Number of seats packed into one 64-bit word. */
+    private static final int SEATS_PER_WORD = Long.SIZE / BITS_PER_SEAT;
+
+    private static final long STATUS_MASK = (1L << BITS_PER_SEAT) - 1;
+
+    private static final SeatStatus[] STATUSES = SeatStatus.values();
+
+    private final int size;
+
+    /** Seat blueprint used to map a seat index to its row, or {@code null} if rows are not tracked. */
+    private final CinemaHall hall;
+
+    /** Allocated on the first change away from {@link SeatStatus#AVAILABLE}; {@code null} until then. */
+    private volatile State state;
+
+    /**
+     * Constructs an occupancy map in which every seat is {@link SeatStatus#AVAILABLE}.
+     *
+     * @param size The number of seats tracked by this map.
+     */
+    public SeatOccupancy(int size) {
+        this.size = size;
+        this.hall = null;
+    }
+
+    /**
+     * Constructs an occupancy map for all seats of a hall, in which every seat is {@link SeatStatus#AVAILABLE}.
+     * <p>
+     * Unlike {@link #SeatOccupancy(int)}, this map also tracks the number of available seats per row.
+     * </p>
+     *
+     * @param hall The hall whose seat blueprint the map follows.
+     */
+    public SeatOccupancy(CinemaHall hall) {
+        this.size = hall.getSeats().size();
+        this.hall = hall;
+    }
+
+    /**
+     * Returns the current status of the seat at the given index.
+     *
+     * @param index The seat index.
+     * @return The seat's {@link SeatStatus}.
+     */
+    public SeatStatus get(int index) {
+        checkIndex(index);
+        State current = state;
+        return current == null ? SeatStatus.AVAILABLE : decode(current.words.get(index / SEATS_PER_WORD), index);
+    }
+
+    /**
+     * Unconditionally sets the status of the seat at the given index.
+     *
+     * @param index  The seat index.
+     * @param status The new status.
+     */
+    public void set(int index, SeatStatus status) {
+        checkIndex(index);
+        if (status == SeatStatus.AVAILABLE && state == null) {
+            return;
+        }
+        State current = materialize();
+        int word = index / SEATS_PER_WORD;
+        while (true) {
+            long value = current.words.get(word);
+            if (current.words.compareAndSet(word, value, encode(value, index, status))) {
+                countTransition(current, index, decode(value, index), status);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Atomically changes the status of a seat if it currently has the expected status.
+     * <p>
+     * Only the two bits belonging to the seat are compared, so a concurrent change to a neighbouring seat
+     * in the same word causes a retry rather than a failure.
+     * </p>
+     *
+     * @param index    The seat index.
+     * @param expected The status the seat must have for the update to happen.
+     * @param update   The new status.
+     * @return {@code true} if the status was changed; {@code false} if the seat did not have the expected status.
+     */
+    public boolean compareAndSet(int index, SeatStatus expected, SeatStatus update) {
+        checkIndex(index);
+        if (state == null && (expected != SeatStatus.AVAILABLE || update == SeatStatus.AVAILABLE)) {
+            // Untouched: every seat is available, and a change to available changes nothing
+            return expected == SeatStatus.AVAILABLE;
+        }
+        State current = materialize();
+        int word = index / SEATS_PER_WORD;
+        while (true) {
+            long value = current.words.get(word);
+            if (decode(value, index) != expected) {
+                return false;
+            }
+            if (current.words.compareAndSet(word, value, encode(value, index, update))) {
+                countTransition(current, index, expected, update);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Tells whether the status words have been allocated, i.e. whether a seat of this map has ever been held
+     * or booked.
+     *
+     * @return {@code true} once the map owns its own state.
+     */
+    public boolean isMaterialized() {
+        return state != null;
+    }
+
+    /**
+     * Returns the number of seats tracked by this map.
+     *
+     * @return The seat count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of available seats in a row.
+     * <p>
+     * The count is updated right after each status change, so under concurrent bookings it may briefly lag
+     * behind the seats themselves. It is meant for skipping full rows, not as an exact figure.
+     * </p>
+     *
+     * @param row The row number.
+     * @return The number of available seats, or {@code -1} if this map does not track rows.
+     */
+    public int getAvailableInRow(int row) {
+        if (hall == null) {
+            return -1;
+        }
+        State current = state;
+        return current == null ? hall.getSeatsInRow(row) : current.availablePerRow.get(row - 1);
+    }
+
+    private State materialize() {
+        State current = state;
+        if (current == null) {
+            synchronized (this) {
+                current = state;
+                if (current == null) {
+                    current = new State(size, hall);
+                    state = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private void countTransition(State current, int index, SeatStatus from, SeatStatus to) {
+        if (current.availablePerRow == null || (from == SeatStatus.AVAILABLE) == (to == SeatStatus.AVAILABLE)) {
+            return;
+        }
+        int rowIndex = hall.getSeats().get(index).getRow() - 1;
+        current.availablePerRow.addAndGet(rowIndex, to == SeatStatus.AVAILABLE ? 1 : -1);
+    }
+
+    private static SeatStatus decode(long word, int index) {
+        int shift = (index % SEATS_PER_WORD) * BITS_PER_SEAT;
+        return STATUSES[(int) ((word >>> shift) & STATUS_MASK)];
+    }
+
+    private static long encode(long word, int index, SeatStatus status) {
+        int shift = (index % SEATS_PER_WORD) * BITS_PER_SEAT;
+        return (word & ~(STATUS_MASK << shift)) | ((long) status.ordinal() << shift);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Seat index " + index + " out of range for " + size + " seats");
+        }
+    }
+
+    /**
+     * The allocated part of the map: the packed status words and, for a hall, the per-row available counts.
+     */
+    private static final class State {
+        final AtomicLongArray words;
+
+        /** Number of available seats per row (index {@code row - 1}), or {@code null} if rows are not tracked. */
+        final AtomicIntegerArray availablePerRow;
+
+        State(int size, CinemaHall hall) {
+            words = new AtomicLongArray((size + SEATS_PER_WORD - 1) / SEATS_PER_WORD);
+            if (hall == null) {
+                availablePerRow = null;
+                return;
+            }
+            availablePerRow = new AtomicIntegerArray(hall.getTotalRows());
+            for (int row = 1; row <= hall.getTotalRows(); row++) {
+                availablePerRow.set(row - 1, hall.getSeatsInRow(row));
+            }
+        }
+    }
+}
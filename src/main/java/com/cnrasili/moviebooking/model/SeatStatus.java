@@ -14,5 +14,8 @@ public enum SeatStatus {
     BOOKED,
 
     /** The seat can't be booked. */
-    BLOCKED
+    BLOCKED,
+
+    /** The seat is temporarily held for a customer who is completing the checkout. */
+    HELD
 }
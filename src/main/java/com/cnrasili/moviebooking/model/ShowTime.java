@@ -2,25 +2,37 @@ package com.cnrasili.moviebooking.model;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.List;
 
 /**
  * Represents a specific movie screening session (Seans).
  * <p>
  * A ShowTime links a {@link Movie} to a {@link CinemaHall} at a specific time.
- * Crucially, it manages its own independent copy of the seat map to ensure bookings
+ * Crucially, it keeps its own independent seat occupancy to ensure bookings
  * in one session do not affect others.
+ * <br>
+ * The seat types and locations are shared with the hall's blueprint; the session itself only owns a packed
+ * {@link SeatOccupancy} map. The {@link Seat} objects returned by {@link #getSeat(int, int)} and
+ * {@link #getSeats()} are views over that map, so booking a seat flips its bits instead of mutating a
+ * per-session seat object.
+ * <br>
+ * The occupancy map itself is allocated lazily: a session that has never had a seat held or booked costs only
+ * the ShowTime and an empty map object, and reads its seat layout and free-seat counts from the hall.
+ * <br>
+ * Ticket prices are looked up in a {@link PriceTable}, built on the first lookup and kept until the promotion
+ * rules change.
  * </p>
  *
  * @author cnrasili
- * @version 1.0
+ * @version 1.4
  */
 public class ShowTime {
     private LocalDateTime time;
     private Movie movie;
     private CinemaHall hall;
-    private List<Seat> seats;
+    private SeatOccupancy occupancy;
+    private volatile PriceTable priceTable;
 
     /**
      * Constructs a new ShowTime session.
@@ -33,44 +45,87 @@ public class ShowTime {
         this.time = time;
         this.movie = movie;
         this.hall = hall;
-        this.seats = new ArrayList<>();
-        initSeats();
+        this.occupancy = new SeatOccupancy(hall);
     }
 
     /**
-     * Creates a deep copy of the seating arrangement from the CinemaHall.
+     * Creates a view of the blueprint seat at the given index, bound to this session's occupancy.
      * <p>
-     * This method iterates through the hall's "blueprint" seats and creates new
-     * instances (either {@link LoveSeat} or {@link StandardSeat}) for this specific session.
-     * This ensures that {@code seat.reserve()} affects only this ShowTime.
+     * The view has the same type ({@link LoveSeat} or {@link StandardSeat}) and location as the hall's
+     * blueprint seat, so {@code seat.reserve()} affects only this ShowTime.
      * </p>
+     *
+     * @param index The seat's position in the hall's seat blueprint.
+     * @return The seat view.
      */
-    private void initSeats() {
-        for (Seat originalSeat : hall.getSeats()) {
+    private Seat seatView(int index) {
+        Seat originalSeat = hall.getSeats().get(index);
 
-            if (originalSeat instanceof LoveSeat) {
-                this.seats.add(new LoveSeat(originalSeat.getRow(), originalSeat.getNumber()));
-            }
-            else {
-                this.seats.add(new StandardSeat(originalSeat.getRow(), originalSeat.getNumber()));
-            }
+        if (originalSeat instanceof LoveSeat) {
+            return new LoveSeat(originalSeat.getRow(), originalSeat.getNumber(), occupancy, index);
+        }
+        else {
+            return new StandardSeat(originalSeat.getRow(), originalSeat.getNumber(), occupancy, index);
         }
     }
 
     /**
      * Retrieves a specific seat within this session based on row and number.
+     * <p>
+     * The seat is located in constant time through the hall's row-offset index
+     * (see {@link CinemaHall#getSeatIndex(int, int)}).
+     * </p>
      *
      * @param row    The row number.
      * @param number The seat number.
      * @return The {@link Seat} object if found, otherwise {@code null}.
      */
     public Seat getSeat(int row, int number) {
-        for (Seat seat : seats) {
-            if (seat.getRow() == row && seat.getNumber() == number) {
-                return seat;
+        int index = hall.getSeatIndex(row, number);
+        return index < 0 ? null : seatView(index);
+    }
+
+    /**
+     * Returns a read-only view of all seats in this session.
+     * <p>
+     * Seat objects are created lazily as the list is traversed; their status is read from and written to
+     * this session's {@link SeatOccupancy}.
+     * </p>
+     *
+     * @return A list of {@link Seat} views in blueprint order.
+     */
+    public List<Seat> getSeats() {
+        return new AbstractList<Seat>() {
+            @Override
+            public Seat get(int index) {
+                return seatView(index);
             }
-        }
-        return null;
+
+            @Override
+            public int size() {
+                return occupancy.size();
+            }
+        };
+    }
+
+    /**
+     * Finds the best block of adjacent available seats for a party, closest to the center of the hall.
+     *
+     * @param partySize The number of people to seat together (a {@link LoveSeat} seats two).
+     * @return The seats of the best block, or an empty list if the party can't be seated together.
+     * @see BestSeatFinder
+     */
+    public List<Seat> findBestSeats(int partySize) {
+        return BestSeatFinder.findBestSeats(this, partySize);
+    }
+
+    /**
+     * Returns this session's occupancy map. Used by {@link BestSeatFinder}.
+     *
+     * @return The occupancy map.
+     */
+    SeatOccupancy getOccupancy() {
+        return occupancy;
     }
 
     /**
@@ -83,9 +138,27 @@ public class ShowTime {
         return movie.calculatePrice() * hall.getPriceMultiplier();
     }
 
+    /**
+     * Returns the price table of this session for the given promotion rules.
+     * <p>
+     * The table is built on first use and rebuilt only when different rules are passed. Concurrent first
+     * lookups may each build a table; they are identical, and one of them is kept.
+     * </p>
+     *
+     * @param rules The current promotion rules.
+     * @return The session's price table.
+     */
+    public PriceTable getPriceTable(PricingRules rules) {
+        PriceTable table = priceTable;
+        if (table == null || table.getRules() != rules) {
+            table = new PriceTable(this, rules);
+            priceTable = table;
+        }
+        return table;
+    }
+
     public Movie getMovie() { return movie; }
     public CinemaHall getHall() { return hall; }
-    public List<Seat> getSeats() { return seats; }
     public LocalDateTime getTime() { return time; }
 
     /**
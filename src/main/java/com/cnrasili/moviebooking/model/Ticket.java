@@ -33,13 +33,28 @@ public class Ticket {
      * @param finalPrice    The actual amount paid.
      */
     public Ticket(String pnrCode, Customer owner, ShowTime showTime, Seat seat, double originalPrice, double finalPrice) {
+        this(pnrCode, owner, showTime, seat, originalPrice, finalPrice, LocalDateTime.now());
+    }
+
+    /**
+     * Constructs a Ticket with a known creation date (e.g., when restoring it from the booking journal).
+     *
+     * @param pnrCode       Unique Passenger Name Record code.
+     * @param owner         The customer who owns the ticket.
+     * @param showTime      The session for which the ticket is issued.
+     * @param seat          The booked seat.
+     * @param originalPrice The price before discounts.
+     * @param finalPrice    The actual amount paid.
+     * @param creationDate  The moment the ticket was issued.
+     */
+    public Ticket(String pnrCode, Customer owner, ShowTime showTime, Seat seat, double originalPrice, double finalPrice, LocalDateTime creationDate) {
         this.pnrCode = pnrCode;
         this.owner = owner;
         this.showTime = showTime;
         this.seat = seat;
         this.originalPrice = originalPrice;
         this.finalPrice = finalPrice;
-        this.creationDate = LocalDateTime.now();
+        this.creationDate = creationDate;
     }
 
     /**
@@ -79,7 +94,10 @@ public class Ticket {
     }
 
     public String getPnrCode() { return pnrCode; }
+    public Customer getOwner() { return owner; }
+    public LocalDateTime getCreationDate() { return creationDate; }
     public ShowTime getShowTime() { return showTime; }
     public Seat getSeat() { return seat; }
+    public double getOriginalPrice() { return originalPrice; }
     public double getFinalPrice() { return finalPrice; }
 }
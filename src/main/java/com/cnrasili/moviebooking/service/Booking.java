@@ -4,9 +4,17 @@ import com.cnrasili.moviebooking.exception.AgeLimitException;
 import com.cnrasili.moviebooking.exception.PaymentFailedException;
 import com.cnrasili.moviebooking.exception.SeatOccupiedException;
 import com.cnrasili.moviebooking.model.*;
+import com.cnrasili.moviebooking.util.EventLog;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Core service class responsible for handling the ticket booking workflow.
@@ -16,19 +24,24 @@ import java.util.UUID;
  * <br>
  * Key Responsibilities:
  * <ul>
- * <li>Validating seat availability via the {@link com.cnrasili.moviebooking.model.Bookable} interface.</li>
+ * <li>Validating seat availability via the {@link com.cnrasili.moviebooking.model.Bookable} interface,
+ * or converting a {@link SeatHold} placed during checkout.</li>
  * <li>Enforcing age restrictions based on movie ratings.</li>
  * <li>Calculating complex pricing (Base Price + Multipliers - Discounts).</li>
  * <li>Processing payments via {@link PaymentService}.</li>
- * <li>Persisting the successful booking to {@link CinemaSystem#soldTickets}.</li>
+ * <li>Persisting the successful booking to {@link CinemaSystem#soldTickets} (and to the {@link BookingJournal},
+ * if one is installed).</li>
+ * <li>Booking several seats at once as a single-payment {@link Order}.</li>
  * </ul>
  * </p>
  *
  * @author cnrasili
- * @version 2.0
+ * @version 3.3
  */
 public class Booking {
 
+    private static final EventLog LOG = EventLog.console();
+
     /**
      * Creates a new ticket for a customer after performing all necessary checks and financial transactions.
      * <p>
@@ -37,11 +50,19 @@ public class Booking {
      * <li>Check if the seat is available.</li>
      * <li>Validate customer age against the movie's rating.</li>
      * <li>Calculate Base Price: (Movie Price * Hall Multiplier * Seat Multiplier).</li>
-     * <li>Apply <b>First Session Discount</b> (10%) if applicable.</li>
-     * <li>Apply <b>Strategy Discount</b> (e.g., Student Discount) on top of the base price.</li>
-     * <li>Process payment for the final calculated amount.</li>
-     * <li>Reserve the seat and register the ticket in the system.</li>
+     * <li>Apply the promotions of {@link CinemaSystem#pricingRules} (by default the <b>First Session Discount</b>
+     * (10%) and, with a {@link StudentStrategy}, the <b>Student Discount</b> (20%)) on top of the base price.</li>
+     * <li>The steps above are a single lookup in the session's price table (see {@link PricingEngine}), in whole
+     * kurus.</li>
+     * <li>Atomically claim the seat via {@link Bookable#tryReserve()}.</li>
+     * <li>Process payment for the final calculated amount (the seat is released again if payment fails).</li>
+     * <li>Register the ticket in the system.</li>
      * </ol>
+     * Because the seat is claimed with a compare-and-set before the card is charged, concurrent buyers of the
+     * same seat cannot both be charged: exactly one claim succeeds and the others fail with
+     * {@link SeatOccupiedException}. No global lock is taken on this path.
+     * <br>
+     * The time spent in each step, and the step a checkout failed in, are recorded in {@link CinemaSystem#metrics}.
      * </p>
      *
      * @param customer       The customer requesting the booking.
@@ -58,65 +79,207 @@ public class Booking {
     public Ticket createTicket(Customer customer, ShowTime showTime, Seat seat, PriceStrategy priceStrategy, PaymentService paymentService, String cardInfo)
             throws SeatOccupiedException, AgeLimitException, PaymentFailedException {
 
-        if (!seat.isAvailable()) {
-            throw new SeatOccupiedException("Seat " + seat.toString() + " is already occupied.");
-        }
-
-        validateAge(customer, showTime.getMovie());
-
-        double basePrice = showTime.getMovie().calculatePrice() * seat.getPriceMultiplier() * showTime.getHall().getPriceMultiplier();
+        BookingMetrics.Probe probe = BookingMetrics.begin(CinemaSystem.metrics, showTime, BookingMetrics.Stage.AVAILABILITY);
+        try {
+            if (!seat.isAvailable()) {
+                throw new SeatOccupiedException("Seat " + seat.toString() + " is already occupied.");
+            }
 
-        double totalDiscountAmount = 0.0;
+            probe.enter(BookingMetrics.Stage.AGE_CHECK);
+            validateAge(customer, showTime.getMovie());
 
-        if (isFirstSession(showTime)) {
-            System.out.println(">> Automatic Discount: First Session Discount Applied (-10%)");
+            probe.enter(BookingMetrics.Stage.PRICING);
+            double basePrice = PricingEngine.toLira(PricingEngine.basePrice(showTime, seat));
+            double finalPrice = PricingEngine.toLira(PricingEngine.finalPrice(showTime, seat, checkFirstSession(showTime), 1, priceStrategy));
+            priceStrategy.announce();
 
-            PriceStrategy firstSessionStrategy = new FirstSessionStrategy();
+            // Claim the seat before charging, so a lost race never costs the customer money
+            probe.enter(BookingMetrics.Stage.RESERVATION);
+            if (!seat.tryReserve()) {
+                throw new SeatOccupiedException("Seat " + seat.toString() + " is already occupied.");
+            }
 
-            double discountedPrice = firstSessionStrategy.calculateDiscount(basePrice);
+            probe.enter(BookingMetrics.Stage.PAYMENT);
+            try {
+                paymentService.processPayment(finalPrice, cardInfo);
+            } catch (PaymentFailedException | RuntimeException e) {
+                seat.cancelBooking();
+                throw e;
+            }
 
-            totalDiscountAmount += (basePrice - discountedPrice);
+            probe.enter(BookingMetrics.Stage.REGISTRATION);
+            Ticket ticket = registerTicket(customer, showTime, seat, basePrice, finalPrice);
+            journalSales(Collections.singletonList(ticket));
+            probe.done();
+            return ticket;
+        } catch (SeatOccupiedException | AgeLimitException | PaymentFailedException | RuntimeException e) {
+            probe.fail(e);
+            throw e;
         }
+    }
+
+    /**
+     * Creates a new ticket for a seat the customer is already holding (see {@link SeatHoldService}).
+     * <p>
+     * The flow matches {@link #createTicket(Customer, ShowTime, Seat, PriceStrategy, PaymentService, String)},
+     * except that the seat does not have to be claimed: it is already held for this customer. The hold is
+     * claimed for the duration of the payment so it cannot expire while the card is being charged, and is
+     * turned into a booking once the payment succeeds. If the payment fails, the hold stays in place (until its
+     * TTL elapses), so the customer can retry with another card.
+     * </p>
+     *
+     * @param customer       The customer requesting the booking.
+     * @param hold           The customer's hold on the selected seat.
+     * @param priceStrategy  The pricing strategy to apply (e.g., StudentStrategy).
+     * @param paymentService The service used to process the payment.
+     * @param cardInfo       The credit card information provided by the user.
+     * @return A valid, registered {@link Ticket} object.
+     * @throws SeatOccupiedException  If the hold has expired or was released.
+     * @throws AgeLimitException      If the customer does not meet the age requirements.
+     * @throws PaymentFailedException If the payment is rejected due to format, balance, or validity.
+     */
+    public Ticket createTicket(Customer customer, SeatHold hold, PriceStrategy priceStrategy, PaymentService paymentService, String cardInfo)
+            throws SeatOccupiedException, AgeLimitException, PaymentFailedException {
 
-        double priceAfterStrategy = priceStrategy.calculateDiscount(basePrice);
-        double strategyDiscountAmount = basePrice - priceAfterStrategy;
+        ShowTime showTime = hold.getShowTime();
+        Seat seat = hold.getSeat();
 
-        totalDiscountAmount += strategyDiscountAmount;
+        // The seat was checked when it was held, so the checkout starts with the age check
+        BookingMetrics.Probe probe = BookingMetrics.begin(CinemaSystem.metrics, showTime, BookingMetrics.Stage.AGE_CHECK);
+        try {
+            validateAge(customer, showTime.getMovie());
 
-        double finalPrice = basePrice - totalDiscountAmount;
+            probe.enter(BookingMetrics.Stage.PRICING);
+            double basePrice = PricingEngine.toLira(PricingEngine.basePrice(showTime, seat));
+            double finalPrice = PricingEngine.toLira(PricingEngine.finalPrice(showTime, seat, checkFirstSession(showTime), 1, priceStrategy));
+            priceStrategy.announce();
 
-        paymentService.processPayment(finalPrice, cardInfo);
+            probe.enter(BookingMetrics.Stage.RESERVATION);
+            if (!hold.claim()) {
+                throw new SeatOccupiedException("The hold on seat " + seat.toString() + " has expired.");
+            }
 
-        seat.reserve();
-        String pnr = generatePNR();
-        Ticket ticket = new Ticket(pnr, customer, showTime, seat, basePrice, finalPrice);
-        CinemaSystem.soldTickets.add(ticket);
-        return ticket;
+            probe.enter(BookingMetrics.Stage.PAYMENT);
+            try {
+                paymentService.processPayment(finalPrice, cardInfo);
+            } catch (PaymentFailedException | RuntimeException e) {
+                hold.unclaim();
+                throw e;
+            }
 
+            probe.enter(BookingMetrics.Stage.REGISTRATION);
+            hold.confirm();
+            Ticket ticket = registerTicket(customer, showTime, seat, basePrice, finalPrice);
+            journalSales(Collections.singletonList(ticket));
+            probe.done();
+            return ticket;
+        } catch (SeatOccupiedException | AgeLimitException | PaymentFailedException | RuntimeException e) {
+            probe.fail(e);
+            throw e;
+        }
     }
 
     /**
      * Determines if the given showtime is the first session of the day for that specific movie.
      * <p>
-     * It queries {@link CinemaSystem#activeShowTimes} to check if there are any earlier
-     * sessions for the same movie on the same date.
+     * It queries the first-session index of {@link CinemaSystem#activeShowTimes}, which tracks the earliest
+     * start time per movie and date, so the check takes constant time regardless of the schedule size.
      * </p>
      *
      * @param currentShow The showtime to check.
      * @return {@code true} if no earlier showtime exists; {@code false} otherwise.
      */
     public boolean isFirstSession(ShowTime currentShow) {
-        LocalDateTime current = currentShow.getTime();
-        Movie movie = currentShow.getMovie();
+        return CinemaSystem.activeShowTimes.isFirstSession(currentShow);
+    }
 
-        for (ShowTime s : CinemaSystem.activeShowTimes) {
-            if (s.getMovie().equals(movie) && s.getTime().toLocalDate().equals(current.toLocalDate())) {
-                if (s.getTime().isBefore(current)) {
-                    return false;
+    /**
+     * Books several seats of one showtime together, with a single payment (e.g., for a group of friends).
+     * <p>
+     * The booking is all-or-nothing:
+     * <ol>
+     * <li>Validate customer age against the movie's rating.</li>
+     * <li>Price every seat as {@link #createTicket(Customer, ShowTime, Seat, PriceStrategy, PaymentService, String)}
+     * would, with the group size taken into account by group promotions.</li>
+     * <li>Claim all seats in ascending (row, number) order. If any seat is already taken, the seats claimed so far
+     * are released and nothing is charged.</li>
+     * <li>Charge the card <b>once</b> for the total (all seats are released again if payment fails).</li>
+     * <li>Register one ticket per seat and return them together as an {@link Order}.</li>
+     * </ol>
+     * Every concurrent group claims seats in the same global order, so two overlapping groups always collide on
+     * their lowest shared seat first: one of them wins it and completes, the other backs off without having
+     * blocked any of the winner's seats.
+     * <br>
+     * Like a single checkout, every group checkout is recorded in {@link CinemaSystem#metrics}; resolving the seats
+     * counts as the availability step.
+     * </p>
+     *
+     * @param customer       The customer placing the order.
+     * @param showTime       The selected showtime session.
+     * @param seats          The seats to book; all must belong to {@code showTime}. Duplicates are ignored.
+     * @param priceStrategy  The pricing strategy to apply to every seat (e.g., StudentStrategy).
+     * @param paymentService The service used to process the payment.
+     * @param cardInfo       The credit card information provided by the user.
+     * @return The registered {@link Order} holding one ticket per seat.
+     * @throws SeatOccupiedException  If any of the seats is already reserved or occupied.
+     * @throws AgeLimitException      If the customer does not meet the age requirements.
+     * @throws PaymentFailedException If the payment is rejected due to format, balance, or validity.
+     * @throws IllegalArgumentException If no seats are given or a seat does not belong to the showtime.
+     */
+    public Order createGroupBooking(Customer customer, ShowTime showTime, Collection<? extends Seat> seats, PriceStrategy priceStrategy, PaymentService paymentService, String cardInfo)
+            throws SeatOccupiedException, AgeLimitException, PaymentFailedException {
+
+        BookingMetrics.Probe probe = BookingMetrics.begin(CinemaSystem.metrics, showTime, BookingMetrics.Stage.AVAILABILITY);
+        try {
+            List<Seat> ordered = orderSeats(showTime, seats);
+
+            probe.enter(BookingMetrics.Stage.AGE_CHECK);
+            validateAge(customer, showTime.getMovie());
+
+            probe.enter(BookingMetrics.Stage.PRICING);
+            boolean firstSession = checkFirstSession(showTime);
+            priceStrategy.announce();
+            double[] basePrices = new double[ordered.size()];
+            double[] finalPrices = new double[ordered.size()];
+            long total = 0;
+            for (int i = 0; i < ordered.size(); i++) {
+                long finalPrice = PricingEngine.finalPrice(showTime, ordered.get(i), firstSession, ordered.size(), priceStrategy);
+                basePrices[i] = PricingEngine.toLira(PricingEngine.basePrice(showTime, ordered.get(i)));
+                finalPrices[i] = PricingEngine.toLira(finalPrice);
+                total += finalPrice;
+            }
+
+            probe.enter(BookingMetrics.Stage.RESERVATION);
+            int claimed = 0;
+            try {
+                for (; claimed < ordered.size(); claimed++) {
+                    Seat seat = ordered.get(claimed);
+                    if (!seat.tryReserve()) {
+                        throw new SeatOccupiedException("Seat " + seat.toString() + " is already occupied.");
+                    }
+                }
+                probe.enter(BookingMetrics.Stage.PAYMENT);
+                paymentService.processPayment(PricingEngine.toLira(total), cardInfo);
+            } catch (SeatOccupiedException | PaymentFailedException | RuntimeException e) {
+                for (int i = 0; i < claimed; i++) {
+                    ordered.get(i).cancelBooking();
                 }
+                throw e;
+            }
+
+            probe.enter(BookingMetrics.Stage.REGISTRATION);
+            List<Ticket> tickets = new ArrayList<>(ordered.size());
+            for (int i = 0; i < ordered.size(); i++) {
+                tickets.add(registerTicket(customer, showTime, ordered.get(i), basePrices[i], finalPrices[i]));
             }
+            journalSales(tickets);
+            Order order = new Order(CinemaSystem.shards.shardFor(showTime).nextPnr(), customer, showTime, tickets);
+            probe.done();
+            return order;
+        } catch (SeatOccupiedException | AgeLimitException | PaymentFailedException | RuntimeException e) {
+            probe.fail(e);
+            throw e;
         }
-        return true;
     }
 
     /**
@@ -137,11 +300,80 @@ public class Booking {
     }
 
     /**
-     * Generates a unique 8-character Passenger Name Record (PNR) code.
-     *
-     * @return A random alphanumeric string (e.g., "A1B2C3D4").
+     * Checks the first session rule and announces the automatic discount if it applies.
      */
-    private String generatePNR() {
-        return UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    private boolean checkFirstSession(ShowTime showTime) {
+        boolean firstSession = isFirstSession(showTime);
+        if (firstSession) {
+            LOG.log(EventLog.Level.INFO, ">> Automatic Discount: First Session Discount Applied (-10%)", "movie", showTime.getMovie().getTitle());
+        }
+        return firstSession;
+    }
+
+    /**
+     * Resolves the requested seats against the showtime and sorts them into claim order.
+     */
+    private List<Seat> orderSeats(ShowTime showTime, Collection<? extends Seat> seats) {
+        if (seats.isEmpty()) {
+            throw new IllegalArgumentException("A group booking needs at least one seat.");
+        }
+        TreeSet<Seat> ordered = new TreeSet<>(Comparator.comparingInt(Seat::getRow).thenComparingInt(Seat::getNumber));
+        for (Seat seat : seats) {
+            if (!seat.equals(showTime.getSeat(seat.getRow(), seat.getNumber()))) {
+                throw new IllegalArgumentException("Seat " + seat + " does not belong to " + showTime + ".");
+            }
+            ordered.add(seat);
+        }
+        return new ArrayList<>(ordered);
+    }
+
+    /**
+     * Registers a paid ticket under a new code of the showtime's shard (see {@link PnrGenerator}).
+     * <p>
+     * Generated codes are unique by construction, so the first code is accepted. The registry and archive checks
+     * only matter if codes are reissued, e.g. after the system clock was set back: another code is drawn then.
+     * </p>
+     */
+    private Ticket registerTicket(Customer customer, ShowTime showTime, Seat seat, double basePrice, double finalPrice) {
+        TicketArchive archive = CinemaSystem.archive;
+        BranchShard shard = CinemaSystem.shards.shardFor(showTime);
+        while (true) {
+            String pnr = shard.nextPnr();
+            if (archive != null && archive.contains(pnr)) {
+                continue;
+            }
+            Ticket ticket = new Ticket(pnr, customer, showTime, seat, basePrice, finalPrice);
+            if (CinemaSystem.soldTickets.add(ticket)) {
+                return ticket;
+            }
+        }
+    }
+
+    /**
+     * Appends sold tickets to {@link CinemaSystem#journal} (if installed) and waits until they are durable.
+     * <p>
+     * The records are queued together and written in order, so waiting for the last one covers them all
+     * (including the card debit journaled by the payment service before them).
+     * <br>
+     * By now the card is charged and the seats are sold, so a journal failure does not undo the booking: it stays
+     * valid until the application stops, and a warning reports that it will not survive a restart.
+     * </p>
+     */
+    private void journalSales(List<Ticket> tickets) {
+        BookingJournal journal = CinemaSystem.journal;
+        if (journal == null) {
+            return;
+        }
+        try {
+            CompletableFuture<Void> durable = null;
+            for (Ticket ticket : tickets) {
+                durable = journal.ticketSold(ticket);
+            }
+            durable.join();
+        } catch (RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            LOG.log(EventLog.Level.WARN, "Booking {pnr} is confirmed but not durable: it could not be written to the journal and will be lost on restart. {cause}",
+                    "pnr", tickets.get(0).getPnrCode(), "cause", cause.getMessage());
+        }
     }
 }
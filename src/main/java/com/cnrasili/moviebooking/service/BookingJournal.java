@@ -0,0 +1,604 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.*;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32;
+
+/**
+ * Durable, append-only journal of everything that changes the booking state at runtime.
+ * <p>
+ * {@link CinemaSystem} keeps all state in memory. When a journal is installed in {@link CinemaSystem#journal},
+ * every sold ticket, refund, card debit and ticket archival is also appended to a binary journal file, so that
+ * the state can be rebuilt after a restart: {@link #open(Path)} first reloads the file on top of the freshly loaded
+ * {@link DataInitializer} data, then keeps appending to it.
+ * <br>
+ * Record layout: {@code [int length][int CRC-32][length bytes of payload]}, where the payload starts with a
+ * one-byte record type. A torn or corrupt record at the end of the file (e.g., after a crash mid-write) ends the
+ * replay and is cut off, so the journal stays appendable.
+ * <br>
+ * <b>Group commit:</b> callers never write to the file themselves. They enqueue encoded records and receive a
+ * future that completes once the record is on disk. A single writer thread drains everything queued since its
+ * last write, writes it in one go and calls {@code fsync} once for the whole batch. Under load, one
+ * {@code fsync} therefore covers many bookings, so durability does not cap booking throughput. If a batch fails
+ * to be written, its futures fail and whatever part of it reached the file is cut off again, so later batches
+ * still replay.
+ * <br>
+ * <b>Snapshots:</b> the journal is split into numbered segments, each starting with a small header. A
+ * {@link #snapshot()} seals the current segment (renamed to {@code <file>.sealed}) and continues in a fresh one,
+ * then folds the sealed segment into the snapshot file ({@code <file>.snapshot}, see {@link JournalSnapshot})
+ * and deletes it. The fold only reads files, so bookings carry on while it runs, and the cut between snapshot
+ * and journal falls exactly between two records. A restart then loads the snapshot and replays only the
+ * records written since.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.3
+ */
+public class BookingJournal implements Closeable {
+
+    private static final int SEGMENT_MAGIC = 0x424A524E; // "BJRN", larger than any valid record length
+    private static final int SEGMENT_HEADER_BYTES = 12;
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+    private static final int MAX_BATCH = 4096;
+
+    private final Path file;
+    private final Path sealedFile;
+    private final Path snapshotFile;
+    private FileChannel channel;
+    private long segmentId;
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final Object appendLock = new Object();
+    private final Object snapshotLock = new Object();
+    private final AtomicLong syncCount = new AtomicLong();
+    private final AtomicLong writtenRecords = new AtomicLong();
+    private final AtomicLong segmentRecords = new AtomicLong();
+    private final AtomicLong snapshotCount = new AtomicLong();
+    private final Thread writer;
+    private ScheduledExecutorService snapshotScheduler;
+    private int replayedRecords;
+    private volatile boolean closed;
+
+    private final UnaryOperator<FileChannel> channels;
+
+    private BookingJournal(Path file, UnaryOperator<FileChannel> channels) {
+        this.file = file;
+        this.channels = channels;
+        this.sealedFile = Paths.get(file + ".sealed");
+        this.snapshotFile = Paths.get(file + ".snapshot");
+        this.writer = new Thread(this::runWriter, "booking-journal");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Opens (or creates) a journal file, restores its snapshot and replays the journal tail into
+     * {@link CinemaSystem}, then starts accepting new records.
+     * <p>
+     * Must be called after {@link DataInitializer#loadMockData()}, since restored tickets refer to the loaded
+     * branches, halls and movies, and card debits apply to the loaded balances. The returned journal still has
+     * to be installed in {@link CinemaSystem#journal} to record new changes.
+     * <br>
+     * A sealed segment left behind by an interrupted snapshot is folded into the snapshot here.
+     * </p>
+     *
+     * @param file The journal file.
+     * @return The open journal, positioned at the end of its last valid record.
+     * @throws IOException If the files can't be read or the journal can't be opened for writing.
+     */
+    public static BookingJournal open(Path file) throws IOException {
+        return open(file, UnaryOperator.identity());
+    }
+
+    /**
+     * Opens a journal whose segment channels are passed through {@code channels} first (e.g., to inject
+     * write failures in tests).
+     */
+    static BookingJournal open(Path file, UnaryOperator<FileChannel> channels) throws IOException {
+        BookingJournal journal = new BookingJournal(file, channels);
+        journal.recover();
+        journal.writer.start();
+        return journal;
+    }
+
+    /**
+     * Appends a sold ticket.
+     *
+     * @param ticket The ticket that has been registered.
+     * @return A future completed once the record is durable.
+     */
+    public CompletableFuture<Void> ticketSold(Ticket ticket) {
+        return append(out -> JournalSnapshot.writeTicketSold(out, ticket));
+    }
+
+    /**
+     * Appends a refund.
+     *
+     * @param pnrCode The PNR of the refunded ticket.
+     * @return A future completed once the record is durable.
+     */
+    public CompletableFuture<Void> ticketRefunded(String pnrCode) {
+        return append(out -> {
+            out.writeByte(JournalSnapshot.TICKET_REFUNDED);
+            out.writeUTF(pnrCode);
+        });
+    }
+
+    /**
+     * Appends the archival of a ticket. Like a refund, it removes the ticket from the restored state, but the
+     * seat stays booked and the ticket lives on in the {@link TicketArchive}.
+     *
+     * @param pnrCode The PNR of the archived ticket.
+     * @return A future completed once the record is durable.
+     */
+    public CompletableFuture<Void> ticketArchived(String pnrCode) {
+        return append(out -> {
+            out.writeByte(JournalSnapshot.TICKET_ARCHIVED);
+            out.writeUTF(pnrCode);
+        });
+    }
+
+    /**
+     * Appends a card debit.
+     * <p>
+     * Debits are recorded as amounts rather than resulting balances, so concurrent debits on the same card
+     * replay to the same balance regardless of the order in which their records reached the journal.
+     * </p>
+     *
+     * @param cardNumber The debited card.
+     * @param amount     The debited amount.
+     * @return A future completed once the record is durable.
+     */
+    public CompletableFuture<Void> cardDebited(String cardNumber, double amount) {
+        return append(out -> {
+            out.writeByte(JournalSnapshot.CARD_DEBITED);
+            out.writeUTF(cardNumber);
+            out.writeDouble(amount);
+        });
+    }
+
+    /**
+     * Takes a snapshot: seals the current journal segment and folds it into the snapshot file.
+     * <p>
+     * Booking is never paused. Records appended while the snapshot is being written go to the new segment and
+     * are replayed on top of the snapshot after a restart. Does nothing if no record has been written since the
+     * last snapshot.
+     * </p>
+     *
+     * @return {@code true} if a snapshot was written.
+     * @throws IOException If the segment can't be sealed or the snapshot can't be written.
+     */
+    public boolean snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            if (segmentRecords.get() == 0 && !Files.exists(sealedFile)) {
+                return false;
+            }
+            if (!Files.exists(sealedFile)) {
+                PendingWrite rotation = new PendingWrite(null);
+                enqueue(rotation);
+                try {
+                    rotation.done.join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+                }
+            }
+            compact();
+            snapshotCount.incrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     * Takes a {@link #snapshot()} periodically on a background thread until the journal is closed.
+     *
+     * @param period The time between two snapshots.
+     * @param unit   The unit of {@code period}.
+     */
+    public synchronized void scheduleSnapshots(long period, TimeUnit unit) {
+        if (snapshotScheduler != null) {
+            throw new IllegalStateException("Snapshots are already scheduled.");
+        }
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "booking-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("ERROR: Failed to snapshot booking journal " + file + ". " + e.getMessage());
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Returns the number of journal records replayed on top of the snapshot when the journal was opened.
+     *
+     * @return The replayed record count.
+     */
+    public int getReplayedRecords() {
+        return replayedRecords;
+    }
+
+    /**
+     * Returns how many times the writer has forced the file to disk. Each sync covers a whole batch of records.
+     *
+     * @return The number of {@code fsync} calls so far.
+     */
+    public long getSyncCount() {
+        return syncCount.get();
+    }
+
+    /**
+     * Returns the number of records written (and synced) since the journal was opened.
+     *
+     * @return The written record count.
+     */
+    public long getWrittenRecords() {
+        return writtenRecords.get();
+    }
+
+    /**
+     * Returns the number of snapshots taken since the journal was opened.
+     *
+     * @return The snapshot count.
+     */
+    public long getSnapshotCount() {
+        return snapshotCount.get();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public Path getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    /**
+     * Stops scheduled snapshots, writes all queued records, then closes the file. Records appended afterwards
+     * are rejected.
+     *
+     * @throws IOException If the file can't be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (snapshotScheduler != null) {
+                snapshotScheduler.shutdown();
+                try {
+                    snapshotScheduler.awaitTermination(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        synchronized (appendLock) {
+            closed = true;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private CompletableFuture<Void> append(RecordWriter record) {
+        byte[] payload;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            record.write(new DataOutputStream(bytes));
+            payload = bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+
+        PendingWrite pending = new PendingWrite(frame);
+        enqueue(pending);
+        return pending.done;
+    }
+
+    private void enqueue(PendingWrite pending) {
+        synchronized (appendLock) {
+            if (closed) {
+                throw new IllegalStateException("Booking journal " + file + " is closed.");
+            }
+            queue.add(pending);
+        }
+    }
+
+    private void runWriter() {
+        List<PendingWrite> batch = new ArrayList<>();
+        while (true) {
+            PendingWrite first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                first = null;
+            }
+            if (first == null) {
+                if (closed && queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, MAX_BATCH - 1);
+
+            // A rotation request (no frame) splits the batch: records queued before it stay in the old segment.
+            int from = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                if (batch.get(i).frame == null) {
+                    writeBatch(batch.subList(from, i));
+                    rotate(batch.get(i));
+                    from = i + 1;
+                }
+            }
+            writeBatch(batch.subList(from, batch.size()));
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        ByteBuffer[] frames = new ByteBuffer[batch.size()];
+        long total = 0;
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = batch.get(i).frame;
+            total += frames[i].remaining();
+        }
+        long start = -1;
+        try {
+            start = channel.position();
+            long written = 0;
+            while (written < total) {
+                written += channel.write(frames);
+            }
+            channel.force(false);
+            syncCount.incrementAndGet();
+            writtenRecords.addAndGet(batch.size());
+            segmentRecords.addAndGet(batch.size());
+            for (PendingWrite pending : batch) {
+                pending.done.complete(null);
+            }
+        } catch (IOException e) {
+            System.err.println("ERROR: Failed to write booking journal " + file + ". " + e.getMessage());
+            discardFrom(start);
+            for (PendingWrite pending : batch) {
+                pending.done.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Cuts off whatever part of a failed batch reached the segment, so the next batch does not end up behind a
+     * torn frame, where replay would never reach it. If even that fails, continues in a new segment instead.
+     */
+    private void discardFrom(long start) {
+        try {
+            if (start < 0) {
+                throw new IOException("Position of the failed batch is unknown.");
+            }
+            channel.truncate(start);
+            channel.position(start);
+            return;
+        } catch (IOException e) {
+            System.err.println("ERROR: Failed to cut off the failed batch in " + file + ". " + e.getMessage());
+        }
+        // The torn frame stays at the end of the sealed segment, which is folded up to that frame
+        rotate(new PendingWrite(null));
+    }
+
+    /**
+     * Seals the current segment and continues in a new one. Runs on the writer thread, so no record can be
+     * written in between.
+     */
+    private void rotate(PendingWrite rotation) {
+        try {
+            if (Files.exists(sealedFile)) {
+                throw new IOException("Sealed segment " + sealedFile + " has not been folded into the snapshot yet.");
+            }
+            channel.close();
+            Files.move(file, sealedFile, StandardCopyOption.ATOMIC_MOVE);
+            channel = channels.apply(createSegment(file, segmentId + 1));
+            segmentId++;
+            segmentRecords.set(0);
+            rotation.done.complete(null);
+        } catch (IOException e) {
+            rotation.done.completeExceptionally(e);
+            try {
+                if (!channel.isOpen() && Files.exists(file)) {
+                    channel = channels.apply(FileChannel.open(file, StandardOpenOption.WRITE));
+                    channel.position(channel.size());
+                } else if (!channel.isOpen()) {
+                    channel = channels.apply(createSegment(file, ++segmentId));
+                    segmentRecords.set(0);
+                }
+            } catch (IOException reopen) {
+                System.err.println("ERROR: Failed to reopen booking journal " + file + ". " + reopen.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Folds the sealed segment into the snapshot file, then deletes it.
+     * <p>
+     * If a previous run already wrote the snapshot but crashed before deleting the segment, the snapshot
+     * covers the segment's id and the segment is just deleted.
+     * </p>
+     */
+    private void compact() throws IOException {
+        JournalSnapshot snapshot = JournalSnapshot.read(snapshotFile);
+        if (!foldSegment(sealedFile, snapshot).covered) {
+            snapshot.write(snapshotFile);
+        }
+        Files.delete(sealedFile);
+    }
+
+    /**
+     * Restores the snapshot and the journal tail into {@link CinemaSystem}, cuts off a torn tail and opens the
+     * active segment for appending.
+     */
+    private void recover() throws IOException {
+        if (Files.exists(sealedFile)) {
+            compact();
+        }
+        JournalSnapshot snapshot = JournalSnapshot.read(snapshotFile);
+
+        SegmentScan active = Files.exists(file) ? foldSegment(file, snapshot) : null;
+        snapshot.restore();
+
+        if (active == null || active.validEnd == 0) {
+            segmentId = snapshot.getLastSegmentId() + 1;
+            channel = channels.apply(createSegment(file, segmentId));
+            return;
+        }
+        segmentId = active.id;
+        replayedRecords = active.records;
+        segmentRecords.set(active.records);
+        channel = channels.apply(FileChannel.open(file, StandardOpenOption.WRITE));
+        if (active.validEnd < channel.size()) {
+            System.err.println("WARNING: Discarding " + (channel.size() - active.validEnd) + " bytes of incomplete records at the end of " + file);
+            channel.truncate(active.validEnd);
+        }
+        channel.position(active.validEnd);
+    }
+
+    /**
+     * Folds every valid record of a segment into a snapshot, unless the snapshot already covers the segment.
+     * <p>
+     * Journals written before segments were introduced have no header; they are read as segment 0.
+     * </p>
+     *
+     * @return The segment id, whether the snapshot already covered it, its folded record count and the end of
+     * its last valid record (0 if even the header is incomplete).
+     */
+    private SegmentScan foldSegment(Path segment, JournalSnapshot snapshot) throws IOException {
+        SegmentScan scan = new SegmentScan();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(segment))) {
+            DataInputStream data = new DataInputStream(in);
+            in.mark(SEGMENT_HEADER_BYTES);
+            try {
+                if (data.readInt() == SEGMENT_MAGIC) {
+                    scan.id = data.readLong();
+                    scan.validEnd = SEGMENT_HEADER_BYTES;
+                } else {
+                    in.reset();
+                }
+            } catch (EOFException e) {
+                scan.covered = true;
+                return scan;
+            }
+            scan.covered = scan.id <= snapshot.getLastSegmentId();
+
+            while (true) {
+                byte[] payload;
+                try {
+                    int length = data.readInt();
+                    int checksum = data.readInt();
+                    if (length < 1 || length > MAX_RECORD_BYTES) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    data.readFully(payload);
+                    CRC32 crc = new CRC32();
+                    crc.update(payload);
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                if (!scan.covered) {
+                    snapshot.apply(payload);
+                    scan.records++;
+                }
+                scan.validEnd += HEADER_BYTES + payload.length;
+            }
+        }
+        if (!scan.covered) {
+            snapshot.setLastSegmentId(scan.id);
+        }
+        return scan;
+    }
+
+    /**
+     * Creates (or empties) a segment file and writes its header.
+     */
+    private static FileChannel createSegment(Path segment, long id) throws IOException {
+        FileChannel created = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+        header.putInt(SEGMENT_MAGIC).putLong(id).flip();
+        while (header.hasRemaining()) {
+            created.write(header);
+        }
+        created.force(true);
+        return created;
+    }
+
+    /**
+     * Encodes one record payload.
+     */
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * A framed record waiting for the writer thread, or a rotation request if it has no frame.
+     */
+    private static final class PendingWrite {
+        final ByteBuffer frame;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        PendingWrite(ByteBuffer frame) {
+            this.frame = frame;
+        }
+    }
+
+    /**
+     * The outcome of reading one segment file.
+     */
+    private static final class SegmentScan {
+        long id;
+        boolean covered;
+        long validEnd;
+        int records;
+    }
+}
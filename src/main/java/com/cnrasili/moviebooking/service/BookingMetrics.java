@@ -0,0 +1,328 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.CinemaBranch;
+import com.cnrasili.moviebooking.model.CinemaHall;
+import com.cnrasili.moviebooking.model.ShowTime;
+import com.cnrasili.moviebooking.util.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latency and outcome metrics of the checkout pipeline in {@link Booking#createTicket} and
+ * {@link Booking#createGroupBooking}, stage by stage. A group checkout counts once, whatever its number of seats.
+ * <p>
+ * Every checkout is timed per {@link Stage}, and once more as a whole ({@link Stage#TOTAL}). Each time goes into a
+ * {@link LatencyHistogram} for its branch, hall type and outcome, where the outcome is {@link #OK} or the simple
+ * name of the exception the stage failed with. This tells e.g. a slow card payment ({@code PAYMENT / OK} is slow)
+ * apart from seat contention ({@code RESERVATION / SeatOccupiedException} is frequent).
+ * <br>
+ * Recording is lock-free and does not allocate on the success path: histograms are created on first use per hall,
+ * and their counts are the outcome counters. {@link #snapshot()} adds the halls of a branch up by hall type.
+ * {@link #start(Path, long, TimeUnit)} writes the {@link #dump()} to a text file at a fixed rate.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+public class BookingMetrics {
+
+    /**
+     * The stages of a checkout, in the order they run.
+     */
+    public enum Stage { AVAILABILITY, AGE_CHECK, PRICING, RESERVATION, PAYMENT, REGISTRATION, TOTAL }
+
+    /** Outcome of a stage that completed. */
+    public static final String OK = "OK";
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final Probe DISABLED = new Probe(null, null);
+
+    private final Map<CinemaHall, Series> series = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Starts timing a checkout of the given showtime.
+     *
+     * @param metrics  The metrics to record into, or {@code null} to record nothing.
+     * @param showTime The showtime being booked.
+     * @param first    The stage that starts now.
+     * @return The probe to report the following stages to.
+     */
+    static Probe begin(BookingMetrics metrics, ShowTime showTime, Stage first) {
+        if (metrics == null) {
+            return DISABLED;
+        }
+        return new Probe(metrics.series.computeIfAbsent(showTime.getHall(), Series::new), first);
+    }
+
+    /**
+     * Returns the metrics recorded so far, one entry per stage, branch, hall type and outcome.
+     *
+     * @return The entries, sorted by stage, branch, hall type and outcome.
+     */
+    public List<Entry> snapshot() {
+        Map<String, Entry> merged = new TreeMap<>();
+        for (Series hallSeries : series.values()) {
+            for (Stage stage : STAGES) {
+                LatencyHistogram ok = hallSeries.ok.get(stage.ordinal());
+                if (ok != null) {
+                    add(merged, new Entry(stage, hallSeries.branch, hallSeries.hallType, OK, ok.snapshot()));
+                }
+            }
+            for (Map.Entry<String, LatencyHistogram> failure : hallSeries.failures.entrySet()) {
+                String key = failure.getKey();
+                int separator = key.indexOf(':');
+                Stage stage = Stage.valueOf(key.substring(0, separator));
+                add(merged, new Entry(stage, hallSeries.branch, hallSeries.hallType, key.substring(separator + 1),
+                        failure.getValue().snapshot()));
+            }
+        }
+        return sorted(merged);
+    }
+
+    /**
+     * Adds up entries over all branches and hall types, keeping stages and outcomes apart.
+     *
+     * @param entries Entries as returned by {@link #snapshot()}.
+     * @return One entry per stage and outcome, with branch and hall type {@code "*"}.
+     */
+    public static List<Entry> byStage(List<Entry> entries) {
+        Map<String, Entry> merged = new TreeMap<>();
+        for (Entry entry : entries) {
+            add(merged, new Entry(entry.stage, "*", "*", entry.outcome, entry.latency));
+        }
+        return sorted(merged);
+    }
+
+    /**
+     * Formats entries as a table with counts and latencies in microseconds.
+     *
+     * @param entries The entries to print.
+     * @return The table, one line per entry after a header line.
+     */
+    public static String format(List<Entry> entries) {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%-13s %-20s %-13s %-24s %9s %10s %10s %10s %10s %10s%n",
+                "stage", "branch", "hall", "outcome", "count", "mean us", "p50 us", "p99 us", "p99.9 us", "max us"));
+        for (Entry entry : entries) {
+            LatencyHistogram.Snapshot latency = entry.latency;
+            text.append(String.format("%-13s %-20s %-13s %-24s %9d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    entry.stage, entry.branch, entry.hallType, entry.outcome, latency.getCount(),
+                    latency.getMean() / 1000.0, latency.valueAt(50) / 1000.0, latency.valueAt(99) / 1000.0,
+                    latency.valueAt(99.9) / 1000.0, latency.getMax() / 1000.0));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Formats the current metrics: the totals per stage, followed by the breakdown per branch and hall type.
+     *
+     * @return The text dump.
+     */
+    public String dump() {
+        List<Entry> entries = snapshot();
+        return "Booking metrics at " + LocalDateTime.now() + System.lineSeparator()
+                + format(byStage(entries)) + System.lineSeparator() + format(entries);
+    }
+
+    /**
+     * Forgets everything recorded so far.
+     */
+    public void reset() {
+        series.clear();
+    }
+
+    /**
+     * Writes {@link #dump()} to a file at a fixed rate, on a background daemon thread.
+     * The file is replaced as a whole, so readers never see a half-written dump.
+     *
+     * @param file   The file to write.
+     * @param period The time between two dumps.
+     * @param unit   The unit of {@code period}.
+     */
+    public synchronized void start(Path file, long period, TimeUnit unit) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> writeDump(file), period, period, unit);
+    }
+
+    /**
+     * Stops the periodic dump started by {@link #start(Path, long, TimeUnit)}.
+     */
+    public void stop() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            running.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the current dump to a file, replacing it.
+     *
+     * @param file The file to write.
+     */
+    public void writeDump(Path file) {
+        try {
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temporary, dump());
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("ERROR: Failed to write booking metrics to " + file + ". " + e.getMessage());
+        }
+    }
+
+    private static void add(Map<String, Entry> merged, Entry entry) {
+        String key = entry.stage.ordinal() + "|" + entry.branch + "|" + entry.hallType + "|" + entry.outcome;
+        merged.merge(key, entry, (a, b) -> new Entry(a.stage, a.branch, a.hallType, a.outcome, a.latency.merge(b.latency)));
+    }
+
+    private static List<Entry> sorted(Map<String, Entry> merged) {
+        List<Entry> entries = new ArrayList<>(merged.values());
+        entries.sort(Comparator.comparing((Entry entry) -> entry.stage)
+                .thenComparing(entry -> entry.branch)
+                .thenComparing(entry -> entry.hallType)
+                .thenComparing(entry -> !entry.outcome.equals(OK))
+                .thenComparing(entry -> entry.outcome));
+        return entries;
+    }
+
+    /**
+     * One row of a snapshot: the latencies of a stage with one outcome, in the halls of one type of one branch.
+     */
+    public static final class Entry {
+        private final Stage stage;
+        private final String branch;
+        private final String hallType;
+        private final String outcome;
+        private final LatencyHistogram.Snapshot latency;
+
+        Entry(Stage stage, String branch, String hallType, String outcome, LatencyHistogram.Snapshot latency) {
+            this.stage = stage;
+            this.branch = branch;
+            this.hallType = hallType;
+            this.outcome = outcome;
+            this.latency = latency;
+        }
+
+        public Stage getStage() { return stage; }
+        public String getBranch() { return branch; }
+        public String getHallType() { return hallType; }
+        public String getOutcome() { return outcome; }
+        public LatencyHistogram.Snapshot getLatency() { return latency; }
+    }
+
+    /**
+     * The histograms of one hall. Successful stages have one histogram each; failures are keyed by
+     * {@code "STAGE:ExceptionName"}, which only costs a string on the (already allocating) exception path.
+     */
+    private static final class Series {
+        final String branch;
+        final String hallType;
+        final AtomicReferenceArray<LatencyHistogram> ok = new AtomicReferenceArray<>(STAGES.length);
+        final Map<String, LatencyHistogram> failures = new ConcurrentHashMap<>();
+
+        Series(CinemaHall hall) {
+            CinemaBranch owner = hall.getBranch();
+            this.branch = owner == null ? "-" : owner.getName();
+            this.hallType = hall.getClass().getSimpleName();
+        }
+
+        void recordOk(Stage stage, long nanos) {
+            LatencyHistogram histogram = ok.get(stage.ordinal());
+            if (histogram == null) {
+                ok.compareAndSet(stage.ordinal(), null, new LatencyHistogram());
+                histogram = ok.get(stage.ordinal());
+            }
+            histogram.record(nanos);
+        }
+
+        void recordFailure(Stage stage, Throwable failure, long nanos) {
+            failures.computeIfAbsent(stage.name() + ':' + failure.getClass().getSimpleName(), key -> new LatencyHistogram())
+                    .record(nanos);
+        }
+    }
+
+    /**
+     * Times the stages of one checkout. Each call to {@link #enter(Stage)} ends the running stage.
+     */
+    static final class Probe {
+        private final Series series;
+        private final long start;
+        private long stageStart;
+        private Stage current;
+
+        private Probe(Series series, Stage first) {
+            this.series = series;
+            this.current = first;
+            this.start = series == null ? 0 : System.nanoTime();
+            this.stageStart = start;
+        }
+
+        /**
+         * Records the running stage as completed and starts the next one.
+         */
+        void enter(Stage next) {
+            if (series == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            series.recordOk(current, now - stageStart);
+            current = next;
+            stageStart = now;
+        }
+
+        /**
+         * Records the running stage and the checkout as completed.
+         */
+        void done() {
+            if (series == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            series.recordOk(current, now - stageStart);
+            series.recordOk(Stage.TOTAL, now - start);
+        }
+
+        /**
+         * Records the running stage and the checkout as failed with the given exception.
+         */
+        void fail(Throwable failure) {
+            if (series == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            series.recordFailure(current, failure, now - stageStart);
+            series.recordFailure(Stage.TOTAL, failure, now - start);
+        }
+    }
+}
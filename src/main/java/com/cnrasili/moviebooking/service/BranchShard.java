@@ -0,0 +1,86 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.CinemaBranch;
+import com.cnrasili.moviebooking.model.CinemaHall;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The booking state of one cinema branch: its showtimes, its sold tickets and their indexes.
+ * <p>
+ * Shards are created and looked up by the {@link ShardRouter}. Each shard has its own {@link ShowTimeRegistry}
+ * and {@link TicketRegistry}, so schedule changes and ticket sales at different branches never take the same
+ * lock or write to the same map.
+ * <br>
+ * Every shard has a small numeric ID, which the PNR codes it issues carry as a prefix (see {@link #nextPnr()}),
+ * so a ticket can be found from its code without asking every branch.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+public final class BranchShard {
+
+    private final int id;
+    private final CinemaBranch branch;
+    private final String pnrPrefix;
+    private final PnrGenerator pnrGenerator;
+    private final ShowTimeRegistry showTimes = new ShowTimeRegistry();
+    private final TicketRegistry tickets = new TicketRegistry();
+
+    BranchShard(int id, CinemaBranch branch) {
+        this.id = id;
+        this.branch = branch;
+        this.pnrPrefix = PnrGenerator.encode(id, ShardRouter.PNR_PREFIX_LENGTH);
+        this.pnrGenerator = new PnrGenerator(id);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the branch owning this shard.
+     *
+     * @return The branch, or {@code null} for the shard holding sessions of halls not attached to any branch.
+     */
+    public CinemaBranch getBranch() {
+        return branch;
+    }
+
+    /**
+     * Returns the halls of the branch.
+     *
+     * @return The branch's halls (empty for the shard without a branch).
+     */
+    public List<CinemaHall> getHalls() {
+        return branch == null ? Collections.emptyList() : branch.getHalls();
+    }
+
+    public ShowTimeRegistry getShowTimes() {
+        return showTimes;
+    }
+
+    public TicketRegistry getTickets() {
+        return tickets;
+    }
+
+    /**
+     * Returns the characters that start every PNR code issued by this shard.
+     *
+     * @return The shard ID, encoded in {@link ShardRouter#PNR_PREFIX_LENGTH} base32 characters.
+     */
+    public String getPnrPrefix() {
+        return pnrPrefix;
+    }
+
+    /**
+     * Issues a new PNR code for a ticket or order of this branch.
+     *
+     * @return A code unique across the chain (see {@link PnrGenerator}).
+     */
+    public String nextPnr() {
+        return pnrGenerator.next();
+    }
+}
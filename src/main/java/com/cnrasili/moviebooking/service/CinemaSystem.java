@@ -2,12 +2,11 @@ package com.cnrasili.moviebooking.service;
 
 import com.cnrasili.moviebooking.model.CinemaBranch;
 import com.cnrasili.moviebooking.model.Movie;
-import com.cnrasili.moviebooking.model.ShowTime;
 import com.cnrasili.moviebooking.model.Ticket;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Acts as the centralized in-memory database for the entire application.
@@ -21,10 +20,17 @@ import java.util.Map;
  * <li><b>Operations:</b> Active Showtimes (generated dynamically) and Sold Tickets (history).</li>
  * <li><b>Mock External Systems:</b> Credit Card balances and Valid Student IDs (from CSV).</li>
  * </ul>
+ * Showtimes and sold tickets are partitioned by branch into {@link BranchShard}s (see {@link #shards}), so
+ * bookings at different branches don't share locks or maps; {@link #activeShowTimes} and {@link #soldTickets}
+ * present them as chain-wide collections.
+ * <br>
+ * Runtime changes (tickets, refunds, card debits) are additionally recorded in the optional
+ * {@link BookingJournal}, from which they are restored after a restart. Tickets of finished showtimes are moved
+ * to the optional {@link TicketArchive} on disk.
  * </p>
  *
  * @author cnrasili
- * @version 2.0
+ * @version 3.0
  */
 public class CinemaSystem {
 
@@ -34,35 +40,83 @@ public class CinemaSystem {
     /** List of all movies currently available in the system. Populated from {@code movies.csv}. */
     public static List<Movie> allMovies = new ArrayList<>();
 
-    /** Registry of all tickets sold within the system. Used for reporting and refunds. */
-    public static List<Ticket> soldTickets = new ArrayList<>();
+    /** Per-branch partitions of the booking state, holding the showtimes and tickets of each branch. */
+    public static ShardRouter shards = new ShardRouter();
+
+    /**
+     * Registry of all tickets sold within the system, indexed by PNR code. Used for reporting and refunds.
+     * Tickets are stored in the shard of their branch.
+     */
+    public static TicketRegistry soldTickets = new ShardedTicketRegistry(shards);
 
-    /** List of all active showtimes (sessions) available for booking. */
-    public static List<ShowTime> activeShowTimes = new ArrayList<>();
+    /**
+     * Registry of all active showtimes (sessions) available for booking, with first-session lookups.
+     * Showtimes are stored in the shard of their branch.
+     */
+    public static ShowTimeRegistry activeShowTimes = new ShardedShowTimeRegistry(shards);
+
+    /**
+     * Rolling schedule generator filling {@link #activeShowTimes} from per-hall templates, or {@code null} before
+     * {@link DataInitializer} has run.
+     */
+    public static ScheduleEngine schedule;
+
+    /**
+     * Compiled promotions the price tables are built from (see {@link PricingEngine}). Assigning a new plan makes
+     * every session rebuild its table on its next price lookup.
+     */
+    public static volatile DiscountPlan pricingRules = DiscountPlan.DEFAULT;
 
     /** * Simulates an external banking database.
      * <p>Key: 16-digit Card Number, Value: Current Balance.</p>
-     * Populated from {@code credit_cards.csv}.
+     * Populated from {@code credit_cards.csv}. Backed by a {@link ConcurrentHashMap} so that
+     * payments on different cards proceed in parallel and debits on the same card are never lost.
+     */
+    public static Map<String, Double> mockCardDB = new ConcurrentHashMap<>();
+
+    /** * Registry of valid student IDs eligible for discounts, with constant-time lookups.
+     * Populated from {@code student_ids.csv}, which can be reloaded at runtime without blocking checkouts.
      */
-    public static Map<String, Double> mockCardDB = new HashMap<>();
+    public static StudentIdRegistry validStudentIds = new StudentIdRegistry();
 
-    /** * Registry of valid student IDs eligible for discounts.
-     * Populated from {@code students.csv}.
+    /**
+     * Durable journal of sold tickets, refunds and card debits, or {@code null} when the state is kept
+     * in memory only (e.g., in unit tests). Installed by {@link com.cnrasili.moviebooking.Main} at startup.
      */
-    public static List<String> validStudentIds = new ArrayList<>();
+    public static BookingJournal journal;
+
+    /**
+     * On-disk archive of tickets for finished showtimes, or {@code null} when archiving is disabled.
+     * Installed by {@link com.cnrasili.moviebooking.Main} at startup and filled by {@link ShowTimeArchiver}.
+     */
+    public static TicketArchive archive;
+
+    /**
+     * Per-stage latencies and outcomes of {@link Booking#createTicket} and {@link Booking#createGroupBooking}
+     * checkouts, or {@code null} to record none.
+     */
+    public static BookingMetrics metrics = new BookingMetrics();
 
     /**
      * Searches for a ticket in the system using its PNR code.
+     * <p>
+     * The lookup is a constant-time hash lookup in the shard named by the code (see {@link #soldTickets}). Tickets that are no longer there
+     * because their showtime is over are then looked up in the {@link #archive}, which reads them from disk.
+     * Codes failing their check character (see {@link PnrGenerator#isMistyped(String)}) are not looked up.
+     * </p>
      *
      * @param pnr The unique Passenger Name Record code.
      * @return The {@link Ticket} object if found; {@code null} otherwise.
      */
     public static Ticket searchTicketByPNR(String pnr) {
-        for (Ticket ticket : soldTickets) {
-            if (ticket.getPnrCode().equals(pnr)) {
-                return ticket;
-            }
+        if (PnrGenerator.isMistyped(pnr)) {
+            return null;
+        }
+        Ticket ticket = soldTickets.get(pnr);
+        TicketArchive archived = archive;
+        if (ticket == null && archived != null) {
+            ticket = archived.find(pnr);
         }
-        return null;
+        return ticket;
     }
 }
@@ -1,6 +1,7 @@
 package com.cnrasili.moviebooking.service;
 
 import com.cnrasili.moviebooking.exception.PaymentFailedException;
+import com.cnrasili.moviebooking.util.EventLog;
 
 /**
  * Implementation of {@link PaymentService} that simulates credit card transactions.
@@ -13,13 +14,18 @@ import com.cnrasili.moviebooking.exception.PaymentFailedException;
  * <li>Card existence (loaded from CSV).</li>
  * <li>Sufficient balance for the transaction.</li>
  * </ul>
+ * The service is safe to use from many threads: each debit is applied with a compare-and-set on the card's
+ * balance, so concurrent payments never overdraw a card or lose an update, and payments on different cards
+ * never contend with each other.
  * </p>
  *
  * @author cnrasili
- * @version 1.2
+ * @version 1.5
  */
 public class CreditCardPaymentService implements PaymentService {
 
+    private static final EventLog LOG = EventLog.console();
+
     /**
      * Constructs the service instance.
      * <p>
@@ -40,7 +46,8 @@ public class CreditCardPaymentService implements PaymentService {
      * <li><b>Existence Check:</b> Queries {@link CinemaSystem#mockCardDB} to see if card exists.</li>
      * <li><b>Balance Check:</b> Ensures the card has enough funds.</li>
      * </ol>
-     * If successful, the new balance is updated directly in {@link CinemaSystem}.
+     * If successful, the new balance is updated directly in {@link CinemaSystem}. The balance check and the
+     * update form one atomic step per card. The debit is also appended to {@link CinemaSystem#journal}, if any.
      * </p>
      *
      * @param amount   The amount to withdraw.
@@ -54,20 +61,35 @@ public class CreditCardPaymentService implements PaymentService {
             throw new PaymentFailedException("Invalid Card Number Format (Must be 16 digits).");
         }
 
-        if (!CinemaSystem.mockCardDB.containsKey(cardInfo)) {
-            throw new PaymentFailedException("Card not found in bank database.");
-        }
+        // Optimistic debit: retry if another payment changed the balance between the read and the write
+        while (true) {
+            Double currentBalance = CinemaSystem.mockCardDB.get(cardInfo);
 
-        double currentBalance = CinemaSystem.mockCardDB.get(cardInfo);
+            if (currentBalance == null) {
+                throw new PaymentFailedException("Card not found in bank database.");
+            }
 
-        if (currentBalance < amount) {
-            throw new PaymentFailedException("Insufficient Funds! (Balance: " + currentBalance + " TL, Required: " + amount + " TL)");
-        }
+            if (currentBalance < amount) {
+                throw new PaymentFailedException("Insufficient Funds! (Balance: " + currentBalance + " TL, Required: " + amount + " TL)");
+            }
 
-        double newBalance = currentBalance - amount;
-        CinemaSystem.mockCardDB.put(cardInfo, newBalance);
-
-        System.out.println(">> Payment Approved! " + amount + " TL deducted.");
-        System.out.println(">> Remaining Balance: " + newBalance + " TL");
+            double newBalance = currentBalance - amount;
+            if (CinemaSystem.mockCardDB.replace(cardInfo, currentBalance, newBalance)) {
+                // The debit becomes durable together with the ticket record that follows it
+                BookingJournal journal = CinemaSystem.journal;
+                if (journal != null) {
+                    try {
+                        journal.cardDebited(cardInfo, amount);
+                    } catch (RuntimeException e) {
+                        // The card is already charged; failing here would only lose track of the money
+                        LOG.log(EventLog.Level.WARN, "Debit of {amount} TL could not be written to the journal. {cause}",
+                                "amount", amount, "cause", e.getMessage());
+                    }
+                }
+                LOG.log(EventLog.Level.INFO, ">> Payment Approved! {amount} TL deducted.", "amount", amount);
+                LOG.log(EventLog.Level.INFO, ">> Remaining Balance: {balance} TL", "balance", newBalance);
+                return;
+            }
+        }
     }
 }
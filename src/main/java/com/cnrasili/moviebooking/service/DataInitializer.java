@@ -1,11 +1,18 @@
 package com.cnrasili.moviebooking.service;
 
 import com.cnrasili.moviebooking.model.*;
-import java.io.BufferedReader;
-import java.io.FileReader;
+import com.cnrasili.moviebooking.util.MappedCsvReader;
 import java.io.IOException;
-import java.time.LocalDateTime;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Utility class used to seed the application with initial data.
@@ -17,11 +24,15 @@ import java.util.List;
  * <li><b>credit_cards.csv:</b> Loads mock bank data (Card Number, Balance).</li>
  * <li><b>student_ids.csv:</b> Loads list of valid student IDs for discounts.</li>
  * </ul>
- * It also dynamically generates a comprehensive showtime schedule for the next 5 days based on the loaded data.
+ * It also sets up a rolling showtime schedule (see {@link ScheduleEngine}) based on the loaded data and generates
+ * its first 5 days.
+ * <br>
+ * The files are parsed from memory-mapped buffers by {@link MappedCsvReader} and loaded concurrently, so that
+ * large card and student exports do not dominate startup time.
  * </p>
  *
  * @author cnrasili
- * @version 2.0
+ * @version 2.4
  */
 public class DataInitializer {
 
@@ -30,30 +41,71 @@ public class DataInitializer {
     private static final String CARDS_FILE = "credit_cards.csv";
     private static final String STUDENT_ID_FILE = "student_ids.csv";
 
+    /** Number of days ahead kept in the schedule. */
+    private static final int SCHEDULE_HORIZON_DAYS = 30;
+
+    /** Number of days generated during startup; the rest of the horizon is filled in the background. */
+    private static final int EAGER_SCHEDULE_DAYS = 5;
+
     /**
      * Clears existing data and loads a fresh set of sample data from CSV files into the system.
      * <p>
      * Execution Order:
      * <ol>
      * <li>Clear all system lists/maps.</li>
-     * <li>Load Movies, Branches, Credit Cards, and Student IDs from their respective CSV files.</li>
-     * <li>Generate Showtimes using the loaded movies and branches.</li>
+     * <li>Load Movies, Branches, Credit Cards, and Student IDs from their respective CSV files, in parallel.</li>
+     * <li>Create one shard per branch, in file order (see {@link ShardRouter}).</li>
+     * <li>Set up the rolling schedule using the loaded movies and branches, and generate its first days.</li>
      * </ol>
+     * The CSV files are read from the current working directory. Malformed rows (missing columns, invalid numbers,
+     * unknown genres or ratings) are skipped and reported, and the rest of the file is still loaded.
      * </p>
      */
     public static void loadMockData() {
+        loadMockData(".");
+    }
+
+    /**
+     * Clears existing data and loads a fresh set of sample data from the CSV files in the given directory.
+     * <p>
+     * Behaves exactly like {@link #loadMockData()}, but allows the data set to be swapped
+     * (e.g., a large generated data set for benchmarks).
+     * </p>
+     *
+     * @param dataDirectory The directory containing {@code movies.csv}, {@code branches.csv},
+     *                      {@code credit_cards.csv} and {@code student_ids.csv}.
+     */
+    public static void loadMockData(String dataDirectory) {
+        if (CinemaSystem.schedule != null) {
+            CinemaSystem.schedule.stop();
+        }
         CinemaSystem.allMovies.clear();
         CinemaSystem.branches.clear();
-        CinemaSystem.activeShowTimes.clear();
-        CinemaSystem.soldTickets.clear();
+        CinemaSystem.shards.clear();
         CinemaSystem.mockCardDB.clear();
         CinemaSystem.validStudentIds.clear();
 
-        loadMoviesFromCSV(MOVIES_FILE);
-        loadBranchesFromCSV(BRANCHES_FILE);
-        loadCreditCardsFromCSV(CARDS_FILE);
-        loadStudentsFromCSV(STUDENT_ID_FILE);
+        // Each file fills its own collection, so the files can be read in parallel
+        Path directory = Paths.get(dataDirectory);
+        ExecutorService loaders = Executors.newFixedThreadPool(4);
+        try {
+            Future<MappedCsvReader.Result> movies = loaders.submit(() -> loadMoviesFromCSV(directory.resolve(MOVIES_FILE)));
+            Future<MappedCsvReader.Result> branches = loaders.submit(() -> loadBranchesFromCSV(directory.resolve(BRANCHES_FILE)));
+            Future<MappedCsvReader.Result> cards = loaders.submit(() -> loadCreditCardsFromCSV(directory.resolve(CARDS_FILE)));
+            Future<MappedCsvReader.Result> students = loaders.submit(() -> loadStudentsFromCSV(directory.resolve(STUDENT_ID_FILE)));
+
+            awaitLoad(MOVIES_FILE, movies);
+            awaitLoad(BRANCHES_FILE, branches);
+            awaitLoad(CARDS_FILE, cards);
+            awaitLoad(STUDENT_ID_FILE, students);
+        } finally {
+            loaders.shutdown();
+        }
 
+        // Shard IDs follow the file order, so PNR prefixes stay stable across restarts
+        for (CinemaBranch branch : CinemaSystem.branches) {
+            CinemaSystem.shards.shardFor(branch);
+        }
         generateShowTimes();
     }
 
@@ -65,37 +117,32 @@ public class DataInitializer {
      * <b>Logic:</b> It reads the 'Type' column (index 5) to instantiate either {@link Movie3D} or {@link Movie2D}.
      * </p>
      *
-     * @param filePath The path to the CSV file.
+     * @param file The CSV file.
+     * @return The number of accepted and skipped rows, or {@code null} if the file can't be read.
      */
-    private static void loadMoviesFromCSV(String filePath) {
-        String line;
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-
-                String[] data = line.split(",");
-
-                if (data.length < 6) continue;
+    private static MappedCsvReader.Result loadMoviesFromCSV(Path file) {
+        try {
+            return MappedCsvReader.read(file, row -> {
+                row.requireFields(6);
 
-                String name = data[0].trim();
-                int duration = Integer.parseInt(data[1].trim());
-                double price = Double.parseDouble(data[2].trim());
-                Genre genre = Genre.valueOf(data[3].trim());
-                AgeRating rating = AgeRating.valueOf(data[4].trim());
-
-                String type = data[5].trim().toUpperCase();
+                String name = row.getString(0);
+                int duration = row.getInt(1);
+                double price = row.getDouble(2);
+                Genre genre = Genre.valueOf(row.getString(3));
+                AgeRating rating = AgeRating.valueOf(row.getString(4));
 
                 Movie movie;
-                if (type.equals("3D")) {
+                if (row.getString(5).equalsIgnoreCase("3D")) {
                     movie = new Movie3D(name, duration, price, genre, rating);
                 } else {
                     movie = new Movie2D(name, duration, price, genre, rating);
                 }
 
                 CinemaSystem.allMovies.add(movie);
-            }
-        } catch (IOException | IllegalArgumentException e) {
+            });
+        } catch (IOException e) {
             System.err.println("ERROR: Failed to load movies from CSV. " + e.getMessage());
+            return null;
         }
     }
 
@@ -107,31 +154,25 @@ public class DataInitializer {
      * Automatically initializes standard halls (IMAX, VIP, Standard) for each loaded branch.
      * </p>
      *
-     * @param filePath The path to the CSV file.
+     * @param file The CSV file.
+     * @return The number of accepted and skipped rows, or {@code null} if the file can't be read.
      */
-    private static void loadBranchesFromCSV(String filePath) {
-        String line;
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
+    private static MappedCsvReader.Result loadBranchesFromCSV(Path file) {
+        try {
+            return MappedCsvReader.read(file, row -> {
+                row.requireFields(3);
 
-                String[] data = line.split(",");
-                if (data.length < 3) continue;
-
-                String name = data[0].trim();
-                String city = data[1].trim();
-                String district = data[2].trim();
-
-                CinemaBranch branch = new CinemaBranch(name, city, district);
+                CinemaBranch branch = new CinemaBranch(row.getString(0), row.getString(1), row.getString(2));
 
                 branch.addHall(new IMAXHall("IMAX Saloon", 6, 8));
                 branch.addHall(new VIPHall("Gold Class VIP", 4, 4));
                 branch.addHall(new StandardHall("Standard Saloon", 5, 6));
 
                 CinemaSystem.branches.add(branch);
-            }
+            });
         } catch (IOException e) {
             System.err.println("ERROR: Failed to load branches from CSV. " + e.getMessage());
+            return null;
         }
     }
 
@@ -143,23 +184,19 @@ public class DataInitializer {
      * Data is loaded into {@link CinemaSystem#mockCardDB}.
      * </p>
      *
-     * @param filePath The path to the CSV file.
+     * @param file The CSV file.
+     * @return The number of accepted and skipped rows, or {@code null} if the file can't be read.
      */
-    private static void loadCreditCardsFromCSV(String filePath) {
-        String line;
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] data = line.split(",");
-                if (data.length < 2) continue;
-
-                String cardNum = data[0].trim();
-                double balance = Double.parseDouble(data[1].trim());
-
-                CinemaSystem.mockCardDB.put(cardNum, balance);
-            }
+    private static MappedCsvReader.Result loadCreditCardsFromCSV(Path file) {
+        try {
+            return MappedCsvReader.read(file, row -> {
+                row.requireFields(2);
+                double balance = row.getDouble(1);
+                CinemaSystem.mockCardDB.put(row.getString(0), balance);
+            });
         } catch (IOException e) {
             System.err.println("ERROR: Failed to load credit cards. " + e.getMessage());
+            return null;
         }
     }
 
@@ -168,34 +205,68 @@ public class DataInitializer {
      * <p>
      * Expected CSV Format: {@code StudentID}
      * <br>
-     * Data is loaded into {@link CinemaSystem#validStudentIds}.
+     * Data is loaded into {@link CinemaSystem#validStudentIds}, replacing its contents in one step.
      * </p>
      *
-     * @param filePath The path to the CSV file.
+     * @param file The CSV file.
+     * @return The number of accepted and skipped rows, or {@code null} if the file can't be read.
      */
-    private static void loadStudentsFromCSV(String filePath) {
-        String line;
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-
-                String studentId = line.trim();
-                CinemaSystem.validStudentIds.add(studentId);
-            }
+    private static MappedCsvReader.Result loadStudentsFromCSV(Path file) {
+        try {
+            return CinemaSystem.validStudentIds.reload(file);
         } catch (IOException e) {
             System.err.println("ERROR: Failed to load students. " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reloads the valid student IDs from {@code student_ids.csv} while the application is running.
+     * <p>
+     * Checkouts keep validating against the previous IDs until the whole file has been read, then switch to the
+     * new ones at once. If the file can't be read, the previous IDs are kept.
+     * </p>
+     *
+     * @param dataDirectory The directory containing {@code student_ids.csv}.
+     */
+    public static void reloadStudentIds(String dataDirectory) {
+        awaitLoad(STUDENT_ID_FILE, CompletableFuture.completedFuture(
+                loadStudentsFromCSV(Paths.get(dataDirectory).resolve(STUDENT_ID_FILE))));
+    }
+
+    /**
+     * Waits for a file to be loaded and reports the malformed rows that were skipped.
+     */
+    private static void awaitLoad(String fileName, Future<MappedCsvReader.Result> load) {
+        MappedCsvReader.Result result;
+        try {
+            result = load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            System.err.println("ERROR: Failed to load " + fileName + ". " + e.getCause());
+            return;
+        }
+        if (result != null && result.getSkippedRows() > 0) {
+            System.err.println("WARNING: Skipped " + result.getSkippedRows() + " malformed rows in " + fileName
+                    + " (first at line " + result.getFirstSkippedLine() + ": " + result.getFirstError() + ").");
         }
     }
 
     /**
-     * Generates showtimes for the next 5 days based on loaded movies and branches.
+     * Sets up the rolling schedule based on loaded movies and branches, and generates its first days.
      * <p>
-     * It assigns specific movies to specific halls and time slots to simulate a realistic schedule.
+     * Every branch gets the same weekly plan: its Standard, VIP and IMAX halls each screen the first four movies
+     * at fixed time slots, every day. The first {@value #EAGER_SCHEDULE_DAYS} days are generated right away; the
+     * rest of the {@value #SCHEDULE_HORIZON_DAYS}-day horizon is filled in the background once the application
+     * calls {@link ScheduleEngine#start()}.
      * Requires at least one loaded movie to function correctly.
      * </p>
      */
     private static void generateShowTimes() {
         List<Movie> movies = CinemaSystem.allMovies;
+        CinemaSystem.schedule = new ScheduleEngine(CinemaSystem.activeShowTimes, SCHEDULE_HORIZON_DAYS);
 
         if (movies.isEmpty()) {
             System.out.println("WARNING: No movies loaded. Skipping showtime generation.");
@@ -207,8 +278,6 @@ public class DataInitializer {
         Movie m3 = movies.size() > 2 ? movies.get(2) : null;
         Movie m4 = movies.size() > 3 ? movies.get(3) : null;
 
-        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
-
         for (CinemaBranch branch : CinemaSystem.branches) {
             CinemaHall imaxHall = null;
             CinemaHall vipHall = null;
@@ -222,36 +291,31 @@ public class DataInitializer {
 
             if (imaxHall == null || vipHall == null || stdHall == null) continue;
 
-            for (int i = 0; i < 5; i++) {
-                LocalDateTime currentDate = tomorrow.plusDays(i);
+            ScheduleTemplate std = new ScheduleTemplate();
+            ScheduleTemplate vip = new ScheduleTemplate();
+            ScheduleTemplate imax = new ScheduleTemplate();
 
-                if (m1 != null) {
-                    addShowTime(currentDate, 10, 0, m1, stdHall);
-                    addShowTime(currentDate, 14, 0, m1, vipHall);
-                    addShowTime(currentDate, 18, 0, m1, imaxHall);
-                }
-                if (m2 != null) {
-                    addShowTime(currentDate, 10, 30, m2, stdHall);
-                    addShowTime(currentDate, 14, 30, m2, vipHall);
-                    addShowTime(currentDate, 18, 30, m2, imaxHall);
-                }
-                if (m4 != null) {
-                    addShowTime(currentDate, 9, 30, m4, stdHall);
-                    addShowTime(currentDate, 11, 30, m4, vipHall);
-                    addShowTime(currentDate, 13, 30, m4, imaxHall);
-                }
-                if (m3 != null) {
-                    addShowTime(currentDate, 15, 30, m3, stdHall);
-                    addShowTime(currentDate, 18, 0, m3, vipHall);
-                    addShowTime(currentDate, 20, 30, m3, imaxHall);
-                }
-            }
+            addDailySlots(m1, std, 10, 0, vip, 14, 0, imax, 18, 0);
+            addDailySlots(m2, std, 10, 30, vip, 14, 30, imax, 18, 30);
+            addDailySlots(m4, std, 9, 30, vip, 11, 30, imax, 13, 30);
+            addDailySlots(m3, std, 15, 30, vip, 18, 0, imax, 20, 30);
+
+            CinemaSystem.schedule.setTemplate(stdHall, std);
+            CinemaSystem.schedule.setTemplate(vipHall, vip);
+            CinemaSystem.schedule.setTemplate(imaxHall, imax);
         }
+
+        CinemaSystem.schedule.extendTo(LocalDate.now().plusDays(EAGER_SCHEDULE_DAYS));
     }
 
-    private static void addShowTime(LocalDateTime baseDate, int hour, int minute, Movie movie, CinemaHall hall) {
-        LocalDateTime sessionTime = baseDate.withHour(hour).withMinute(minute);
-        ShowTime showTime = new ShowTime(sessionTime, movie, hall);
-        CinemaSystem.activeShowTimes.add(showTime);
+    private static void addDailySlots(Movie movie, ScheduleTemplate std, int stdHour, int stdMinute,
+                                      ScheduleTemplate vip, int vipHour, int vipMinute,
+                                      ScheduleTemplate imax, int imaxHour, int imaxMinute) {
+        if (movie == null) {
+            return;
+        }
+        std.addDailySlot(LocalTime.of(stdHour, stdMinute), movie);
+        vip.addDailySlot(LocalTime.of(vipHour, vipMinute), movie);
+        imax.addDailySlot(LocalTime.of(imaxHour, imaxMinute), movie);
     }
 }
@@ -0,0 +1,149 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.PricingRules;
+import com.cnrasili.moviebooking.model.ShowTime;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * A compiled set of {@link DiscountRule}s: the promotion rules the session price tables are built from.
+ * <p>
+ * Compiling splits every booking into a small number of <i>discount contexts</i>: student or not, first session
+ * or not, and a group-size bucket (one bucket per distinct group threshold used by the rules). Each context is a
+ * column of the {@link com.cnrasili.moviebooking.model.PriceTable}:
+ * <ul>
+ * <li>While a session's table is built, every rule is checked once per column against the session and the
+ * context, and the resulting discount is stored.</li>
+ * <li>At checkout, {@link #columnOf(boolean, boolean, int)} maps the booking to its column with a few arithmetic
+ * operations and an array lookup, so the price lookup costs the same for two promotions or fifty, and does not
+ * allocate.</li>
+ * </ul>
+ * The total discount of a context is the sum of the matching stackable rules, or the best matching exclusive
+ * rule if that is higher, capped at {@link #getMaxPercent()}.
+ * <br>
+ * Rules must not be changed after they have been compiled; compile a new plan and install it in
+ * {@link CinemaSystem#pricingRules} instead.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+public final class DiscountPlan extends PricingRules {
+
+    /** The default promotions: 10% off the first session of the day and 20% off for students, combinable. */
+    public static final DiscountPlan DEFAULT = compile(Arrays.asList(
+            new DiscountRule("First Session", 10).forFirstSession(),
+            new DiscountRule("Student", 20).forStudents()), 100);
+
+    private static final int CONTEXTS = 4;
+    private static final int STUDENT = 1;
+    private static final int FIRST_SESSION = 2;
+
+    private final DiscountRule[] rules;
+    private final int maxPercent;
+    private final int[] groupThresholds;
+    private final byte[] groupBucketBySize;
+
+    private DiscountPlan(DiscountRule[] rules, int maxPercent, int[] groupThresholds) {
+        this.rules = rules;
+        this.maxPercent = maxPercent;
+        this.groupThresholds = groupThresholds;
+        int largest = groupThresholds.length == 0 ? 1 : groupThresholds[groupThresholds.length - 1];
+        this.groupBucketBySize = new byte[largest + 1];
+        for (int size = 0, bucket = 0; size <= largest; size++) {
+            if (bucket < groupThresholds.length && size >= groupThresholds[bucket]) {
+                bucket++;
+            }
+            groupBucketBySize[size] = (byte) bucket;
+        }
+    }
+
+    /**
+     * Compiles rules into a plan.
+     *
+     * @param rules      The promotions, in any order.
+     * @param maxPercent The cap on the total discount of a booking, in percent.
+     * @return The compiled plan.
+     */
+    public static DiscountPlan compile(List<DiscountRule> rules, int maxPercent) {
+        TreeSet<Integer> thresholds = new TreeSet<>();
+        for (DiscountRule rule : rules) {
+            if (rule.getMinGroupSize() > 1) {
+                thresholds.add(rule.getMinGroupSize());
+            }
+        }
+        if (thresholds.size() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many distinct group sizes: " + thresholds.size());
+        }
+        int[] groupThresholds = new int[thresholds.size()];
+        int i = 0;
+        for (int threshold : thresholds) {
+            groupThresholds[i++] = threshold;
+        }
+        return new DiscountPlan(rules.toArray(new DiscountRule[0]), Math.max(0, Math.min(maxPercent, 100)), groupThresholds);
+    }
+
+    /**
+     * Returns the discount context of a booking.
+     *
+     * @param student      Whether the customer has a verified student ID.
+     * @param firstSession Whether the session is the first of the day for its movie.
+     * @param groupSize    The number of seats booked together.
+     * @return The price table column of the booking.
+     */
+    public int columnOf(boolean student, boolean firstSession, int groupSize) {
+        int bucket = groupSize >= groupBucketBySize.length
+                ? groupThresholds.length : groupBucketBySize[Math.max(groupSize, 0)];
+        int context = (student ? STUDENT : 0) | (firstSession ? FIRST_SESSION : 0);
+        return context * (groupThresholds.length + 1) + bucket;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return CONTEXTS * (groupThresholds.length + 1);
+    }
+
+    @Override
+    public int percentOf(ShowTime showTime, int column) {
+        int buckets = groupThresholds.length + 1;
+        int context = column / buckets;
+        int bucket = column % buckets;
+        boolean student = (context & STUDENT) != 0;
+        boolean firstSession = (context & FIRST_SESSION) != 0;
+        int groupSize = bucket == 0 ? 1 : groupThresholds[bucket - 1];
+
+        int stacked = 0;
+        int bestExclusive = 0;
+        for (DiscountRule rule : rules) {
+            if (rule.matchesBooking(student, firstSession, groupSize) && rule.matchesSession(showTime)) {
+                if (rule.isExclusive()) {
+                    bestExclusive = Math.max(bestExclusive, rule.getPercent());
+                } else {
+                    stacked += rule.getPercent();
+                }
+            }
+        }
+        return Math.min(Math.max(stacked, bestExclusive), maxPercent);
+    }
+
+    /**
+     * Returns the cap on the total discount of a booking.
+     *
+     * @return The cap in percent.
+     */
+    public int getMaxPercent() {
+        return maxPercent;
+    }
+
+    /**
+     * Returns the compiled rules.
+     *
+     * @return A read-only list of the rules.
+     */
+    public List<DiscountRule> getRules() {
+        return Collections.unmodifiableList(Arrays.asList(rules));
+    }
+}
@@ -0,0 +1,197 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.CinemaHall;
+import com.cnrasili.moviebooking.model.Genre;
+import com.cnrasili.moviebooking.model.ShowTime;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A promotion: a percentage off the base price, granted when all of its conditions hold.
+ * <p>
+ * Conditions are added by chaining, and a rule without conditions applies to every booking:
+ * <pre>{@code
+ * new DiscountRule("Weekday Matinee", 15).on(MONDAY, TUESDAY).between(LocalTime.of(10, 0), LocalTime.of(14, 0))
+ * }</pre>
+ * Session conditions (time of day, weekday, hall type, genre) depend only on the showtime; booking conditions
+ * (student, first session, group size) depend on the purchase. Rules are compiled into a {@link DiscountPlan},
+ * which evaluates them once per session and discount context rather than on every booking.
+ * <br>
+ * Matching rules add up, unless one is {@linkplain #exclusive() exclusive}: an exclusive rule is never combined
+ * with others, and the customer gets whichever is better, the best exclusive rule or the sum of the others.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+public class DiscountRule {
+
+    private final String name;
+    private final int percent;
+    private LocalTime from;
+    private LocalTime to;
+    private int weekdays;
+    private final Set<Class<? extends CinemaHall>> hallTypes = new HashSet<>();
+    private int genres;
+    private boolean studentsOnly;
+    private boolean firstSessionOnly;
+    private int minGroupSize = 1;
+    private boolean exclusive;
+
+    /**
+     * Constructs a rule without conditions.
+     *
+     * @param name    The promotion name.
+     * @param percent The discount in percent.
+     */
+    public DiscountRule(String name, int percent) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("A discount must be between 0 and 100 percent: " + percent);
+        }
+        this.name = name;
+        this.percent = percent;
+    }
+
+    /**
+     * Restricts the rule to sessions starting in a time window. A window ending before it starts spans midnight.
+     *
+     * @param from The first start time included.
+     * @param to   The first start time excluded.
+     * @return This rule, for chaining.
+     */
+    public DiscountRule between(LocalTime from, LocalTime to) {
+        this.from = from;
+        this.to = to;
+        return this;
+    }
+
+    /**
+     * Restricts the rule to sessions on the given days of the week.
+     *
+     * @param days The days.
+     * @return This rule, for chaining.
+     */
+    public DiscountRule on(DayOfWeek... days) {
+        for (DayOfWeek day : days) {
+            weekdays |= 1 << day.ordinal();
+        }
+        return this;
+    }
+
+    /**
+     * Restricts the rule to sessions in halls of the given types.
+     *
+     * @param types The hall classes (e.g., {@code IMAXHall.class}).
+     * @return This rule, for chaining.
+     */
+    @SafeVarargs
+    public final DiscountRule inHallType(Class<? extends CinemaHall>... types) {
+        for (Class<? extends CinemaHall> type : types) {
+            hallTypes.add(type);
+        }
+        return this;
+    }
+
+    /**
+     * Restricts the rule to movies of the given genres.
+     *
+     * @param types The genres.
+     * @return This rule, for chaining.
+     */
+    public DiscountRule forGenre(Genre... types) {
+        for (Genre genre : types) {
+            genres |= 1 << genre.ordinal();
+        }
+        return this;
+    }
+
+    /**
+     * Restricts the rule to customers with a verified student ID.
+     *
+     * @return This rule, for chaining.
+     */
+    public DiscountRule forStudents() {
+        this.studentsOnly = true;
+        return this;
+    }
+
+    /**
+     * Restricts the rule to the first session of the day of a movie.
+     *
+     * @return This rule, for chaining.
+     */
+    public DiscountRule forFirstSession() {
+        this.firstSessionOnly = true;
+        return this;
+    }
+
+    /**
+     * Restricts the rule to bookings of at least the given number of seats.
+     *
+     * @param seats The minimum number of seats booked together.
+     * @return This rule, for chaining.
+     */
+    public DiscountRule forGroupsOf(int seats) {
+        this.minGroupSize = Math.max(seats, 1);
+        return this;
+    }
+
+    /**
+     * Prevents the rule from being combined with other rules.
+     *
+     * @return This rule, for chaining.
+     */
+    public DiscountRule exclusive() {
+        this.exclusive = true;
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPercent() {
+        return percent;
+    }
+
+    public boolean isExclusive() {
+        return exclusive;
+    }
+
+    int getMinGroupSize() {
+        return minGroupSize;
+    }
+
+    /**
+     * Checks the session conditions.
+     */
+    boolean matchesSession(ShowTime showTime) {
+        if (weekdays != 0 && (weekdays & 1 << showTime.getTime().getDayOfWeek().ordinal()) == 0) {
+            return false;
+        }
+        if (genres != 0 && (genres & 1 << showTime.getMovie().getGenre().ordinal()) == 0) {
+            return false;
+        }
+        if (!hallTypes.isEmpty() && !hallTypes.contains(showTime.getHall().getClass())) {
+            return false;
+        }
+        if (from != null) {
+            LocalTime start = showTime.getTime().toLocalTime();
+            boolean inWindow = from.isBefore(to)
+                    ? !start.isBefore(from) && start.isBefore(to)
+                    : !start.isBefore(from) || start.isBefore(to);
+            return inWindow;
+        }
+        return true;
+    }
+
+    /**
+     * Checks the booking conditions.
+     */
+    boolean matchesBooking(boolean student, boolean firstSession, int groupSize) {
+        return (!studentsOnly || student) && (!firstSessionOnly || firstSession) && groupSize >= minGroupSize;
+    }
+}
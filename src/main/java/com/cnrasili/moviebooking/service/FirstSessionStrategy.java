@@ -5,10 +5,13 @@ package com.cnrasili.moviebooking.service;
  * <p>
  * This strategy encourages early attendance by applying a <strong>10% discount</strong>
  * to the ticket price.
+ * <br>
+ * Bookings apply this discount through the "First Session" promotion of the {@link DiscountPlan}; the class
+ * remains available as a standalone strategy.
  * </p>
  *
  * @author cnrasili
- * @version 1.0
+ * @version 1.2
  */
 public class FirstSessionStrategy implements PriceStrategy {
 
@@ -25,4 +28,14 @@ public class FirstSessionStrategy implements PriceStrategy {
     public double calculateDiscount(double basePrice) {
         return basePrice * 0.90;
     }
+
+    /**
+     * Returns the first-session discount.
+     *
+     * @return 10 (percent).
+     */
+    @Override
+    public int getDiscountPercent() {
+        return 10;
+    }
 }
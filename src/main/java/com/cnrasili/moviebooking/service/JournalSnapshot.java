@@ -0,0 +1,442 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.*;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The booking state recorded by a {@link BookingJournal}, folded into its net effect.
+ * <p>
+ * Instead of the full history, a snapshot only holds what is still in effect: the tickets that have been sold
+ * and not refunded, and the total amount debited from each card. It remembers the last journal segment folded
+ * into it, so recovery knows which segments it already covers.
+ * <br>
+ * <b>Scope:</b> the snapshot covers only the state the journal records, i.e. sold tickets and card debits. It does
+ * not hold showtimes, seat maps or any other data loaded at startup. On restore, showtimes come from the
+ * CSV data and the {@link ScheduleEngine}, as on a fresh start. Each ticket is matched to its session by branch,
+ * hall, movie and start time (a session missing from the schedule is recreated), and occupancy is rebuilt by
+ * booking the ticket's seat. Changing the CSV data between runs therefore changes the restored state too; tickets
+ * whose branch, hall or movie is gone are skipped with a warning.
+ * <br>
+ * The snapshot file is written in a compact binary format: every session that has tickets is written once in a
+ * session table, and tickets refer to it by position. Seat occupancy is not stored separately, since every
+ * booked seat belongs to exactly one sold ticket. The file ends with a CRC-32 of its contents and is replaced
+ * atomically, so a crash while writing a snapshot leaves the previous one intact.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.2
+ */
+final class JournalSnapshot {
+
+    private static final int MAGIC = 0x42534E50; // "BSNP"
+    private static final int FORMAT_VERSION = 1;
+
+    static final byte TICKET_SOLD = 1;
+    static final byte TICKET_REFUNDED = 2;
+    static final byte CARD_DEBITED = 3;
+    static final byte TICKET_ARCHIVED = 4;
+
+    private long lastSegmentId = -1;
+    private final Map<String, SoldTicket> tickets = new LinkedHashMap<>();
+    private final Map<String, Double> debits = new LinkedHashMap<>();
+
+    /**
+     * Reads a snapshot file.
+     *
+     * @param file The snapshot file.
+     * @return The snapshot, or an empty snapshot (covering no segment) if the file does not exist.
+     * @throws IOException If the file can't be read or is corrupt.
+     */
+    static JournalSnapshot read(Path file) throws IOException {
+        JournalSnapshot snapshot = new JournalSnapshot();
+        if (!Files.exists(file)) {
+            return snapshot;
+        }
+
+        CRC32 crc = new CRC32();
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file))) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(raw, crc));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not a booking snapshot: " + file);
+            }
+            snapshot.lastSegmentId = in.readLong();
+
+            int cards = in.readInt();
+            for (int i = 0; i < cards; i++) {
+                snapshot.debits.put(in.readUTF(), in.readDouble());
+            }
+
+            int sessionCount = in.readInt();
+            List<Session> sessions = new ArrayList<>(sessionCount);
+            for (int i = 0; i < sessionCount; i++) {
+                sessions.add(Session.read(in));
+            }
+
+            int ticketCount = in.readInt();
+            for (int i = 0; i < ticketCount; i++) {
+                Session session = sessions.get(in.readInt());
+                SoldTicket ticket = SoldTicket.read(in.readUTF(), session, in);
+                snapshot.tickets.put(ticket.pnr, ticket);
+            }
+
+            long expected = crc.getValue();
+            if (new DataInputStream(raw).readLong() != expected) {
+                throw new IOException("Booking snapshot " + file + " is corrupt (checksum mismatch).");
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Writes this snapshot, replacing the given file atomically.
+     *
+     * @param file The snapshot file.
+     * @throws IOException If the snapshot can't be written.
+     */
+    void write(Path file) throws IOException {
+        Path temp = Paths.get(file + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream raw = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(raw, crc));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(lastSegmentId);
+
+            out.writeInt(debits.size());
+            for (Map.Entry<String, Double> debit : debits.entrySet()) {
+                out.writeUTF(debit.getKey());
+                out.writeDouble(debit.getValue());
+            }
+
+            Map<Session, Integer> sessionIndex = new LinkedHashMap<>();
+            for (SoldTicket ticket : tickets.values()) {
+                sessionIndex.putIfAbsent(ticket.session, sessionIndex.size());
+            }
+            out.writeInt(sessionIndex.size());
+            for (Session session : sessionIndex.keySet()) {
+                session.write(out);
+            }
+
+            out.writeInt(tickets.size());
+            for (SoldTicket ticket : tickets.values()) {
+                out.writeInt(sessionIndex.get(ticket.session));
+                out.writeUTF(ticket.pnr);
+                ticket.writeDetails(out);
+            }
+            out.flush();
+            new DataOutputStream(raw).writeLong(crc.getValue());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Folds one journal record into the snapshot.
+     *
+     * @param payload The record payload (type byte followed by the record fields).
+     * @throws IOException If the record is malformed.
+     */
+    void apply(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        switch (type) {
+            case TICKET_SOLD:
+                String pnr = in.readUTF();
+                SoldTicket ticket = SoldTicket.read(pnr, Session.read(in), in);
+                tickets.put(pnr, ticket);
+                break;
+            case TICKET_REFUNDED:
+            case TICKET_ARCHIVED:
+                tickets.remove(in.readUTF());
+                break;
+            case CARD_DEBITED:
+                debits.merge(in.readUTF(), in.readDouble(), Double::sum);
+                break;
+            default:
+                throw new IOException("Unknown booking journal record type " + type);
+        }
+    }
+
+    long getLastSegmentId() {
+        return lastSegmentId;
+    }
+
+    void setLastSegmentId(long lastSegmentId) {
+        this.lastSegmentId = lastSegmentId;
+    }
+
+    int getTicketCount() {
+        return tickets.size();
+    }
+
+    /**
+     * Applies the snapshot to the freshly loaded {@link CinemaSystem}: books the seats, registers the tickets
+     * and debits the cards.
+     * <p>
+     * The showtimes themselves are not part of the snapshot; they must already have been loaded (see the class
+     * comment). Seat occupancy is derived from the restored tickets.
+     * </p>
+     */
+    void restore() {
+        Map<Session, ShowTime> showTimes = new HashMap<>();
+        for (SoldTicket sold : tickets.values()) {
+            ShowTime showTime = showTimes.computeIfAbsent(sold.session, Session::resolve);
+            Seat seat = showTime == null ? null : showTime.getSeat(sold.row, sold.number);
+            if (seat == null) {
+                System.err.println("WARNING: Skipping journaled ticket " + sold.pnr + ": its session no longer exists.");
+                continue;
+            }
+            seat.reserve();
+            CinemaSystem.soldTickets.add(new Ticket(sold.pnr, sold.owner, showTime, seat, sold.originalPrice, sold.finalPrice, sold.creationDate));
+        }
+        for (Map.Entry<String, Double> debit : debits.entrySet()) {
+            CinemaSystem.mockCardDB.computeIfPresent(debit.getKey(), (card, balance) -> balance - debit.getValue());
+        }
+    }
+
+    /**
+     * Encodes a sold ticket as a journal record payload.
+     *
+     * @param out    The payload stream.
+     * @param ticket The sold ticket.
+     * @throws IOException If the stream can't be written.
+     */
+    static void writeTicketSold(DataOutputStream out, Ticket ticket) throws IOException {
+        out.writeByte(TICKET_SOLD);
+        out.writeUTF(ticket.getPnrCode());
+        Session.of(ticket.getShowTime()).write(out);
+        new SoldTicket(null, ticket).writeDetails(out);
+    }
+
+    /**
+     * Decodes a ticket record written by {@link #writeTicketSold(DataOutputStream, Ticket)}, e.g. from the
+     * {@link TicketArchive}.
+     * <p>
+     * The ticket points at a detached copy of its session, which is not registered in
+     * {@link CinemaSystem#activeShowTimes}; its seat there is marked as booked.
+     * </p>
+     *
+     * @param payload The record payload.
+     * @return The ticket, or {@code null} if its branch, hall or movie no longer exists.
+     * @throws IOException If the record is malformed.
+     */
+    static Ticket readTicket(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        if (in.readByte() != TICKET_SOLD) {
+            throw new IOException("Not a ticket record.");
+        }
+        String pnr = in.readUTF();
+        SoldTicket sold = SoldTicket.read(pnr, Session.read(in), in);
+        ShowTime showTime = sold.session.detached();
+        Seat seat = showTime == null ? null : showTime.getSeat(sold.row, sold.number);
+        if (seat == null) {
+            return null;
+        }
+        seat.reserve();
+        return new Ticket(pnr, sold.owner, showTime, seat, sold.originalPrice, sold.finalPrice, sold.creationDate);
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        long seconds = in.readLong();
+        int nanos = in.readInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    /**
+     * Identifies a session by branch, hall, movie and start time, which stay stable across restarts.
+     */
+    private static final class Session {
+        final String branchName;
+        final String hallName;
+        final String movieTitle;
+        final LocalDateTime time;
+
+        Session(String branchName, String hallName, String movieTitle, LocalDateTime time) {
+            this.branchName = branchName;
+            this.hallName = hallName;
+            this.movieTitle = movieTitle;
+            this.time = time;
+        }
+
+        static Session of(ShowTime showTime) {
+            CinemaHall hall = showTime.getHall();
+            return new Session(hall.getBranch() == null ? "" : hall.getBranch().getName(), hall.getName(),
+                    showTime.getMovie().getTitle(), showTime.getTime());
+        }
+
+        static Session read(DataInputStream in) throws IOException {
+            return new Session(in.readUTF(), in.readUTF(), in.readUTF(), readTime(in));
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeUTF(branchName);
+            out.writeUTF(hallName);
+            out.writeUTF(movieTitle);
+            writeTime(out, time);
+        }
+
+        /**
+         * Finds the loaded session, recreating it if it is no longer in the generated schedule (a recreated
+         * session that has not started yet is scheduled again).
+         *
+         * @return The session, or {@code null} if its branch, hall or movie no longer exists.
+         */
+        ShowTime resolve() {
+            CinemaBranch branch = findBranch();
+            if (branch == null) {
+                return null;
+            }
+            for (ShowTime showTime : CinemaSystem.activeShowTimes.showTimesAtBranch(branch)) {
+                if (showTime.getHall().getName().equals(hallName)
+                        && showTime.getMovie().getTitle().equals(movieTitle)
+                        && showTime.getTime().equals(time)) {
+                    return showTime;
+                }
+            }
+
+            ShowTime recreated = recreate(branch);
+            if (recreated != null && time.isAfter(LocalDateTime.now())) {
+                CinemaSystem.activeShowTimes.add(recreated);
+            }
+            return recreated;
+        }
+
+        /**
+         * Rebuilds the session without looking it up in or adding it to {@link CinemaSystem#activeShowTimes}.
+         *
+         * @return A detached session, or {@code null} if its branch, hall or movie no longer exists.
+         */
+        ShowTime detached() {
+            CinemaBranch branch = findBranch();
+            return branch == null ? null : recreate(branch);
+        }
+
+        private CinemaBranch findBranch() {
+            for (CinemaBranch candidate : CinemaSystem.branches) {
+                if (candidate.getName().equals(branchName)) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+
+        private ShowTime recreate(CinemaBranch branch) {
+            CinemaHall hall = null;
+            for (CinemaHall candidate : branch.getHalls()) {
+                if (candidate.getName().equals(hallName)) {
+                    hall = candidate;
+                    break;
+                }
+            }
+            Movie movie = null;
+            for (Movie candidate : CinemaSystem.allMovies) {
+                if (candidate.getTitle().equals(movieTitle)) {
+                    movie = candidate;
+                    break;
+                }
+            }
+            if (hall == null || movie == null) {
+                return null;
+            }
+            return new ShowTime(time, movie, hall);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Session)) {
+                return false;
+            }
+            Session other = (Session) o;
+            return branchName.equals(other.branchName) && hallName.equals(other.hallName)
+                    && movieTitle.equals(other.movieTitle) && time.equals(other.time);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(branchName, hallName, movieTitle, time);
+        }
+    }
+
+    /**
+     * A sold ticket in serializable form.
+     */
+    private static final class SoldTicket {
+        final Session session;
+        final String pnr;
+        final int row;
+        final int number;
+        final Customer owner;
+        final double originalPrice;
+        final double finalPrice;
+        final LocalDateTime creationDate;
+
+        SoldTicket(Session session, String pnr, int row, int number, Customer owner, double originalPrice,
+                   double finalPrice, LocalDateTime creationDate) {
+            this.session = session;
+            this.pnr = pnr;
+            this.row = row;
+            this.number = number;
+            this.owner = owner;
+            this.originalPrice = originalPrice;
+            this.finalPrice = finalPrice;
+            this.creationDate = creationDate;
+        }
+
+        SoldTicket(Session session, Ticket ticket) {
+            this(session, ticket.getPnrCode(), ticket.getSeat().getRow(), ticket.getSeat().getNumber(), ticket.getOwner(),
+                    ticket.getOriginalPrice(), ticket.getFinalPrice(), ticket.getCreationDate());
+        }
+
+        static SoldTicket read(String pnr, Session session, DataInputStream in) throws IOException {
+            int row = in.readInt();
+            int number = in.readInt();
+            Customer owner = new Customer(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), in.readInt());
+            double originalPrice = in.readDouble();
+            double finalPrice = in.readDouble();
+            return new SoldTicket(session, pnr, row, number, owner, originalPrice, finalPrice, readTime(in));
+        }
+
+        /**
+         * Writes everything except the PNR and the session.
+         */
+        void writeDetails(DataOutputStream out) throws IOException {
+            out.writeInt(row);
+            out.writeInt(number);
+            out.writeUTF(owner.getName());
+            out.writeUTF(owner.getSurname());
+            out.writeUTF(owner.getEmail());
+            out.writeUTF(owner.getPhoneNumber());
+            out.writeInt(owner.getBirthYear());
+            out.writeDouble(originalPrice);
+            out.writeDouble(finalPrice);
+            writeTime(out, creationDate);
+        }
+    }
+}
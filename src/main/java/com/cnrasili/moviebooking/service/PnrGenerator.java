@@ -0,0 +1,181 @@
+package com.cnrasili.moviebooking.service;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues PNR codes for one {@link BranchShard}, unique by construction and without locks.
+ * <p>
+ * A code is 13 characters of Crockford base32 (digits and upper-case letters without I, L, O and U):
+ * <ul>
+ * <li>2 characters: the shard ID (see {@link ShardRouter}).</li>
+ * <li>10 characters (50 bits): a 32-bit time bucket (seconds since 2024-01-01 UTC) and an 18-bit sequence.</li>
+ * <li>1 check character (Luhn mod 32), which catches any single mistyped character and most swapped
+ * neighbours.</li>
+ * </ul>
+ * The time bucket and sequence come from a single counter that is advanced with compare-and-set: each code takes
+ * the next value, or jumps ahead to the current second if the clock has moved on. Codes of one shard are therefore
+ * strictly increasing and never repeat, and codes of different shards differ in their prefix. After a restart the
+ * counter starts from the current second, so codes stay unique across restarts as long as a shard has not issued
+ * more than 2<sup>18</sup> codes per second on average and the clock has not been set back.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+public final class PnrGenerator {
+
+    /** Length of the codes issued by this class. */
+    public static final int LENGTH = 13;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int BITS_PER_CHAR = 5;
+    private static final int SEQUENCE_BITS = 18;
+    private static final int BODY_CHARS = 10;
+    private static final long EPOCH_SECOND = 1_704_067_200L; // 2024-01-01T00:00:00Z
+
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private final char[] prefix;
+    private final AtomicLong counter = new AtomicLong();
+
+    /**
+     * Constructs a generator for a shard.
+     *
+     * @param shardId The shard ID, below {@link ShardRouter#MAX_SHARDS}.
+     */
+    PnrGenerator(int shardId) {
+        this.prefix = encode(shardId, ShardRouter.PNR_PREFIX_LENGTH).toCharArray();
+    }
+
+    /**
+     * Issues the next code.
+     *
+     * @return A new PNR code, never returned before by this generator.
+     */
+    public String next() {
+        long now = (System.currentTimeMillis() / 1000 - EPOCH_SECOND) << SEQUENCE_BITS;
+        long value;
+        while (true) {
+            long last = counter.get();
+            value = Math.max(last + 1, now);
+            if (counter.compareAndSet(last, value)) {
+                break;
+            }
+        }
+
+        char[] code = new char[LENGTH];
+        System.arraycopy(prefix, 0, code, 0, prefix.length);
+        for (int i = prefix.length + BODY_CHARS - 1; i >= prefix.length; i--) {
+            code[i] = ALPHABET[(int) (value & 31)];
+            value >>>= BITS_PER_CHAR;
+        }
+        code[LENGTH - 1] = ALPHABET[checkValue(CharBuffer.wrap(code), LENGTH - 1)];
+        return new String(code);
+    }
+
+    /**
+     * Checks whether a code has the shape of a generated code (length and alphabet) but a wrong check character,
+     * i.e. it was most likely mistyped.
+     * <p>
+     * Codes of any other shape (e.g., issued before this format) are not judged and return {@code false}.
+     * </p>
+     *
+     * @param pnrCode The code to check.
+     * @return {@code true} if the code can't have been issued by a generator.
+     */
+    public static boolean isMistyped(String pnrCode) {
+        return hasShape(pnrCode) && valueOf(pnrCode.charAt(LENGTH - 1)) != checkValue(pnrCode, LENGTH - 1);
+    }
+
+    /**
+     * Checks whether a code has the format of a generated code: length, alphabet and a matching check character.
+     * <p>
+     * Only such codes carry a shard prefix that can be trusted (see {@link ShardedTicketRegistry}).
+     * </p>
+     *
+     * @param pnrCode The code to check.
+     * @return {@code true} if the code could have been issued by a generator.
+     */
+    public static boolean isWellFormed(String pnrCode) {
+        return hasShape(pnrCode) && valueOf(pnrCode.charAt(LENGTH - 1)) == checkValue(pnrCode, LENGTH - 1);
+    }
+
+    private static boolean hasShape(String pnrCode) {
+        if (pnrCode == null || pnrCode.length() != LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            if (valueOf(pnrCode.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encodes a number in a fixed number of base32 characters.
+     *
+     * @param value The non-negative number.
+     * @param chars The number of characters.
+     * @return The encoded number, padded with leading zeros.
+     */
+    static String encode(long value, int chars) {
+        char[] encoded = new char[chars];
+        for (int i = chars - 1; i >= 0; i--) {
+            encoded[i] = ALPHABET[(int) (value & 31)];
+            value >>>= BITS_PER_CHAR;
+        }
+        return new String(encoded);
+    }
+
+    /**
+     * Decodes the base32 number at the start of a code.
+     *
+     * @param code  The code.
+     * @param chars The number of characters to decode.
+     * @return The number, or -1 if one of the characters is not a base32 digit.
+     */
+    static long decode(CharSequence code, int chars) {
+        long value = 0;
+        for (int i = 0; i < chars; i++) {
+            int digit = valueOf(code.charAt(i));
+            if (digit < 0) {
+                return -1;
+            }
+            value = (value << BITS_PER_CHAR) | digit;
+        }
+        return value;
+    }
+
+    private static int valueOf(char c) {
+        return c < VALUES.length ? VALUES[c] : -1;
+    }
+
+    /**
+     * Luhn mod 32 over the first {@code length} characters: every second character from the right is doubled
+     * (its two base32 digits summed), and the check value completes the total to a multiple of 32.
+     */
+    private static int checkValue(CharSequence code, int length) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = length - 1; i >= 0; i--) {
+            int value = valueOf(code.charAt(i));
+            if (doubled) {
+                value *= 2;
+                value = value / 32 + value % 32;
+            }
+            sum += value;
+            doubled = !doubled;
+        }
+        return (32 - sum % 32) % 32;
+    }
+}
@@ -5,10 +5,16 @@ package com.cnrasili.moviebooking.service;
  * <p>
  * Classes implementing this interface define specific algorithms for calculating
  * ticket prices based on different rules (e.g., Student discount, Standard price).
+ * <br>
+ * At checkout, the promotions of {@link CinemaSystem#pricingRules} (see {@link DiscountPlan}) apply to every
+ * strategy. A strategy only adds its own discount on top: a fixed percentage reported through
+ * {@link #getDiscountPercent()} (0 for most strategies, so the price comes straight from the session's price
+ * table), or otherwise whatever {@link #calculateDiscount(double)} takes off. Strategies for verified students
+ * report it through {@link #isStudent()}, which enables the student promotions.
  * </p>
  *
  * @author cnrasili
- * @version 1.0
+ * @version 1.2
  */
 public interface PriceStrategy {
 
@@ -19,4 +25,29 @@ public interface PriceStrategy {
      * @return The calculated price (e.g., if base is 100 and strategy is 20% off, returns 80).
      */
     double calculateDiscount(double basePrice);
+
+    /**
+     * Returns the fixed discount this strategy adds on top of the promotions.
+     *
+     * @return The discount in percent, or -1 if the strategy is not a fixed percentage (the default).
+     */
+    default int getDiscountPercent() {
+        return -1;
+    }
+
+    /**
+     * Tells whether the customer has been verified as a student, so that student promotions apply.
+     *
+     * @return {@code false} by default.
+     */
+    default boolean isStudent() {
+        return false;
+    }
+
+    /**
+     * Tells the customer that the strategy's discount applies. Called once per booking when the price is read
+     * from a price table instead of {@link #calculateDiscount(double)}. Does nothing by default.
+     */
+    default void announce() {
+    }
 }
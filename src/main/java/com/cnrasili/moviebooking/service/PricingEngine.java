@@ -0,0 +1,98 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.PriceTable;
+import com.cnrasili.moviebooking.model.PricingRules;
+import com.cnrasili.moviebooking.model.Seat;
+import com.cnrasili.moviebooking.model.ShowTime;
+
+/**
+ * Prices seats in kurus (1/100 TL) from the precomputed {@link PriceTable} of each session.
+ * <p>
+ * The promotions in effect are the {@link DiscountPlan} in {@link CinemaSystem#pricingRules}. A booking is mapped
+ * to its discount context (student, first session, group size); for a seat of a known class and a strategy that
+ * adds no discount of its own, the price is then one array lookup. Otherwise the price is derived from the
+ * table's base price and the context's discount:
+ * <ol>
+ * <li>Base price: {@code movie price * hall multiplier * seat multiplier}, rounded to whole kurus.</li>
+ * <li>Final price: the base price minus the promotions of the context and the strategy's own discount, all taken
+ * from the base price.</li>
+ * </ol>
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+public final class PricingEngine {
+
+    private PricingEngine() {
+    }
+
+    /**
+     * Returns the undiscounted price of a seat.
+     *
+     * @param showTime The session.
+     * @param seat     The seat.
+     * @return The price in kurus.
+     */
+    public static long basePrice(ShowTime showTime, Seat seat) {
+        int seatClass = PriceTable.seatClassOf(seat);
+        if (seatClass < 0) {
+            return Math.round(showTime.getStandardPrice() * seat.getPriceMultiplier() * 100);
+        }
+        return showTime.getPriceTable(CinemaSystem.pricingRules).getBasePrice(seatClass);
+    }
+
+    /**
+     * Returns the price a customer pays for a seat.
+     * <p>
+     * Only strategies without a fixed discount (see {@link PriceStrategy#getDiscountPercent()}) are called; use
+     * {@link PriceStrategy#announce()} to tell the customer about their discount. No objects are allocated once
+     * the session's table has been built.
+     * </p>
+     *
+     * @param showTime      The session.
+     * @param seat          The seat.
+     * @param firstSession  Whether the session is the first of the day for its movie.
+     * @param groupSize     The number of seats booked together.
+     * @param priceStrategy The customer's pricing strategy.
+     * @return The price in kurus.
+     */
+    public static long finalPrice(ShowTime showTime, Seat seat, boolean firstSession, int groupSize, PriceStrategy priceStrategy) {
+        DiscountPlan plan = CinemaSystem.pricingRules;
+        PriceTable table = showTime.getPriceTable(plan);
+        int column = plan.columnOf(priceStrategy.isStudent(), firstSession, groupSize);
+        int seatClass = PriceTable.seatClassOf(seat);
+        int strategyPercent = priceStrategy.getDiscountPercent();
+        if (seatClass >= 0 && strategyPercent == 0) {
+            return table.getPrice(seatClass, column);
+        }
+
+        long base = basePrice(showTime, seat);
+        int promotionPercent = table.getPercent(column);
+        if (strategyPercent >= 0) {
+            return PricingRules.discount(base, promotionPercent + strategyPercent);
+        }
+        long strategyDiscount = base - toKurus(priceStrategy.calculateDiscount(toLira(base)));
+        return Math.max(PricingRules.discount(base, promotionPercent) - strategyDiscount, 0);
+    }
+
+    /**
+     * Converts minor units to the lira amounts stored on tickets and charged to cards.
+     *
+     * @param kurus An amount in kurus.
+     * @return The amount in TL.
+     */
+    public static double toLira(long kurus) {
+        return kurus / 100.0;
+    }
+
+    /**
+     * Converts a lira amount to minor units, rounding to the nearest kurus.
+     *
+     * @param lira An amount in TL.
+     * @return The amount in kurus.
+     */
+    public static long toKurus(double lira) {
+        return Math.round(lira * 100);
+    }
+}
@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
  * </p>
  *
  * @author cnrasili
- * @version 1.0
+ * @version 1.3
  */
 public class RefundService {
 
@@ -22,17 +22,26 @@ public class RefundService {
      * <p>
      * The refund logic enforces the following rules:
      * <ol>
-     * <li>The PNR code must match a valid, sold ticket.</li>
+     * <li>The PNR code must match a valid, sold ticket. Mistyped codes (see {@link PnrGenerator#isMistyped(String)})
+     * are rejected without a lookup.</li>
      * <li>The showtime must be in the future (tickets for past shows cannot be refunded).</li>
      * </ol>
-     * If successful, the seat is released (set to AVAILABLE) and the ticket is removed from the system.
+     * If successful, the ticket is removed from the system and then the seat is released (set to AVAILABLE).
+     * When a {@link BookingJournal} is installed, the method returns only after the refund has been journaled.
+     * <br>
+     * If the same ticket is refunded by several threads at once, only the one that removes it releases the seat
+     * and records the refund.
      * </p>
      *
      * @param pnrCode The unique Passenger Name Record of the ticket to be refunded.
-     * @return {@code true} if the refund was successful; {@code false} if the show has already started.
+     * @return {@code true} if the refund was successful; {@code false} if the show has already started or the
+     * ticket has just been refunded by a concurrent call.
      * @throws InvalidPNRException If the PNR code does not exist in the system.
      */
     public boolean processRefund(String pnrCode) throws InvalidPNRException {
+        if (PnrGenerator.isMistyped(pnrCode)) {
+            throw new InvalidPNRException("Refund Failed: Mistyped PNR Code (" + pnrCode + "), please check it again");
+        }
         Ticket ticket = CinemaSystem.searchTicketByPNR(pnrCode);
 
         if (ticket == null) {
@@ -43,9 +52,18 @@ public class RefundService {
             return false;
         }
 
+        // Only the refund that actually removes the ticket may free the seat: a concurrent refund of the same PNR
+        // would otherwise release it again after it has been sold to someone else
+        if (!CinemaSystem.soldTickets.remove(ticket)) {
+            return false;
+        }
+
         ticket.getSeat().cancelBooking();
 
-        CinemaSystem.soldTickets.remove(ticket);
+        BookingJournal journal = CinemaSystem.journal;
+        if (journal != null) {
+            journal.ticketRefunded(pnrCode).join();
+        }
 
         return true;
     }
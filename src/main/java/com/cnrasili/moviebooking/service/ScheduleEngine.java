@@ -0,0 +1,201 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.CinemaHall;
+import com.cnrasili.moviebooking.model.ShowTime;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolling schedule generator: keeps the sessions of the next {@code horizonDays} days registered in a
+ * {@link ShowTimeRegistry}, based on a {@link ScheduleTemplate} per hall.
+ * <p>
+ * The schedule is maintained one day at a time instead of being rebuilt:
+ * <ul>
+ * <li>{@link #extendTo(LocalDate)} appends the days that are not generated yet.</li>
+ * <li>{@link #evictBefore(LocalDate)} removes the sessions of days that are over.</li>
+ * <li>{@link #roll(LocalDate)} does both for a given "today", and does nothing if the window is already
+ * up to date, so it can be called as often as needed.</li>
+ * </ul>
+ * Sessions already registered for a hall and start time (e.g., restored by the {@link BookingJournal} together
+ * with their tickets) are kept, and no duplicate is generated for them.
+ * <br>
+ * To avoid a startup spike with long horizons and many branches, the application only generates the first few
+ * days up front and calls {@link #start()}: a background thread then fills the rest of the horizon and rolls the
+ * window over as days pass.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+public class ScheduleEngine {
+
+    /** How often the background thread checks whether the window has to move. */
+    private static final long ROLL_CHECK_MINUTES = 1;
+
+    private final ShowTimeRegistry registry;
+    private final int horizonDays;
+    private final Map<CinemaHall, ScheduleTemplate> templates = new LinkedHashMap<>();
+    private LocalDate firstDay;
+    private LocalDate lastDay;
+    private ScheduledExecutorService roller;
+
+    /**
+     * Constructs an engine with no templates.
+     *
+     * @param registry    The registry the generated sessions are added to.
+     * @param horizonDays The number of days kept ahead of today (today excluded).
+     */
+    public ScheduleEngine(ShowTimeRegistry registry, int horizonDays) {
+        if (horizonDays < 1) {
+            throw new IllegalArgumentException("The schedule horizon must be at least one day.");
+        }
+        this.registry = registry;
+        this.horizonDays = horizonDays;
+    }
+
+    /**
+     * Sets the template of a hall. It applies to the days generated from now on.
+     *
+     * @param hall     The hall.
+     * @param template The hall's weekly plan.
+     */
+    public synchronized void setTemplate(CinemaHall hall, ScheduleTemplate template) {
+        templates.put(hall, template);
+    }
+
+    /**
+     * Moves the window to the given day: evicts the days before it and generates the days up to
+     * {@code today + horizonDays}.
+     *
+     * @param today The current date.
+     * @return The number of sessions added.
+     */
+    public synchronized int roll(LocalDate today) {
+        evictBefore(today);
+        if (lastDay == null || lastDay.isBefore(today)) {
+            // Nothing generated yet, or the whole window has passed (e.g., the machine was suspended): start tomorrow
+            lastDay = today;
+        }
+        return extendTo(today.plusDays(horizonDays));
+    }
+
+    /**
+     * Generates every day after the last generated one, up to and including the given date.
+     * <p>
+     * The first call generates from the day after today.
+     * </p>
+     *
+     * @param last The last day to generate.
+     * @return The number of sessions added.
+     */
+    public synchronized int extendTo(LocalDate last) {
+        LocalDate day = lastDay == null ? LocalDate.now().plusDays(1) : lastDay.plusDays(1);
+        int added = 0;
+        for (; !day.isAfter(last); day = day.plusDays(1)) {
+            added += generateDay(day);
+            if (firstDay == null) {
+                firstDay = day;
+            }
+            lastDay = day;
+        }
+        return added;
+    }
+
+    /**
+     * Removes all sessions of the generated days before the given date.
+     *
+     * @param day The first day to keep.
+     * @return The number of sessions removed.
+     */
+    public synchronized int evictBefore(LocalDate day) {
+        int removed = 0;
+        for (; firstDay != null && firstDay.isBefore(day); firstDay = firstDay.plusDays(1)) {
+            for (ShowTime showTime : new ArrayList<>(registry.showTimesOnDate(firstDay))) {
+                if (registry.remove(showTime)) {
+                    removed++;
+                }
+            }
+            if (firstDay.equals(lastDay)) {
+                firstDay = null;
+                break;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the last generated day.
+     *
+     * @return The last day with generated sessions, or {@code null} if nothing has been generated yet.
+     */
+    public synchronized LocalDate getLastDay() {
+        return lastDay;
+    }
+
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+
+    /**
+     * Starts a background thread that fills the rest of the horizon, then keeps rolling the window as days pass.
+     */
+    public synchronized void start() {
+        if (roller != null) {
+            return;
+        }
+        roller = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "schedule-roller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        roller.scheduleWithFixedDelay(() -> {
+            try {
+                roll(LocalDate.now());
+            } catch (RuntimeException e) {
+                System.err.println("ERROR: Failed to roll the schedule over. " + e.getMessage());
+            }
+        }, 0, ROLL_CHECK_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stops the background thread, if running.
+     */
+    public synchronized void stop() {
+        if (roller != null) {
+            roller.shutdownNow();
+            roller = null;
+        }
+    }
+
+    private int generateDay(LocalDate day) {
+        // Sessions that already exist on this day (e.g., restored from the journal) are not generated again
+        Map<CinemaHall, Set<LocalDateTime>> existing = new HashMap<>();
+        for (ShowTime showTime : registry.showTimesOnDate(day)) {
+            existing.computeIfAbsent(showTime.getHall(), h -> new HashSet<>()).add(showTime.getTime());
+        }
+
+        int added = 0;
+        for (Map.Entry<CinemaHall, ScheduleTemplate> entry : templates.entrySet()) {
+            CinemaHall hall = entry.getKey();
+            Set<LocalDateTime> taken = existing.getOrDefault(hall, Collections.emptySet());
+            for (ScheduleTemplate.Slot slot : entry.getValue().slotsOn(day)) {
+                LocalDateTime time = day.atTime(slot.getStart());
+                if (!taken.contains(time) && registry.add(new ShowTime(time, slot.getMovie(), hall))) {
+                    added++;
+                }
+            }
+        }
+        return added;
+    }
+}
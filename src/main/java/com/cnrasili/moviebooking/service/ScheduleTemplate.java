@@ -0,0 +1,90 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.Movie;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weekly screening plan of one hall: which movie starts at which time, for each day of the week.
+ * <p>
+ * A template is registered per hall in the {@link ScheduleEngine}, which turns it into concrete
+ * {@link com.cnrasili.moviebooking.model.ShowTime} sessions day by day. Slots can be set for a single day of the
+ * week (e.g., a late show on Fridays only) or for every day at once.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+public class ScheduleTemplate {
+
+    private final Map<DayOfWeek, List<Slot>> slotsByDay = new EnumMap<>(DayOfWeek.class);
+
+    /**
+     * Adds a screening on one day of the week.
+     *
+     * @param day   The day of the week.
+     * @param start The start time (seconds and below are ignored).
+     * @param movie The movie to screen.
+     * @return This template, for chaining.
+     */
+    public ScheduleTemplate addSlot(DayOfWeek day, LocalTime start, Movie movie) {
+        if (movie == null) {
+            throw new IllegalArgumentException("A schedule slot needs a movie.");
+        }
+        slotsByDay.computeIfAbsent(day, d -> new ArrayList<>()).add(new Slot(start.withSecond(0).withNano(0), movie));
+        return this;
+    }
+
+    /**
+     * Adds a screening on every day of the week.
+     *
+     * @param start The start time (seconds and below are ignored).
+     * @param movie The movie to screen.
+     * @return This template, for chaining.
+     */
+    public ScheduleTemplate addDailySlot(LocalTime start, Movie movie) {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            addSlot(day, start, movie);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the screenings planned on a date.
+     *
+     * @param date The date.
+     * @return The slots of the date's day of the week, in the order they were added (possibly empty).
+     */
+    public List<Slot> slotsOn(LocalDate date) {
+        List<Slot> slots = slotsByDay.get(date.getDayOfWeek());
+        return slots == null ? Collections.emptyList() : Collections.unmodifiableList(slots);
+    }
+
+    /**
+     * One planned screening: a start time and a movie.
+     */
+    public static final class Slot {
+        private final LocalTime start;
+        private final Movie movie;
+
+        Slot(LocalTime start, Movie movie) {
+            this.start = start;
+            this.movie = movie;
+        }
+
+        public LocalTime getStart() {
+            return start;
+        }
+
+        public Movie getMovie() {
+            return movie;
+        }
+    }
+}
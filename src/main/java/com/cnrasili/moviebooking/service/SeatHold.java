@@ -0,0 +1,148 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.Seat;
+import com.cnrasili.moviebooking.model.SeatStatus;
+import com.cnrasili.moviebooking.model.ShowTime;
+import com.cnrasili.moviebooking.util.HashedTimerWheel;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A temporary hold on a seat, placed while the customer completes the checkout.
+ * <p>
+ * While the hold is active, the seat is in the {@link SeatStatus#HELD} state and cannot be selected by anyone
+ * else. The hold ends in exactly one of these ways:
+ * <ul>
+ * <li><b>Confirmed:</b> the ticket was paid for and the seat is now {@link SeatStatus#BOOKED}.</li>
+ * <li><b>Released:</b> the customer left the checkout and the seat is available again.</li>
+ * <li><b>Expired:</b> the hold's time-to-live elapsed and the seat is available again.</li>
+ * </ul>
+ * While a payment is being processed the hold is <i>claimed</i>, which prevents it from expiring underneath
+ * the payment. Holds are created by {@link SeatHoldService#hold(ShowTime, Seat)}.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+public class SeatHold {
+
+    private static final int ACTIVE = 0;
+    private static final int CLAIMED = 1;
+    private static final int CONFIRMED = 2;
+    private static final int RELEASED = 3;
+
+    private final ShowTime showTime;
+    private final Seat seat;
+    private final long deadlineNanos;
+    private final AtomicInteger state = new AtomicInteger(ACTIVE);
+    private volatile HashedTimerWheel.Timeout<SeatHold> timeout;
+
+    SeatHold(ShowTime showTime, Seat seat, long deadlineNanos) {
+        this.showTime = showTime;
+        this.seat = seat;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Returns the showtime the held seat belongs to.
+     *
+     * @return The showtime.
+     */
+    public ShowTime getShowTime() {
+        return showTime;
+    }
+
+    /**
+     * Returns the held seat.
+     *
+     * @return The seat.
+     */
+    public Seat getSeat() {
+        return seat;
+    }
+
+    /**
+     * Checks whether the hold still reserves the seat for its owner.
+     *
+     * @return {@code true} if the hold is active or currently claimed for payment.
+     */
+    public boolean isActive() {
+        int current = state.get();
+        return current == ACTIVE || current == CLAIMED;
+    }
+
+    /**
+     * Checks whether the hold has been turned into a booking.
+     *
+     * @return {@code true} if {@link #confirm()} has been called.
+     */
+    public boolean isConfirmed() {
+        return state.get() == CONFIRMED;
+    }
+
+    void setTimeout(HashedTimerWheel.Timeout<SeatHold> timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Claims the hold for a payment, so that it cannot expire until the payment is finished.
+     *
+     * @return {@code true} if the hold was active; {@code false} if it has expired or was released.
+     */
+    boolean claim() {
+        return state.compareAndSet(ACTIVE, CLAIMED);
+    }
+
+    /**
+     * Returns a claimed hold to the active state after a failed payment.
+     * <p>
+     * If the time-to-live elapsed during the payment, the timer has already passed over the hold, so it is
+     * expired here instead.
+     * </p>
+     */
+    void unclaim() {
+        if (state.compareAndSet(CLAIMED, ACTIVE) && System.nanoTime() - deadlineNanos >= 0) {
+            expire();
+        }
+    }
+
+    /**
+     * Turns a claimed hold into a booking.
+     */
+    void confirm() {
+        if (state.compareAndSet(CLAIMED, CONFIRMED)) {
+            seat.confirmHold();
+            cancelTimeout();
+        }
+    }
+
+    /**
+     * Releases an active hold before its time-to-live has elapsed.
+     *
+     * @return {@code true} if the hold was active and the seat has been freed.
+     */
+    boolean release() {
+        if (!state.compareAndSet(ACTIVE, RELEASED)) {
+            return false;
+        }
+        seat.releaseHold();
+        cancelTimeout();
+        return true;
+    }
+
+    /**
+     * Called by the timer wheel when the time-to-live has elapsed. Claimed holds are left alone.
+     */
+    void expire() {
+        if (state.compareAndSet(ACTIVE, RELEASED)) {
+            seat.releaseHold();
+        }
+    }
+
+    private void cancelTimeout() {
+        HashedTimerWheel.Timeout<SeatHold> current = timeout;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+}
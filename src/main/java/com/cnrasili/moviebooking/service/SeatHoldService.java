@@ -0,0 +1,89 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.exception.SeatOccupiedException;
+import com.cnrasili.moviebooking.model.Seat;
+import com.cnrasili.moviebooking.model.ShowTime;
+import com.cnrasili.moviebooking.util.HashedTimerWheel;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Places temporary seat holds during checkout and expires the ones that are abandoned.
+ * <p>
+ * When a customer selects a seat, it is held for a limited time-to-live (TTL) so that nobody else can take it
+ * while the customer enters their details and pays. If the checkout is not completed in time, the hold expires
+ * and the seat becomes available again.
+ * <br>
+ * Expiry is driven by a {@link HashedTimerWheel}: placing and expiring a hold are both O(1), and the single
+ * timer thread only visits the holds that are due on each tick. No thread ever scans the seats of the cinema.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+public class SeatHoldService {
+
+    /** Default time a seat stays held while the customer completes the checkout. */
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+    private static final Duration DEFAULT_TICK = Duration.ofMillis(100);
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final long ttlNanos;
+    private final HashedTimerWheel<SeatHold> wheel;
+
+    /**
+     * Constructs a hold service with the {@link #DEFAULT_TTL default TTL} and a 100 ms timer resolution.
+     */
+    public SeatHoldService() {
+        this(DEFAULT_TTL, DEFAULT_TICK);
+    }
+
+    /**
+     * Constructs a hold service.
+     *
+     * @param ttl  How long a seat stays held.
+     * @param tick The resolution of the expiry timer; holds expire at most one tick late.
+     */
+    public SeatHoldService(Duration ttl, Duration tick) {
+        this.ttlNanos = ttl.toNanos();
+        this.wheel = new HashedTimerWheel<>(tick.toNanos(), TimeUnit.NANOSECONDS, DEFAULT_WHEEL_SIZE,
+                SeatHold::expire, "seat-hold-timer");
+    }
+
+    /**
+     * Holds a seat for the configured TTL.
+     *
+     * @param showTime The showtime the seat belongs to.
+     * @param seat     The seat to hold.
+     * @return The hold, to be passed to {@link Booking#createTicket(Customer, SeatHold, PriceStrategy, PaymentService, String)}.
+     * @throws SeatOccupiedException If the seat is already booked or held by someone else.
+     */
+    public SeatHold hold(ShowTime showTime, Seat seat) throws SeatOccupiedException {
+        if (!seat.tryHold()) {
+            throw new SeatOccupiedException("Seat " + seat.toString() + " is already occupied.");
+        }
+        SeatHold hold = new SeatHold(showTime, seat, System.nanoTime() + ttlNanos);
+        hold.setTimeout(wheel.schedule(hold, ttlNanos, TimeUnit.NANOSECONDS));
+        return hold;
+    }
+
+    /**
+     * Releases a hold before its TTL elapses (e.g., when the customer goes back or leaves the checkout).
+     *
+     * @param hold The hold to release; {@code null} is ignored.
+     */
+    public void release(SeatHold hold) {
+        if (hold != null) {
+            hold.release();
+        }
+    }
+
+    /**
+     * Stops the expiry timer. Holds that are still active are no longer expired.
+     */
+    public void shutdown() {
+        wheel.stop();
+    }
+}
@@ -0,0 +1,164 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.CinemaBranch;
+import com.cnrasili.moviebooking.model.ShowTime;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Routes booking state to the {@link BranchShard} of each cinema branch.
+ * <p>
+ * Requests are routed either by branch (for a showtime, by the branch of its hall) or by PNR code, whose first
+ * {@link #PNR_PREFIX_LENGTH} characters encode the shard ID in base32 (see {@link PnrGenerator}).
+ * <br>
+ * Shard IDs are handed out in registration order. {@link DataInitializer} registers the branches in the order of
+ * {@code branches.csv}, so the IDs (and therefore the PNR prefixes) stay the same across restarts as long as the
+ * file keeps its order. Lookups never rely on the prefix alone, so a ticket is still found if the order changes.
+ * <br>
+ * Shard 0 holds the sessions of halls that are not attached to any branch.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.2
+ */
+public class ShardRouter {
+
+    /** Number of characters of a PNR code holding the shard ID. */
+    public static final int PNR_PREFIX_LENGTH = 2;
+
+    /** Highest shard count the PNR prefix can encode. */
+    public static final int MAX_SHARDS = 32 * 32;
+
+    private final Map<CinemaBranch, BranchShard> byBranch = new ConcurrentHashMap<>();
+    private volatile BranchShard[] shards = {new BranchShard(0, null)};
+
+    /**
+     * Returns the shard of a branch, registering the branch on first use.
+     *
+     * @param branch The cinema branch, or {@code null} for halls outside any branch.
+     * @return The branch's shard.
+     */
+    public BranchShard shardFor(CinemaBranch branch) {
+        if (branch == null) {
+            return shards[0];
+        }
+        BranchShard shard = byBranch.get(branch);
+        return shard != null ? shard : register(branch);
+    }
+
+    /**
+     * Returns the shard owning a showtime, i.e. the shard of its hall's branch.
+     *
+     * @param showTime The showtime.
+     * @return The owning shard.
+     */
+    public BranchShard shardFor(ShowTime showTime) {
+        return shardFor(showTime.getHall().getBranch());
+    }
+
+    /**
+     * Decodes the shard a PNR code was issued by.
+     *
+     * @param pnrCode The PNR code.
+     * @return The shard named by the code's prefix, or {@code null} if the code doesn't name a registered shard
+     * (e.g., a code issued before sharding).
+     */
+    public BranchShard shardForPnr(String pnrCode) {
+        if (pnrCode == null || pnrCode.length() <= PNR_PREFIX_LENGTH) {
+            return null;
+        }
+        long id = PnrGenerator.decode(pnrCode, PNR_PREFIX_LENGTH);
+        BranchShard[] current = shards;
+        return id >= 0 && id < current.length ? current[(int) id] : null;
+    }
+
+    /**
+     * Returns all shards, in ID order.
+     *
+     * @return A read-only list of the shards, including shard 0.
+     */
+    public List<BranchShard> getShards() {
+        return Collections.unmodifiableList(Arrays.asList(shards));
+    }
+
+    /**
+     * Returns the current shard array itself, for loops on hot paths that should not allocate a list view.
+     *
+     * @return The shards in ID order; must not be modified.
+     */
+    BranchShard[] shards() {
+        return shards;
+    }
+
+    /**
+     * Drops every shard together with its showtimes and tickets.
+     */
+    public synchronized void clear() {
+        byBranch.clear();
+        shards = new BranchShard[]{new BranchShard(0, null)};
+    }
+
+    /**
+     * Iterates over one collection per shard, one shard after the other.
+     * <p>
+     * The iterator's {@code remove()} method removes the current element from its shard's collection.
+     * </p>
+     *
+     * @param part Selects the collection of a shard.
+     * @param <T>  The element type.
+     * @return An iterator over the elements of all shards.
+     */
+    <T> Iterator<T> iterate(Function<BranchShard, ? extends Collection<T>> part) {
+        final BranchShard[] current = shards;
+        return new Iterator<T>() {
+            private int next = 0;
+            private Iterator<T> inner = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!inner.hasNext() && next < current.length) {
+                    inner = part.apply(current[next++]).iterator();
+                }
+                return inner.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return inner.next();
+            }
+
+            @Override
+            public void remove() {
+                inner.remove();
+            }
+        };
+    }
+
+    private synchronized BranchShard register(CinemaBranch branch) {
+        BranchShard shard = byBranch.get(branch);
+        if (shard != null) {
+            return shard;
+        }
+        BranchShard[] current = shards;
+        if (current.length == MAX_SHARDS) {
+            throw new IllegalStateException("Too many branches: at most " + (MAX_SHARDS - 1) + " can be sharded.");
+        }
+        shard = new BranchShard(current.length, branch);
+        BranchShard[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[shard.getId()] = shard;
+        shards = grown;
+        byBranch.put(branch, shard);
+        return shard;
+    }
+}
@@ -0,0 +1,152 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.CinemaBranch;
+import com.cnrasili.moviebooking.model.CinemaHall;
+import com.cnrasili.moviebooking.model.Movie;
+import com.cnrasili.moviebooking.model.ShowTime;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Chain-wide view of the showtimes of all {@link BranchShard}s.
+ * <p>
+ * Each showtime is stored in the {@link ShowTimeRegistry} of its hall's branch, so adding or removing sessions
+ * at one branch only locks that branch's registry. Branch queries go to a single shard; the other lookups
+ * combine the indexes of every shard:
+ * <ul>
+ * <li>{@link #showTimesForMovie(Movie)}, {@link #showTimesOnDate(LocalDate)} and
+ * {@link #showTimesInHallType(Class)} return live views over the shards' index sets.</li>
+ * <li>{@link #getFirstSessionStart(Movie, LocalDate)} takes the earliest of the shards' first sessions, so the
+ * first-session discount still applies chain-wide.</li>
+ * </ul>
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+public class ShardedShowTimeRegistry extends ShowTimeRegistry {
+
+    private final ShardRouter router;
+
+    /**
+     * Constructs a view over the shards of a router.
+     *
+     * @param router The router owning the shards.
+     */
+    public ShardedShowTimeRegistry(ShardRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public boolean add(ShowTime showTime) {
+        return router.shardFor(showTime).getShowTimes().add(showTime);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof ShowTime && router.shardFor((ShowTime) o).getShowTimes().remove(o);
+    }
+
+    @Override
+    public void clear() {
+        for (BranchShard shard : router.getShards()) {
+            shard.getShowTimes().clear();
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof ShowTime && router.shardFor((ShowTime) o).getShowTimes().contains(o);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (BranchShard shard : router.getShards()) {
+            size += shard.getShowTimes().size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns an iterator over the showtimes of all shards, shard by shard, each in insertion order.
+     * <p>
+     * Each shard is read from a snapshot taken when the iterator reaches it. The iterator's {@code remove()}
+     * method removes the current showtime from the registry.
+     * </p>
+     *
+     * @return An iterator over the showtimes.
+     */
+    @Override
+    public Iterator<ShowTime> iterator() {
+        return router.iterate(BranchShard::getShowTimes);
+    }
+
+    @Override
+    public LocalDateTime getFirstSessionStart(Movie movie, LocalDate date) {
+        LocalDateTime earliest = null;
+        for (BranchShard shard : router.getShards()) {
+            LocalDateTime start = shard.getShowTimes().getFirstSessionStart(movie, date);
+            if (start != null && (earliest == null || start.isBefore(earliest))) {
+                earliest = start;
+            }
+        }
+        return earliest;
+    }
+
+    @Override
+    public Set<ShowTime> showTimesAtBranch(CinemaBranch branch) {
+        return router.shardFor(branch).getShowTimes().showTimesAtBranch(branch);
+    }
+
+    @Override
+    public Set<ShowTime> showTimesForMovie(Movie movie) {
+        return new ShardUnion(shard -> shard.getShowTimes().showTimesForMovie(movie));
+    }
+
+    @Override
+    public Set<ShowTime> showTimesOnDate(LocalDate date) {
+        return new ShardUnion(shard -> shard.getShowTimes().showTimesOnDate(date));
+    }
+
+    @Override
+    public Set<ShowTime> showTimesInHallType(Class<? extends CinemaHall> hallType) {
+        return new ShardUnion(shard -> shard.getShowTimes().showTimesInHallType(hallType));
+    }
+
+    /**
+     * Live, read-only union of one index set per shard. A showtime lives in exactly one shard, so the sets
+     * are disjoint.
+     */
+    private final class ShardUnion extends AbstractSet<ShowTime> {
+        private final Function<BranchShard, Set<ShowTime>> part;
+
+        ShardUnion(Function<BranchShard, Set<ShowTime>> part) {
+            this.part = part;
+        }
+
+        @Override
+        public Iterator<ShowTime> iterator() {
+            return router.iterate(part);
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (BranchShard shard : router.getShards()) {
+                size += part.apply(shard).size();
+            }
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof ShowTime && part.apply(router.shardFor((ShowTime) o)).contains(o);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.Ticket;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chain-wide view of the tickets of all {@link BranchShard}s.
+ * <p>
+ * A ticket is stored in the shard of its showtime's branch. Lookups by PNR go straight to the shard encoded in
+ * the code's prefix. A well-formed code (see {@link PnrGenerator#isWellFormed(String)}) whose ticket lives in
+ * another shard (e.g., restored from the journal after {@code branches.csv} changed order) is found through a
+ * small side index, so any lookup of such a code, hit or miss, costs at most two map reads. Only codes of other
+ * formats (e.g., issued before sharding) are searched for in every shard.
+ * <br>
+ * A PNR is unique across the whole chain. Well-formed codes are checked against their prefix shard and the side
+ * index; other codes against every shard.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+public class ShardedTicketRegistry extends TicketRegistry {
+
+    private final ShardRouter router;
+    private final Map<String, BranchShard> foreign = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a view over the shards of a router.
+     *
+     * @param router The router owning the shards.
+     */
+    public ShardedTicketRegistry(ShardRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public boolean add(Ticket ticket) {
+        String pnrCode = ticket.getPnrCode();
+        BranchShard shard = router.shardFor(ticket.getShowTime());
+        boolean wellFormed = PnrGenerator.isWellFormed(pnrCode);
+        BranchShard home = wellFormed ? router.shardForPnr(pnrCode) : null;
+        if (home == shard) {
+            if (!shard.getTickets().add(ticket)) {
+                return false;
+            }
+            // Each path publishes its ticket before looking at the other, so two adds of one code can't both win
+            if (!isRegistered(foreign.get(pnrCode))) {
+                return true;
+            }
+            shard.getTickets().remove(ticket);
+            return false;
+        }
+        synchronized (this) {
+            if (!wellFormed) {
+                return !containsPnr(pnrCode) && shard.getTickets().add(ticket);
+            }
+            if (isRegistered(foreign.get(pnrCode))) {
+                return false;
+            }
+            foreign.put(pnrCode, shard);
+            if ((home == null || !home.getTickets().containsPnr(pnrCode)) && shard.getTickets().add(ticket)) {
+                return true;
+            }
+            foreign.remove(pnrCode, shard);
+            return false;
+        }
+    }
+
+    @Override
+    public Ticket get(String pnrCode) {
+        if (pnrCode == null) {
+            return null;
+        }
+        BranchShard home = router.shardForPnr(pnrCode);
+        Ticket ticket = home == null ? null : home.getTickets().get(pnrCode);
+        if (ticket != null) {
+            return ticket;
+        }
+        if (PnrGenerator.isWellFormed(pnrCode)) {
+            BranchShard shard = foreign.get(pnrCode);
+            return isRegistered(shard) ? shard.getTickets().get(pnrCode) : null;
+        }
+        for (BranchShard shard : router.shards()) {
+            if (shard != home && (ticket = shard.getTickets().get(pnrCode)) != null) {
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsPnr(String pnrCode) {
+        return get(pnrCode) != null;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Ticket)) {
+            return false;
+        }
+        Ticket ticket = (Ticket) o;
+        BranchShard shard = router.shardFor(ticket.getShowTime());
+        if (!isForeign(ticket, shard)) {
+            return shard.getTickets().remove(ticket);
+        }
+        // Under the same lock as add(), so a ticket re-added with this PNR keeps its index entry
+        synchronized (this) {
+            if (!shard.getTickets().remove(ticket)) {
+                return false;
+            }
+            foreign.remove(ticket.getPnrCode(), shard);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Ticket && router.shardFor(((Ticket) o).getShowTime()).getTickets().contains(o);
+    }
+
+    @Override
+    public Iterator<Ticket> iterator() {
+        Iterator<Ticket> tickets = router.iterate(BranchShard::getTickets);
+        return new Iterator<Ticket>() {
+            private Ticket current;
+
+            @Override
+            public boolean hasNext() {
+                return tickets.hasNext();
+            }
+
+            @Override
+            public Ticket next() {
+                return current = tickets.next();
+            }
+
+            @Override
+            public void remove() {
+                BranchShard shard = router.shardFor(current.getShowTime());
+                if (!isForeign(current, shard)) {
+                    tickets.remove();
+                    return;
+                }
+                synchronized (ShardedTicketRegistry.this) {
+                    tickets.remove();
+                    foreign.remove(current.getPnrCode(), shard);
+                }
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (BranchShard shard : router.shards()) {
+            size += shard.getTickets().size();
+        }
+        return size;
+    }
+
+    @Override
+    public synchronized void clear() {
+        for (BranchShard shard : router.shards()) {
+            shard.getTickets().clear();
+        }
+        foreign.clear();
+    }
+
+    /**
+     * Checks whether a shard is still one of the router's, i.e. the router has not been cleared since the shard's
+     * tickets were indexed.
+     */
+    private boolean isRegistered(BranchShard shard) {
+        BranchShard[] shards = router.shards();
+        return shard != null && shard.getId() < shards.length && shards[shard.getId()] == shard;
+    }
+
+    /**
+     * Checks whether a ticket is kept in the side index, i.e. has a well-formed code naming another shard.
+     */
+    private boolean isForeign(Ticket ticket, BranchShard shard) {
+        String pnrCode = ticket.getPnrCode();
+        return PnrGenerator.isWellFormed(pnrCode) && router.shardForPnr(pnrCode) != shard;
+    }
+}
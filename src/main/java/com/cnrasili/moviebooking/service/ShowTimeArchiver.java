@@ -0,0 +1,138 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.ShowTime;
+import com.cnrasili.moviebooking.model.Ticket;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves finished showtimes and their tickets out of the in-memory registries.
+ * <p>
+ * A session is finished once its movie has ended (start time plus duration). For each run:
+ * <ol>
+ * <li>The tickets of finished sessions are written to the {@link TicketArchive} and forced to disk.</li>
+ * <li>Their archival is recorded in the {@link BookingJournal} (if installed), so a restart does not bring them
+ * back into memory.</li>
+ * <li>They are removed from {@link CinemaSystem#soldTickets}, and the finished sessions from
+ * {@link CinemaSystem#activeShowTimes}.</li>
+ * </ol>
+ * A crash between two steps at worst leaves a ticket both archived and active; it is then archived again on the
+ * next run, which only replaces its index entry.
+ * <br>
+ * Finished tickets can't be refunded anyway (see {@link RefundService}), so archiving never races with a refund.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+public class ShowTimeArchiver {
+
+    private final TicketArchive archive;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs an archiver writing to the given archive.
+     *
+     * @param archive The ticket archive.
+     */
+    public ShowTimeArchiver(TicketArchive archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Archives every session that has ended before the given time, with its tickets.
+     *
+     * @param now The current time.
+     * @return The number of archived tickets.
+     * @throws IOException If the tickets can't be written to the archive; nothing is removed then.
+     */
+    public synchronized int archiveFinished(LocalDateTime now) throws IOException {
+        List<Ticket> finishedTickets = new ArrayList<>();
+        for (Ticket ticket : CinemaSystem.soldTickets) {
+            if (isFinished(ticket.getShowTime(), now)) {
+                finishedTickets.add(ticket);
+            }
+        }
+        List<ShowTime> finishedSessions = new ArrayList<>();
+        for (ShowTime showTime : CinemaSystem.activeShowTimes) {
+            if (isFinished(showTime, now)) {
+                finishedSessions.add(showTime);
+            }
+        }
+
+        if (!finishedTickets.isEmpty()) {
+            archive.append(finishedTickets);
+
+            BookingJournal journal = CinemaSystem.journal;
+            if (journal != null) {
+                CompletableFuture<Void> durable = null;
+                for (Ticket ticket : finishedTickets) {
+                    durable = journal.ticketArchived(ticket.getPnrCode());
+                }
+                durable.join();
+            }
+            for (Ticket ticket : finishedTickets) {
+                CinemaSystem.soldTickets.remove(ticket);
+            }
+        }
+        for (ShowTime showTime : finishedSessions) {
+            CinemaSystem.activeShowTimes.remove(showTime);
+        }
+        return finishedTickets.size();
+    }
+
+    /**
+     * Runs {@link #archiveFinished(LocalDateTime)} periodically on a background thread.
+     *
+     * @param period The time between two runs.
+     * @param unit   The unit of {@code period}.
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "showtime-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                archiveFinished(LocalDateTime.now());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("ERROR: Failed to archive finished showtimes. " + e.getMessage());
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Stops the background thread and waits for a run in progress to finish.
+     */
+    public void stop() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            running.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean isFinished(ShowTime showTime, LocalDateTime now) {
+        return showTime.getTime().plusMinutes(showTime.getMovie().getDurationMinutes()).isBefore(now);
+    }
+}
@@ -0,0 +1,151 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.CinemaBranch;
+import com.cnrasili.moviebooking.model.CinemaHall;
+import com.cnrasili.moviebooking.model.Movie;
+import com.cnrasili.moviebooking.model.ShowTime;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Composable query over the showtimes held in a {@link ShowTimeRegistry}.
+ * <p>
+ * Criteria are combined with AND semantics and may be given in any order, e.g.:
+ * <pre>
+ * CinemaSystem.activeShowTimes.query()
+ *         .atBranch(branch)
+ *         .forMovie(movie)
+ *         .onDate(LocalDate.now().plusDays(1))
+ *         .inHallType(IMAXHall.class)
+ *         .list();
+ * </pre>
+ * The query starts from the smallest matching secondary index (branch, movie, date or hall type) and only
+ * filters that candidate set, so its cost depends on the size of the result rather than on the size of the
+ * whole schedule. Results are sorted by start time.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+public class ShowTimeQuery {
+
+    /** Orders results by start time, then by hall name for sessions starting at the same time. */
+    private static final Comparator<ShowTime> BY_TIME = Comparator
+            .comparing(ShowTime::getTime)
+            .thenComparing(showTime -> showTime.getHall().getName());
+
+    private final ShowTimeRegistry registry;
+    private CinemaBranch branch;
+    private Movie movie;
+    private LocalDate date;
+    private Class<? extends CinemaHall> hallType;
+
+    /**
+     * Constructs an empty query. Use {@link ShowTimeRegistry#query()} to obtain an instance.
+     *
+     * @param registry The registry to query.
+     */
+    ShowTimeQuery(ShowTimeRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Restricts the query to showtimes in the halls of the given branch.
+     *
+     * @param branch The cinema branch.
+     * @return This query, for chaining.
+     */
+    public ShowTimeQuery atBranch(CinemaBranch branch) {
+        this.branch = branch;
+        return this;
+    }
+
+    /**
+     * Restricts the query to showtimes of the given movie.
+     *
+     * @param movie The movie.
+     * @return This query, for chaining.
+     */
+    public ShowTimeQuery forMovie(Movie movie) {
+        this.movie = movie;
+        return this;
+    }
+
+    /**
+     * Restricts the query to showtimes starting on the given calendar date.
+     *
+     * @param date The date.
+     * @return This query, for chaining.
+     */
+    public ShowTimeQuery onDate(LocalDate date) {
+        this.date = date;
+        return this;
+    }
+
+    /**
+     * Restricts the query to showtimes in halls of the given type (e.g., {@code IMAXHall.class}).
+     *
+     * @param hallType The hall class.
+     * @return This query, for chaining.
+     */
+    public ShowTimeQuery inHallType(Class<? extends CinemaHall> hallType) {
+        this.hallType = hallType;
+        return this;
+    }
+
+    /**
+     * Executes the query.
+     *
+     * @return The matching showtimes, sorted by start time.
+     */
+    public List<ShowTime> list() {
+        Collection<ShowTime> candidates = null;
+
+        if (branch != null) {
+            candidates = smaller(candidates, registry.showTimesAtBranch(branch));
+        }
+        if (movie != null) {
+            candidates = smaller(candidates, registry.showTimesForMovie(movie));
+        }
+        if (date != null) {
+            candidates = smaller(candidates, registry.showTimesOnDate(date));
+        }
+        if (hallType != null) {
+            candidates = smaller(candidates, registry.showTimesInHallType(hallType));
+        }
+        if (candidates == null) {
+            candidates = registry;
+        }
+
+        List<ShowTime> result = new ArrayList<>();
+        for (ShowTime showTime : candidates) {
+            if (matches(showTime)) {
+                result.add(showTime);
+            }
+        }
+        result.sort(BY_TIME);
+        return result;
+    }
+
+    /**
+     * Checks whether a showtime satisfies every criterion of this query.
+     *
+     * @param showTime The showtime to test.
+     * @return {@code true} if the showtime matches.
+     */
+    public boolean matches(ShowTime showTime) {
+        CinemaHall hall = showTime.getHall();
+        return (branch == null || hall.getBranch() == branch)
+                && (movie == null || showTime.getMovie() == movie)
+                && (date == null || showTime.getTime().toLocalDate().equals(date))
+                && (hallType == null || hall.getClass() == hallType);
+    }
+
+    private static Collection<ShowTime> smaller(Collection<ShowTime> current, Collection<ShowTime> other) {
+        return current == null || other.size() < current.size() ? other : current;
+    }
+}
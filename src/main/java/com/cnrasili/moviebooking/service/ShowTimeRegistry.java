@@ -0,0 +1,316 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.CinemaBranch;
+import com.cnrasili.moviebooking.model.CinemaHall;
+import com.cnrasili.moviebooking.model.Movie;
+import com.cnrasili.moviebooking.model.ShowTime;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.AbstractCollection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of all active showtimes, maintaining lookup indexes alongside the showtimes themselves.
+ * <p>
+ * Replaces the plain list previously used by {@link CinemaSystem#activeShowTimes}. Every time a showtime is
+ * added or removed, the registry updates its indexes, so schedule queries no longer have to scan all sessions.
+ * <br>
+ * Indexes maintained:
+ * <ul>
+ * <li><b>First session:</b> the earliest start time per (movie, calendar date), used by
+ * {@link #isFirstSession(ShowTime)}.</li>
+ * <li><b>Secondary indexes:</b> showtimes by branch, movie, calendar date and hall type, used by
+ * {@link ShowTimeQuery} (see {@link #query()}).</li>
+ * </ul>
+ * Writes are serialized on the registry; reads of the indexes are lock-free. Iteration works on a snapshot,
+ * so the schedule can be browsed while sessions are being added or removed.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+public class ShowTimeRegistry extends AbstractCollection<ShowTime> {
+
+    private static final ShowTime[] EMPTY = new ShowTime[0];
+
+    private final Set<ShowTime> showTimes = new LinkedHashSet<>();
+    private volatile ShowTime[] snapshot = EMPTY;
+
+    /** All start times per movie and date, with a count per time (guarded by {@code this}). */
+    private final Map<Movie, Map<LocalDate, TreeMap<LocalDateTime, Integer>>> startTimes = new HashMap<>();
+
+    /** Earliest start time per movie and date, readable without locking. */
+    private final Map<Movie, Map<LocalDate, LocalDateTime>> firstSessionStarts = new ConcurrentHashMap<>();
+
+    private final SecondaryIndex<CinemaBranch> byBranch = new SecondaryIndex<>();
+    private final SecondaryIndex<Movie> byMovie = new SecondaryIndex<>();
+    private final SecondaryIndex<LocalDate> byDate = new SecondaryIndex<>();
+    private final SecondaryIndex<Class<? extends CinemaHall>> byHallType = new SecondaryIndex<>();
+
+    /**
+     * Adds a showtime to the registry and updates all indexes.
+     *
+     * @param showTime The showtime to add.
+     * @return {@code true} if the showtime was added; {@code false} if it was already registered.
+     */
+    @Override
+    public synchronized boolean add(ShowTime showTime) {
+        if (!showTimes.add(showTime)) {
+            return false;
+        }
+        snapshot = null;
+        indexStartTime(showTime);
+        byBranch.add(showTime.getHall().getBranch(), showTime);
+        byMovie.add(showTime.getMovie(), showTime);
+        byDate.add(showTime.getTime().toLocalDate(), showTime);
+        byHallType.add(showTime.getHall().getClass(), showTime);
+        return true;
+    }
+
+    /**
+     * Removes a showtime from the registry and updates all indexes.
+     *
+     * @param o The showtime to remove.
+     * @return {@code true} if the showtime was registered and has been removed.
+     */
+    @Override
+    public synchronized boolean remove(Object o) {
+        if (!showTimes.remove(o)) {
+            return false;
+        }
+        ShowTime showTime = (ShowTime) o;
+        snapshot = null;
+        unindexStartTime(showTime);
+        byBranch.remove(showTime.getHall().getBranch(), showTime);
+        byMovie.remove(showTime.getMovie(), showTime);
+        byDate.remove(showTime.getTime().toLocalDate(), showTime);
+        byHallType.remove(showTime.getHall().getClass(), showTime);
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        showTimes.clear();
+        snapshot = EMPTY;
+        startTimes.clear();
+        firstSessionStarts.clear();
+        byBranch.clear();
+        byMovie.clear();
+        byDate.clear();
+        byHallType.clear();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        synchronized (this) {
+            return showTimes.contains(o);
+        }
+    }
+
+    @Override
+    public int size() {
+        return snapshot().length;
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the registered showtimes, in insertion order.
+     * <p>
+     * The iterator is not affected by later changes to the registry. Its {@code remove()} method removes the
+     * current showtime from the registry.
+     * </p>
+     *
+     * @return An iterator over the showtimes.
+     */
+    @Override
+    public Iterator<ShowTime> iterator() {
+        final ShowTime[] items = snapshot();
+        return new Iterator<ShowTime>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < items.length;
+            }
+
+            @Override
+            public ShowTime next() {
+                if (next >= items.length) {
+                    throw new NoSuchElementException();
+                }
+                return items[next++];
+            }
+
+            @Override
+            public void remove() {
+                if (next == 0) {
+                    throw new IllegalStateException();
+                }
+                ShowTimeRegistry.this.remove(items[next - 1]);
+            }
+        };
+    }
+
+    /**
+     * Determines if the given showtime is the first session of its day for its movie.
+     * <p>
+     * This is a constant-time lookup of the earliest registered start time for the showtime's movie and date.
+     * </p>
+     *
+     * @param showTime The showtime to check.
+     * @return {@code true} if no registered showtime of the same movie starts earlier on the same date.
+     */
+    public boolean isFirstSession(ShowTime showTime) {
+        LocalDateTime earliest = getFirstSessionStart(showTime.getMovie(), showTime.getTime().toLocalDate());
+        return earliest == null || !earliest.isBefore(showTime.getTime());
+    }
+
+    /**
+     * Returns the start time of the earliest registered session of a movie on a given date.
+     *
+     * @param movie The movie.
+     * @param date  The calendar date.
+     * @return The earliest start time, or {@code null} if the movie has no session on that date.
+     */
+    public LocalDateTime getFirstSessionStart(Movie movie, LocalDate date) {
+        return firstSessionStarts.getOrDefault(movie, Collections.emptyMap()).get(date);
+    }
+
+    /**
+     * Starts a new composable query over the registered showtimes.
+     *
+     * @return An empty {@link ShowTimeQuery} bound to this registry.
+     */
+    public ShowTimeQuery query() {
+        return new ShowTimeQuery(this);
+    }
+
+    /**
+     * Returns a live, read-only view of the showtimes in the halls of a branch.
+     *
+     * @param branch The cinema branch.
+     * @return The indexed showtimes (possibly empty).
+     */
+    public Set<ShowTime> showTimesAtBranch(CinemaBranch branch) {
+        return byBranch.get(branch);
+    }
+
+    /**
+     * Returns a live, read-only view of the showtimes of a movie.
+     *
+     * @param movie The movie.
+     * @return The indexed showtimes (possibly empty).
+     */
+    public Set<ShowTime> showTimesForMovie(Movie movie) {
+        return byMovie.get(movie);
+    }
+
+    /**
+     * Returns a live, read-only view of the showtimes starting on a calendar date.
+     *
+     * @param date The date.
+     * @return The indexed showtimes (possibly empty).
+     */
+    public Set<ShowTime> showTimesOnDate(LocalDate date) {
+        return byDate.get(date);
+    }
+
+    /**
+     * Returns a live, read-only view of the showtimes in halls of a given type.
+     *
+     * @param hallType The hall class (e.g., {@code IMAXHall.class}).
+     * @return The indexed showtimes (possibly empty).
+     */
+    public Set<ShowTime> showTimesInHallType(Class<? extends CinemaHall> hallType) {
+        return byHallType.get(hallType);
+    }
+
+    private ShowTime[] snapshot() {
+        ShowTime[] current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = showTimes.toArray(EMPTY);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private void indexStartTime(ShowTime showTime) {
+        Movie movie = showTime.getMovie();
+        LocalDate date = showTime.getTime().toLocalDate();
+
+        TreeMap<LocalDateTime, Integer> times = startTimes
+                .computeIfAbsent(movie, m -> new HashMap<>())
+                .computeIfAbsent(date, d -> new TreeMap<>());
+        times.merge(showTime.getTime(), 1, Integer::sum);
+
+        firstSessionStarts.computeIfAbsent(movie, m -> new ConcurrentHashMap<>()).put(date, times.firstKey());
+    }
+
+    private void unindexStartTime(ShowTime showTime) {
+        Movie movie = showTime.getMovie();
+        LocalDate date = showTime.getTime().toLocalDate();
+
+        Map<LocalDate, TreeMap<LocalDateTime, Integer>> byDate = startTimes.get(movie);
+        TreeMap<LocalDateTime, Integer> times = byDate.get(date);
+        times.computeIfPresent(showTime.getTime(), (time, count) -> count == 1 ? null : count - 1);
+
+        Map<LocalDate, LocalDateTime> firstByDate = firstSessionStarts.get(movie);
+        if (times.isEmpty()) {
+            byDate.remove(date);
+            firstByDate.remove(date);
+            if (byDate.isEmpty()) {
+                startTimes.remove(movie);
+                firstSessionStarts.remove(movie);
+            }
+        } else {
+            firstByDate.put(date, times.firstKey());
+        }
+    }
+
+    /**
+     * Maps a key to the set of showtimes carrying that key.
+     * <p>
+     * Mutations happen under the registry lock; lookups are lock-free. Showtimes with a {@code null} key
+     * (e.g., a hall not attached to any branch) are not indexed.
+     * </p>
+     *
+     * @param <K> The key type.
+     */
+    private static final class SecondaryIndex<K> {
+        private final Map<K, Set<ShowTime>> entries = new ConcurrentHashMap<>();
+
+        void add(K key, ShowTime showTime) {
+            if (key != null) {
+                entries.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(showTime);
+            }
+        }
+
+        void remove(K key, ShowTime showTime) {
+            if (key != null) {
+                entries.computeIfPresent(key, (k, set) -> set.remove(showTime) && set.isEmpty() ? null : set);
+            }
+        }
+
+        Set<ShowTime> get(K key) {
+            Set<ShowTime> set = key == null ? null : entries.get(key);
+            return set == null ? Collections.emptySet() : Collections.unmodifiableSet(set);
+        }
+
+        void clear() {
+            entries.clear();
+        }
+    }
+}
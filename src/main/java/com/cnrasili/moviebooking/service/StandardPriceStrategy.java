@@ -8,7 +8,7 @@ package com.cnrasili.moviebooking.service;
  * </p>
  *
  * @author cnrasili
- * @version 1.0
+ * @version 1.1
  */
 public class StandardPriceStrategy implements PriceStrategy {
 
@@ -22,4 +22,14 @@ public class StandardPriceStrategy implements PriceStrategy {
     public double calculateDiscount(double basePrice) {
         return basePrice;
     }
+
+    /**
+     * Returns the (absent) discount of the standard price.
+     *
+     * @return 0 (percent).
+     */
+    @Override
+    public int getDiscountPercent() {
+        return 0;
+    }
 }
@@ -0,0 +1,265 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.util.MappedCsvReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Registry of valid student IDs, with constant-time membership checks and compact storage.
+ * <p>
+ * Replaces the plain list previously used by {@link CinemaSystem#validStudentIds}, which was scanned linearly on
+ * every discounted checkout.
+ * <ul>
+ * <li>IDs in the standard format ({@code "ST"} followed by 1 to 17 digits) are encoded into a single
+ * {@code long} (digit count and numeric value, so {@code ST007} and {@code ST7} stay distinct) and stored in an
+ * open-addressing hash table with linear probing: 8 bytes per slot instead of a {@code String} object per ID.</li>
+ * <li>Any other ID is kept as a string in a small hash set on the side.</li>
+ * </ul>
+ * <b>Concurrency:</b> lookups never lock. {@link #add(String)} and {@link #clear()} are serialized, and
+ * {@link #reload(Path)} builds a complete new table from the file before swapping it in, so checkouts keep
+ * validating against the previous IDs while a large export is being loaded.
+ * <br>
+ * The registry still behaves like a regular {@link java.util.Collection} ({@code add}, {@code contains},
+ * {@code clear}, iteration), so tests and data loaders can keep treating it as a list of IDs.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+public class StudentIdRegistry extends AbstractCollection<String> {
+
+    private static final int MAX_DIGITS = 17;
+    private static final int DIGIT_COUNT_SHIFT = 57;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Object writeLock = new Object();
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+
+    /**
+     * Adds a student ID.
+     *
+     * @param studentId The ID to add.
+     * @return {@code true} if the ID was not registered yet.
+     */
+    @Override
+    public boolean add(String studentId) {
+        synchronized (writeLock) {
+            Table current = table;
+            if (current.isFull()) {
+                current = current.grow();
+                table = current;
+            }
+            return current.add(studentId);
+        }
+    }
+
+    /**
+     * Checks whether a student ID is registered. Never blocks.
+     *
+     * @param o The ID to check.
+     * @return {@code true} if the ID is registered.
+     */
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof String && table.contains((String) o);
+    }
+
+    /**
+     * Removes all IDs.
+     */
+    @Override
+    public void clear() {
+        synchronized (writeLock) {
+            table = new Table(INITIAL_CAPACITY);
+        }
+    }
+
+    /**
+     * Replaces all IDs with the ones listed in a CSV file (first column).
+     * <p>
+     * The new table is built off to the side and swapped in at once: until then, lookups see the previous IDs,
+     * and afterwards they see the new ones only. IDs added concurrently while the file is being read are
+     * discarded along with the old table.
+     * </p>
+     *
+     * @param file The student ID file.
+     * @return The number of loaded and skipped rows.
+     * @throws IOException If the file can't be read; the current IDs are kept.
+     */
+    public MappedCsvReader.Result reload(Path file) throws IOException {
+        Table[] building = {new Table(INITIAL_CAPACITY)};
+        MappedCsvReader.Result result = MappedCsvReader.read(file, row -> {
+            if (building[0].isFull()) {
+                building[0] = building[0].grow();
+            }
+            building[0].add(row.getString(0));
+        });
+        synchronized (writeLock) {
+            table = building[0];
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Iterates over a weakly consistent view of the registered IDs.
+     *
+     * @return An iterator over the IDs; removal is not supported.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        Table current = table;
+        Iterator<String> others = current.others.iterator();
+        return new Iterator<String>() {
+            private int slot = nextSlot(0);
+
+            private int nextSlot(int from) {
+                while (from < current.codes.length() && current.codes.get(from) == 0) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return slot < current.codes.length() || others.hasNext();
+            }
+
+            @Override
+            public String next() {
+                if (slot < current.codes.length()) {
+                    String id = decode(current.codes.get(slot));
+                    slot = nextSlot(slot + 1);
+                    return id;
+                }
+                if (others.hasNext()) {
+                    return others.next();
+                }
+                throw new NoSuchElementException();
+            }
+        };
+    }
+
+    /**
+     * Encodes a standard-format ID as its digit count (upper bits) and numeric value.
+     *
+     * @return The code, or 0 if the ID is not in the standard format.
+     */
+    private static long encode(String id) {
+        int digits = id.length() - 2;
+        if (digits < 1 || digits > MAX_DIGITS || id.charAt(0) != 'S' || id.charAt(1) != 'T') {
+            return 0;
+        }
+        long value = 0;
+        for (int i = 2; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return ((long) digits << DIGIT_COUNT_SHIFT) | value;
+    }
+
+    private static String decode(long code) {
+        int digits = (int) (code >>> DIGIT_COUNT_SHIFT);
+        String value = Long.toString(code & ((1L << DIGIT_COUNT_SHIFT) - 1));
+        StringBuilder id = new StringBuilder(2 + digits).append("ST");
+        for (int i = value.length(); i < digits; i++) {
+            id.append('0');
+        }
+        return id.append(value).toString();
+    }
+
+    /**
+     * One generation of the registry. Slots only ever go from empty (0) to a code, so readers can probe while a
+     * writer inserts.
+     */
+    private static final class Table {
+        final AtomicLongArray codes;
+        final int mask;
+        final int shift;
+        final Set<String> others = ConcurrentHashMap.newKeySet();
+        volatile int codeCount;
+
+        Table(int capacity) {
+            codes = new AtomicLongArray(capacity);
+            mask = capacity - 1;
+            shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        }
+
+        /**
+         * @return {@code true} once the table is two-thirds full and should grow before the next insert.
+         */
+        boolean isFull() {
+            return (long) codeCount * 3 >= (long) codes.length() * 2;
+        }
+
+        Table grow() {
+            Table grown = new Table(codes.length() * 2);
+            for (int i = 0; i < codes.length(); i++) {
+                long code = codes.get(i);
+                if (code != 0) {
+                    grown.addCode(code);
+                }
+            }
+            grown.others.addAll(others);
+            return grown;
+        }
+
+        boolean add(String id) {
+            long code = encode(id);
+            return code == 0 ? others.add(id) : addCode(code);
+        }
+
+        boolean contains(String id) {
+            long code = encode(id);
+            if (code == 0) {
+                return others.contains(id);
+            }
+            for (int slot = slot(code); ; slot = (slot + 1) & mask) {
+                long stored = codes.get(slot);
+                if (stored == code) {
+                    return true;
+                }
+                if (stored == 0) {
+                    return false;
+                }
+            }
+        }
+
+        int size() {
+            return codeCount + others.size();
+        }
+
+        private boolean addCode(long code) {
+            for (int slot = slot(code); ; slot = (slot + 1) & mask) {
+                long stored = codes.get(slot);
+                if (stored == code) {
+                    return false;
+                }
+                if (stored == 0) {
+                    codes.set(slot, code);
+                    codeCount++;
+                    return true;
+                }
+            }
+        }
+
+        private int slot(long code) {
+            // Fibonacci hashing: the top bits of the product spread the mostly sequential IDs over the whole table
+            return (int) ((code * 0x9E3779B97F4A7C15L) >>> shift);
+        }
+    }
+}
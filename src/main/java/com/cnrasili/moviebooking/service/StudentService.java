@@ -12,14 +12,15 @@ package com.cnrasili.moviebooking.service;
  * </p>
  *
  * @author cnrasili
- * @version 1.1 (Refactored to use central CSV-loaded data)
+ * @version 1.2
  */
 public class StudentService {
 
     /**
      * Checks if the provided student ID is valid and active.
      * <p>
-     * It queries the {@link CinemaSystem} to see if the ID exists in the currently loaded list.
+     * It queries the {@link CinemaSystem} to see if the ID exists in the currently loaded registry.
+     * The lookup is a constant-time hash lookup that never waits for a reload in progress.
      * </p>
      *
      * @param studentId The unique student identifier string.
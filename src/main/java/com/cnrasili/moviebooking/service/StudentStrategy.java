@@ -1,17 +1,24 @@
 package com.cnrasili.moviebooking.service;
 
+import com.cnrasili.moviebooking.util.EventLog;
+
 /**
  * Implements the student pricing strategy.
  * <p>
  * This strategy applies a <strong>20% discount</strong> to the base price for verified students.
  * It also logs a confirmation message to the console when applied.
+ * <br>
+ * At checkout, the discount comes from the "Student" promotion of the {@link DiscountPlan}, which this
+ * strategy enables through {@link #isStudent()}.
  * </p>
  *
  * @author cnrasili
- * @version 1.0
+ * @version 1.3
  */
 public class StudentStrategy implements PriceStrategy {
 
+    private static final EventLog LOG = EventLog.console();
+
     /**
      * Calculates the discounted price for students.
      * <p>
@@ -23,7 +30,36 @@ public class StudentStrategy implements PriceStrategy {
      */
     @Override
     public double calculateDiscount(double basePrice) {
-        System.out.println(">> Student Discount Applied (-20%)");
+        announce();
         return basePrice * 0.80;
     }
+
+    /**
+     * Returns the discount added on top of the promotions: none, as the student discount is itself a promotion
+     * (see {@link DiscountPlan#DEFAULT}).
+     *
+     * @return 0 (percent).
+     */
+    @Override
+    public int getDiscountPercent() {
+        return 0;
+    }
+
+    /**
+     * Marks the customer as a verified student.
+     *
+     * @return {@code true}.
+     */
+    @Override
+    public boolean isStudent() {
+        return true;
+    }
+
+    /**
+     * Logs the student discount confirmation to the console.
+     */
+    @Override
+    public void announce() {
+        LOG.log(EventLog.Level.INFO, ">> Student Discount Applied (-20%)");
+    }
 }
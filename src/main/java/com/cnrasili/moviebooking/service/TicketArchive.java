@@ -0,0 +1,253 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.Ticket;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, on-disk archive of tickets for finished showtimes.
+ * <p>
+ * The {@link ShowTimeArchiver} moves tickets here once their session is over, so they no longer occupy
+ * {@link CinemaSystem#soldTickets}. Each ticket is stored as one record framed like the {@link BookingJournal}:
+ * {@code [int length][int CRC-32][payload]}, with the same payload as a journaled sale.
+ * <br>
+ * Only the file offset of each record is kept in memory, keyed by PNR. {@link #find(String)} reads and decodes
+ * the record on demand, so archived tickets stay reachable through {@link CinemaSystem#searchTicketByPNR(String)},
+ * just more slowly than active ones.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+public class TicketArchive implements Closeable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Map<String, Long> offsets = new ConcurrentHashMap<>();
+    private long end;
+
+    private TicketArchive(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens (or creates) an archive file and indexes the tickets it holds.
+     * <p>
+     * A torn record at the end of the file (e.g., after a crash mid-write) is cut off. Its ticket is still in
+     * the {@link BookingJournal}, since a ticket is only journaled as archived once its record is durable here.
+     * </p>
+     *
+     * @param file The archive file.
+     * @return The open archive.
+     * @throws IOException If the file can't be read or opened for writing.
+     */
+    public static TicketArchive open(Path file) throws IOException {
+        return open(file, UnaryOperator.identity());
+    }
+
+    /**
+     * Opens an archive whose channel is passed through {@code channels} first (e.g., to inject write failures
+     * in tests).
+     */
+    static TicketArchive open(Path file, UnaryOperator<FileChannel> channels) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        TicketArchive archive = new TicketArchive(file, channels.apply(channel));
+        try {
+            archive.index();
+        } catch (IOException e) {
+            archive.channel.close();
+            throw e;
+        }
+        return archive;
+    }
+
+    /**
+     * Appends tickets to the archive and forces them to disk.
+     * <p>
+     * A batch starts where the last durable record ends, so the part of a failed batch that did reach the file
+     * is cut off or overwritten rather than left in front of later records, where {@link #open(Path)} would
+     * never read past it.
+     * </p>
+     *
+     * @param tickets The tickets to archive.
+     * @throws IOException If the tickets can't be written; none of them is then indexed.
+     */
+    public synchronized void append(Collection<Ticket> tickets) throws IOException {
+        ByteBuffer[] frames = new ByteBuffer[tickets.size()];
+        String[] pnrs = new String[tickets.size()];
+        int i = 0;
+        for (Ticket ticket : tickets) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            JournalSnapshot.writeTicketSold(new DataOutputStream(bytes), ticket);
+            byte[] payload = bytes.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            frames[i] = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+            frames[i].putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+            pnrs[i] = ticket.getPnrCode();
+            i++;
+        }
+
+        long position = end;
+        long[] recordOffsets = new long[frames.length];
+        long total = 0;
+        for (i = 0; i < frames.length; i++) {
+            recordOffsets[i] = position + total;
+            total += frames[i].remaining();
+        }
+        try {
+            channel.position(position);
+            long written = 0;
+            while (written < total) {
+                written += channel.write(frames);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            discardFrom(position);
+            throw e;
+        }
+        end = position + total;
+
+        for (i = 0; i < pnrs.length; i++) {
+            offsets.put(pnrs[i], recordOffsets[i]);
+        }
+    }
+
+    /**
+     * Reads an archived ticket from disk.
+     * <p>
+     * The returned ticket is a detached copy: its session is rebuilt from the archive (see
+     * {@link JournalSnapshot#readTicket(byte[])}) and is not registered in {@link CinemaSystem#activeShowTimes}.
+     * </p>
+     *
+     * @param pnrCode The PNR code to look up.
+     * @return The archived ticket, or {@code null} if no ticket with this PNR has been archived.
+     */
+    public Ticket find(String pnrCode) {
+        Long offset = pnrCode == null ? null : offsets.get(pnrCode);
+        if (offset == null) {
+            return null;
+        }
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(header, offset);
+            header.flip();
+            ByteBuffer payload = ByteBuffer.allocate(header.getInt());
+            readFully(payload, offset + HEADER_BYTES);
+            return JournalSnapshot.readTicket(payload.array());
+        } catch (IOException e) {
+            System.err.println("ERROR: Failed to read archived ticket " + pnrCode + ". " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether a ticket with the given PNR has been archived, without reading it.
+     *
+     * @param pnrCode The PNR code to check.
+     * @return {@code true} if the PNR is archived.
+     */
+    public boolean contains(String pnrCode) {
+        return pnrCode != null && offsets.containsKey(pnrCode);
+    }
+
+    /**
+     * Returns the number of archived tickets.
+     *
+     * @return The ticket count.
+     */
+    public int size() {
+        return offsets.size();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Cuts off whatever part of a failed batch reached the file. If that fails as well, the next batch still
+     * starts at {@code start} and overwrites it.
+     */
+    private void discardFrom(long start) {
+        try {
+            channel.truncate(start);
+        } catch (IOException e) {
+            System.err.println("ERROR: Failed to cut off the failed batch in " + file + ". " + e.getMessage());
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Archive " + file + " ends inside a record.");
+            }
+        }
+    }
+
+    /**
+     * Records the offset of every valid record and cuts off a torn tail.
+     */
+    private void index() throws IOException {
+        long validEnd = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            DataInputStream data = new DataInputStream(in);
+            while (true) {
+                byte[] payload;
+                try {
+                    int length = data.readInt();
+                    int checksum = data.readInt();
+                    if (length < 1 || length > MAX_RECORD_BYTES) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    data.readFully(payload);
+                    CRC32 crc = new CRC32();
+                    crc.update(payload);
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                // The payload is a journaled sale: type byte, then the PNR
+                String pnr = new DataInputStream(new ByteArrayInputStream(payload, 1, payload.length - 1)).readUTF();
+                offsets.put(pnr, validEnd);
+                validEnd += HEADER_BYTES + payload.length;
+            }
+        }
+
+        if (validEnd < channel.size()) {
+            System.err.println("WARNING: Discarding " + (channel.size() - validEnd) + " bytes of incomplete records at the end of " + file);
+            channel.truncate(validEnd);
+        }
+        end = validEnd;
+    }
+}
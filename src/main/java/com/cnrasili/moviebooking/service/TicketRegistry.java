@@ -0,0 +1,104 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.Ticket;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PNR-keyed registry of all sold tickets.
+ * <p>
+ * Replaces the plain list previously used by {@link CinemaSystem#soldTickets}. Tickets are stored in a hash map
+ * keyed by their PNR code, so looking up a ticket during a refund or removing it afterwards is a constant-time
+ * operation instead of a scan over every ticket ever sold.
+ * <br>
+ * The registry still behaves like a regular {@link java.util.Collection} (iteration, {@code stream()},
+ * {@code clear()}), so reporting code and tests can keep treating it as a list of tickets.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+public class TicketRegistry extends AbstractCollection<Ticket> {
+
+    private final Map<String, Ticket> ticketsByPnr = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a ticket under its PNR code.
+     * <p>
+     * Duplicate PNRs are rejected at insert time: if another ticket is already registered with the same PNR,
+     * the registry is left untouched and {@code false} is returned so the caller can issue a new code.
+     * </p>
+     *
+     * @param ticket The ticket to register.
+     * @return {@code true} if the ticket was registered; {@code false} if its PNR is already taken.
+     */
+    @Override
+    public boolean add(Ticket ticket) {
+        return ticketsByPnr.putIfAbsent(ticket.getPnrCode(), ticket) == null;
+    }
+
+    /**
+     * Finds the ticket registered under the given PNR code.
+     *
+     * @param pnrCode The PNR code to look up.
+     * @return The matching {@link Ticket}, or {@code null} if no ticket is registered with this code.
+     */
+    public Ticket get(String pnrCode) {
+        return pnrCode == null ? null : ticketsByPnr.get(pnrCode);
+    }
+
+    /**
+     * Checks whether a ticket is registered under the given PNR code.
+     *
+     * @param pnrCode The PNR code to check.
+     * @return {@code true} if the code is already in use.
+     */
+    public boolean containsPnr(String pnrCode) {
+        return pnrCode != null && ticketsByPnr.containsKey(pnrCode);
+    }
+
+    /**
+     * Removes the given ticket from the registry.
+     * <p>
+     * The ticket is only removed if it is the one currently registered under its PNR code.
+     * </p>
+     *
+     * @param o The ticket to remove.
+     * @return {@code true} if the ticket was registered and has been removed.
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Ticket)) {
+            return false;
+        }
+        Ticket ticket = (Ticket) o;
+        return ticketsByPnr.remove(ticket.getPnrCode(), ticket);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Ticket)) {
+            return false;
+        }
+        Ticket ticket = (Ticket) o;
+        return ticketsByPnr.get(ticket.getPnrCode()) == ticket;
+    }
+
+    @Override
+    public Iterator<Ticket> iterator() {
+        return ticketsByPnr.values().iterator();
+    }
+
+    @Override
+    public int size() {
+        return ticketsByPnr.size();
+    }
+
+    @Override
+    public void clear() {
+        ticketsByPnr.clear();
+    }
+}
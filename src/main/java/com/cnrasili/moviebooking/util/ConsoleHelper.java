@@ -26,7 +26,8 @@ public class ConsoleHelper {
     /**
      * Prints the visual seating map of a specific showtime to the console.
      * <p>
-     * Displays a "SCREEN" header and iterates through rows and columns.
+     * Displays a "SCREEN" header and iterates through rows and the seats actually present in each row,
+     * so rendering the map is linear in the number of seats.
      * Uses formatted output (printf) to align seats perfectly.
      * <ul>
      * <li>Standard Seats are shown as 5-character boxes (e.g., [ 1 ] or [ X ]).</li>
@@ -39,7 +40,6 @@ public class ConsoleHelper {
     public static void printSeatMap(ShowTime showTime) {
         CinemaHall hall = showTime.getHall();
         int totalRows = hall.getTotalRows();
-        int totalCols = hall.getTotalCols();
 
         System.out.println("\n      ================ SCREEN =================");
 
@@ -47,26 +47,24 @@ public class ConsoleHelper {
 
             System.out.printf("Row %-2d: ", row);
 
-            for (int col = 1; col <= totalCols; col++) {
+            int seatsInRow = hall.getSeatsInRow(row);
+            for (int col = 1; col <= seatsInRow; col++) {
                 Seat seat = showTime.getSeat(row, col);
 
-                if (seat != null) {
+                boolean isLoveSeat = seat instanceof LoveSeat;
+                int width = isLoveSeat ? 9 : 5;
 
-                    boolean isLoveSeat = seat instanceof LoveSeat;
-                    int width = isLoveSeat ? 9 : 5;
+                String content;
 
-                    String content;
-
-                    if (seat.getStatus() == SeatStatus.BOOKED) {
-                        content = isLoveSeat ? "X X" : "X";
-                    } else {
-                        content = String.valueOf(seat.getNumber());
-                    }
+                if (!seat.isAvailable()) {
+                    content = isLoveSeat ? "X X" : "X";
+                } else {
+                    content = String.valueOf(seat.getNumber());
+                }
 
-                    String fmt = "[%-" + (width - 2) + "s] ";
+                String fmt = "[%-" + (width - 2) + "s] ";
 
-                    System.out.printf(fmt, padCenter(content, width - 2));
-                }
+                System.out.printf(fmt, padCenter(content, width - 2));
             }
             System.out.println();
         }
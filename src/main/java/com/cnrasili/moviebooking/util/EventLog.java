@@ -0,0 +1,305 @@
+package com.cnrasili.moviebooking.util;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous event log: callers enqueue events into a ring buffer, and a background thread writes them out.
+ * <p>
+ * Logging on the booking path used to be a {@code System.out.println}, i.e. a synchronized, blocking console write
+ * in the middle of every checkout. With this log, a call only claims a slot of a preallocated ring buffer with a
+ * compare-and-set, fills it and publishes it; the "event-log-writer" thread formats and prints the events in the
+ * order they were claimed.
+ * <br>
+ * Events carry a {@link Level}, a message and up to two named fields. The message may refer to a field as
+ * {@code {name}}. Two formats are available:
+ * <ul>
+ * <li><b>Console</b> (default): the message with its fields filled in, exactly as the application used to print
+ * it. {@link Level#WARN} and {@link Level#ERROR} events go to {@code System.err} with a {@code WARNING:} or
+ * {@code ERROR:} prefix.</li>
+ * <li><b>Structured</b>: one line per event with timestamp, level, message and every field as
+ * {@code name=value}.</li>
+ * </ul>
+ * The streams are looked up when an event is written, so redirecting {@code System.out} also redirects the log.
+ * <br>
+ * If the buffer is full, new events are dropped (and counted) rather than blocking the caller. Events below the
+ * minimum level are discarded before they reach the buffer. Call {@link #flush()} before printing something that
+ * must appear after the logged events (e.g., a ticket after its payment confirmation).
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+public final class EventLog {
+
+    /** Severity of an event. */
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+    private static final EventLog CONSOLE = new EventLog(DEFAULT_CAPACITY);
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long head;
+    private volatile Level minimumLevel = Level.INFO;
+    private volatile boolean structured;
+    private volatile Thread writer;
+
+    /**
+     * Constructs a log with its own buffer and writer thread.
+     *
+     * @param capacity The number of events the buffer holds; rounded up to a power of two.
+     */
+    public EventLog(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.slots = new Slot[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot(i);
+        }
+    }
+
+    /**
+     * Returns the application-wide log, writing to the console.
+     *
+     * @return The shared log.
+     */
+    public static EventLog console() {
+        return CONSOLE;
+    }
+
+    /**
+     * Logs an event without fields.
+     *
+     * @param level   The severity.
+     * @param message The message.
+     */
+    public void log(Level level, String message) {
+        log(level, message, null, null, null, null);
+    }
+
+    /**
+     * Logs an event with one field.
+     *
+     * @param level   The severity.
+     * @param message The message, possibly referring to the field as {@code {key}}.
+     * @param key     The field name.
+     * @param value   The field value.
+     */
+    public void log(Level level, String message, String key, Object value) {
+        log(level, message, key, value, null, null);
+    }
+
+    /**
+     * Logs an event with two fields.
+     *
+     * @param level   The severity.
+     * @param message The message, possibly referring to the fields as {@code {key1}} and {@code {key2}}.
+     * @param key1    The first field name.
+     * @param value1  The first field value.
+     * @param key2    The second field name.
+     * @param value2  The second field value.
+     */
+    public void log(Level level, String message, String key1, Object value1, String key2, Object value2) {
+        if (level.compareTo(minimumLevel) < 0) {
+            return;
+        }
+        long position;
+        Slot slot;
+        while (true) {
+            position = tail.get();
+            slot = slots[(int) (position & mask)];
+            long difference = slot.sequence - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                dropped.incrementAndGet();
+                return;
+            }
+        }
+        slot.time = System.currentTimeMillis();
+        slot.level = level;
+        slot.message = message;
+        slot.key1 = key1;
+        slot.value1 = value1;
+        slot.key2 = key2;
+        slot.value2 = value2;
+        slot.sequence = position + 1;
+        startWriter();
+    }
+
+    /**
+     * Checks whether events of a level are logged, e.g. to skip computing expensive field values.
+     *
+     * @param level The severity.
+     * @return {@code true} if events of this level reach the buffer.
+     */
+    public boolean isEnabled(Level level) {
+        return level.compareTo(minimumLevel) >= 0;
+    }
+
+    /**
+     * Sets the lowest level that is logged; events below it are discarded by the caller.
+     *
+     * @param level The minimum severity.
+     */
+    public void setMinimumLevel(Level level) {
+        this.minimumLevel = level;
+    }
+
+    /**
+     * Switches between the console format and the structured {@code name=value} format.
+     *
+     * @param structured {@code true} for the structured format.
+     */
+    public void setStructured(boolean structured) {
+        this.structured = structured;
+    }
+
+    /**
+     * Returns the number of events dropped because the buffer was full.
+     *
+     * @return The dropped event count.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Waits until every event logged before this call has been written.
+     */
+    public void flush() {
+        long target = tail.get();
+        while (head < target && writer != null) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS / 10);
+        }
+    }
+
+    private void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        synchronized (this) {
+            if (writer == null) {
+                Thread thread = new Thread(this::drain, "event-log-writer");
+                thread.setDaemon(true);
+                thread.start();
+                writer = thread;
+            }
+        }
+    }
+
+    private void drain() {
+        StringBuilder line = new StringBuilder(128);
+        long reportedDrops = 0;
+        while (true) {
+            long position = head;
+            Slot slot = slots[(int) (position & mask)];
+            if (slot.sequence != position + 1) {
+                long drops = dropped.get();
+                if (drops != reportedDrops) {
+                    System.err.println("WARNING: " + (drops - reportedDrops) + " log events were dropped (buffer full).");
+                    reportedDrops = drops;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            line.setLength(0);
+            Level level = slot.level;
+            try {
+                format(line, slot);
+            } catch (RuntimeException e) {
+                line.append("(unprintable event: ").append(e).append(')');
+            }
+            slot.message = null;
+            slot.key1 = null;
+            slot.value1 = null;
+            slot.key2 = null;
+            slot.value2 = null;
+            slot.sequence = position + slots.length;
+
+            PrintStream out = level.compareTo(Level.WARN) >= 0 ? System.err : System.out;
+            out.println(line);
+            // Only advanced once the line is out, so flush() never returns before the event has been written
+            head = position + 1;
+        }
+    }
+
+    private void format(StringBuilder line, Slot slot) {
+        if (structured) {
+            line.append(LocalDateTime.ofInstant(Instant.ofEpochMilli(slot.time), ZoneId.systemDefault()))
+                    .append(' ').append(slot.level).append(' ');
+            appendMessage(line, slot);
+            appendField(line, slot.key1, slot.value1);
+            appendField(line, slot.key2, slot.value2);
+            return;
+        }
+        if (slot.level == Level.WARN) {
+            line.append("WARNING: ");
+        } else if (slot.level == Level.ERROR) {
+            line.append("ERROR: ");
+        }
+        appendMessage(line, slot);
+    }
+
+    private static void appendField(StringBuilder line, String key, Object value) {
+        if (key != null) {
+            line.append(' ').append(key).append('=').append(value);
+        }
+    }
+
+    /**
+     * Appends the message, replacing {@code {key}} references with the field values.
+     */
+    private static void appendMessage(StringBuilder line, Slot slot) {
+        String message = slot.message;
+        int start = 0;
+        int open;
+        while ((open = message.indexOf('{', start)) >= 0) {
+            int close = message.indexOf('}', open);
+            if (close < 0) {
+                break;
+            }
+            line.append(message, start, open);
+            String name = message.substring(open + 1, close);
+            if (name.equals(slot.key1)) {
+                line.append(slot.value1);
+            } else if (name.equals(slot.key2)) {
+                line.append(slot.value2);
+            } else {
+                line.append(message, open, close + 1);
+            }
+            start = close + 1;
+        }
+        line.append(message, start, message.length());
+    }
+
+    /**
+     * One buffer entry. {@code sequence} tells who owns it: {@code position} when a producer may claim it for that
+     * position, {@code position + 1} once the event is published for the writer.
+     */
+    private static final class Slot {
+        volatile long sequence;
+        long time;
+        Level level;
+        String message;
+        String key1;
+        Object value1;
+        String key2;
+        Object value2;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
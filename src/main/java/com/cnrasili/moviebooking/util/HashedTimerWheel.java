@@ -0,0 +1,274 @@
+package com.cnrasili.moviebooking.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel for large numbers of short-lived timeouts (e.g., seat holds).
+ * <p>
+ * Time is divided into ticks of a fixed duration. The wheel is a ring of buckets; a timeout is placed in the bucket
+ * of the tick in which it expires, together with the number of full wheel rotations that must pass first.
+ * A single background thread advances one bucket per tick and fires the timeouts that are due.
+ * <br>
+ * Costs:
+ * <ul>
+ * <li><b>Scheduling:</b> O(1) &mdash; the timeout is appended to a lock-free queue and moved into its bucket by
+ * the worker on the next tick.</li>
+ * <li><b>Cancelling:</b> O(1) &mdash; the timeout is only flagged; the worker unlinks it when it reaches the
+ * bucket.</li>
+ * <li><b>Expiring:</b> each tick only visits one bucket, never the whole set of timeouts.</li>
+ * </ul>
+ * Timeouts never fire early; they fire at most one tick late. The expiry handler runs on the wheel's worker
+ * thread and should therefore be short.
+ * </p>
+ *
+ * @param <T> The type of payload attached to each timeout.
+ * @author cnrasili
+ * @version 1.1
+ */
+public class HashedTimerWheel<T> {
+
+    /** Maximum number of newly scheduled timeouts moved into buckets per tick, to keep ticks short. */
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final int mask;
+    private final Bucket<T>[] wheel;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final Consumer<T> onExpiry;
+    private final String threadName;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final long startNanos = System.nanoTime();
+    private volatile Thread worker;
+
+    /** The tick currently being processed. Only accessed by the worker thread. */
+    private long tick;
+
+    /**
+     * Constructs a timer wheel. The worker thread is started lazily on the first {@link #schedule}.
+     *
+     * @param tickDuration The duration of one tick (the timing resolution).
+     * @param unit         The unit of {@code tickDuration}.
+     * @param wheelSize    The number of buckets; rounded up to a power of two.
+     * @param onExpiry     Called with the payload of every timeout that expires without being cancelled.
+     * @param threadName   The name of the worker thread.
+     */
+    public HashedTimerWheel(long tickDuration, TimeUnit unit, int wheelSize, Consumer<T> onExpiry, String threadName) {
+        if (tickDuration <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive.");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        size = Math.max(size, 1);
+        this.mask = size - 1;
+        this.wheel = newWheel(size);
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket<>();
+        }
+        this.onExpiry = onExpiry;
+        this.threadName = threadName;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Bucket<T>[] newWheel(int size) {
+        // Generic arrays can't be created directly; every slot is filled with a Bucket<T> right after
+        return (Bucket<T>[]) new Bucket<?>[size];
+    }
+
+    /**
+     * Schedules a timeout.
+     *
+     * @param payload The payload handed to the expiry handler.
+     * @param delay   The delay after which the timeout expires.
+     * @param unit    The unit of {@code delay}.
+     * @return A handle that can be used to cancel the timeout.
+     */
+    public Timeout<T> schedule(T payload, long delay, TimeUnit unit) {
+        ensureStarted();
+        long deadline = System.nanoTime() - startNanos + unit.toNanos(Math.max(0, delay));
+        Timeout<T> timeout = new Timeout<>(payload, deadline);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stops the worker thread. Pending timeouts are discarded without firing.
+     */
+    public void stop() {
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void ensureStarted() {
+        if (started.compareAndSet(false, true)) {
+            Thread thread = new Thread(this::run, threadName);
+            thread.setDaemon(true);
+            worker = thread;
+            thread.start();
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            long now = waitForNextTick();
+            if (now < 0) {
+                return;
+            }
+            transferPending();
+            wheel[(int) (tick & mask)].expire(now, onExpiry);
+            tick++;
+        }
+    }
+
+    /**
+     * Sleeps until the end of the current tick.
+     *
+     * @return The elapsed time since the wheel was created, or {@code -1} if the worker was interrupted.
+     */
+    private long waitForNextTick() {
+        long tickEnd = tickNanos * (tick + 1);
+        while (true) {
+            long now = System.nanoTime() - startNanos;
+            long sleepNanos = tickEnd - now;
+            if (sleepNanos <= 0) {
+                return now;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                return -1;
+            }
+        }
+    }
+
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout<T> timeout = pending.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long expiryTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (expiryTick - tick) / wheel.length;
+            // Timeouts already due go into the current bucket and fire on this tick
+            long targetTick = Math.max(expiryTick, tick);
+            wheel[(int) (targetTick & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Handle for a scheduled timeout.
+     *
+     * @param <T> The payload type.
+     */
+    public static final class Timeout<T> {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final T payload;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        // Bucket bookkeeping, only touched by the worker thread
+        private long remainingRounds;
+        private Timeout<T> next;
+        private Timeout<T> prev;
+
+        private Timeout(T payload, long deadline) {
+            this.payload = payload;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the timeout so that it never fires.
+         *
+         * @return {@code true} if the timeout was cancelled; {@code false} if it had already fired or been cancelled.
+         */
+        public boolean cancel() {
+            return state.compareAndSet(PENDING, CANCELLED);
+        }
+
+        /**
+         * Checks whether the timeout has been cancelled.
+         *
+         * @return {@code true} if {@link #cancel()} succeeded.
+         */
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        /**
+         * Returns the payload attached to this timeout.
+         *
+         * @return The payload.
+         */
+        public T getPayload() {
+            return payload;
+        }
+
+        private boolean markExpired() {
+            return state.compareAndSet(PENDING, EXPIRED);
+        }
+    }
+
+    /**
+     * Doubly linked list of the timeouts hashed to one slot of the wheel. Only used by the worker thread.
+     */
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void add(Timeout<T> timeout) {
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void expire(long now, Consumer<T> onExpiry) {
+            Timeout<T> timeout = head;
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0 && timeout.deadline <= now) {
+                    remove(timeout);
+                    if (timeout.markExpired()) {
+                        onExpiry.accept(timeout.payload);
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(Timeout<T> timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.cnrasili.moviebooking.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with log-linear buckets (as in HdrHistogram), safe to record into from many threads.
+ * <p>
+ * Values from 0 to 15 ns each have their own bucket. Above that, every power of two is split into 16 equal
+ * buckets, so a recorded value is off by at most 1/16 (about 6%) whatever its magnitude. Values beyond
+ * 2<sup>40</sup> ns (about 18 minutes) fall into the last bucket; the exact maximum is kept separately.
+ * <br>
+ * Recording is lock-free: one atomic increment of the bucket, one of the sum and, for a new maximum, a
+ * compare-and-set. The histogram has a fixed size of {@value #BUCKET_COUNT} counters, whatever the number of
+ * samples. {@link #snapshot()} copies the counters, so percentiles are computed without stopping writers.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one latency sample.
+     *
+     * @param nanos The measured latency in nanoseconds; negative values count as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets.incrementAndGet(bucketOf(value));
+        sum.add(value);
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Copies the current state of the histogram.
+     *
+     * @return A snapshot that is no longer affected by new samples.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        return new Snapshot(counts, count, sum.sum(), max.get());
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the largest value falling into a bucket.
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (subBucket + 1) * width - 1;
+    }
+
+    /**
+     * Immutable copy of a histogram. Snapshots of several histograms can be merged, e.g. to add up branches.
+     */
+    public static final class Snapshot {
+
+        /** A snapshot without samples. */
+        public static final Snapshot EMPTY = new Snapshot(new long[BUCKET_COUNT], 0, 0, 0);
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Returns the mean of the recorded samples.
+         *
+         * @return The mean in nanoseconds, or {@code 0} if there are no samples.
+         */
+        public double getMean() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+
+        /**
+         * Returns the value at the given percentile, rounded up to the end of its bucket.
+         *
+         * @param percentile The percentile, between {@code 0} and {@code 100}.
+         * @return The value in nanoseconds (never above {@link #getMax()}), or {@code 0} if there are no samples.
+         */
+        public long valueAt(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Adds up this snapshot and another one.
+         *
+         * @param other The snapshot to add.
+         * @return A new snapshot holding the samples of both.
+         */
+        public Snapshot merge(Snapshot other) {
+            long[] merged = new long[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                merged[i] = counts[i] + other.counts[i];
+            }
+            return new Snapshot(merged, count + other.count, sum + other.sum, Math.max(max, other.max));
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.cnrasili.moviebooking.util;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streaming reader for simple comma-separated files, parsing straight from a memory-mapped buffer.
+ * <p>
+ * Unlike {@code BufferedReader.readLine()} followed by {@code String.split(",")}, the reader does not create a
+ * {@code String} per line or an array per row. Each row is exposed as a {@link Row} view holding field offsets
+ * into the mapped file; numbers are parsed directly from the bytes, and text fields are only decoded when the
+ * handler asks for them.
+ * <ul>
+ * <li>Fields are separated by commas and trimmed of surrounding spaces and tabs. Quoting is not supported.</li>
+ * <li>Lines may end with {@code \n} or {@code \r\n}. Blank lines and a leading UTF-8 byte order mark are ignored.</li>
+ * <li>Text is decoded as UTF-8.</li>
+ * </ul>
+ * A row the handler rejects with an {@link IllegalArgumentException} (e.g., a {@link NumberFormatException} or
+ * an unknown enum constant) is skipped and counted, and reading continues with the next line.
+ * <br>
+ * Files larger than {@value #MAX_REGION_BYTES} bytes are mapped in consecutive regions that end on a line
+ * boundary.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+public final class MappedCsvReader {
+
+    private static final int MAX_REGION_BYTES = 256 * 1024 * 1024;
+
+    private MappedCsvReader() {
+    }
+
+    /**
+     * Handles one parsed row.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * Consumes a row. The row view is only valid during this call.
+         *
+         * @param row The row.
+         * @throws IllegalArgumentException If the row is malformed; the row is then skipped and counted.
+         */
+        void accept(Row row);
+    }
+
+    /**
+     * Reads every row of a file.
+     *
+     * @param file    The CSV file.
+     * @param handler Called once per non-blank row, in file order.
+     * @return How many rows were accepted and skipped.
+     * @throws IOException If the file can't be read, or contains a line longer than the mapping region.
+     */
+    public static Result read(Path file, RowHandler handler) throws IOException {
+        Result result = new Result();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            int lineNumber = 0;
+            boolean firstRegion = true;
+
+            while (position < size) {
+                int length = (int) Math.min(MAX_REGION_BYTES, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean lastRegion = position + length == size;
+
+                int start = 0;
+                if (firstRegion && length >= 3 && (buffer.get(0) & 0xFF) == 0xEF
+                        && (buffer.get(1) & 0xFF) == 0xBB && (buffer.get(2) & 0xFF) == 0xBF) {
+                    start = 3;
+                }
+                firstRegion = false;
+
+                Row row = new Row(buffer);
+                while (start < length) {
+                    int end = start;
+                    while (end < length && buffer.get(end) != '\n') {
+                        end++;
+                    }
+                    if (end == length && !lastRegion) {
+                        break;
+                    }
+                    lineNumber++;
+                    if (row.parse(start, end, lineNumber)) {
+                        try {
+                            handler.accept(row);
+                            result.rows++;
+                        } catch (IllegalArgumentException e) {
+                            result.skip(lineNumber, e);
+                        }
+                    }
+                    start = end + 1;
+                }
+
+                if (start == 0 && !lastRegion) {
+                    throw new IOException("Line " + (lineNumber + 1) + " of " + file + " is longer than " + MAX_REGION_BYTES + " bytes.");
+                }
+                position += Math.min(start, length);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A view of one row. Field indexes start at 0.
+     */
+    public static final class Row {
+        private final MappedByteBuffer buffer;
+        private int[] starts = new int[8];
+        private int[] ends = new int[8];
+        private int fieldCount;
+        private int lineNumber;
+        private byte[] scratch = new byte[64];
+
+        private Row(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Splits the line {@code [start, end)} into trimmed fields.
+         *
+         * @return {@code false} if the line is blank.
+         */
+        private boolean parse(int start, int end, int lineNumber) {
+            this.lineNumber = lineNumber;
+            fieldCount = 0;
+            boolean blank = true;
+            int fieldStart = start;
+            for (int i = start; i <= end; i++) {
+                byte b = i < end ? buffer.get(i) : (byte) ',';
+                if (b == ',') {
+                    addField(fieldStart, i);
+                    fieldStart = i + 1;
+                } else if (!isBlank(b)) {
+                    blank = false;
+                }
+            }
+            return !blank;
+        }
+
+        private void addField(int start, int end) {
+            while (start < end && isBlank(buffer.get(start))) {
+                start++;
+            }
+            while (end > start && isBlank(buffer.get(end - 1))) {
+                end--;
+            }
+            if (fieldCount == starts.length) {
+                starts = Arrays.copyOf(starts, fieldCount * 2);
+                ends = Arrays.copyOf(ends, fieldCount * 2);
+            }
+            starts[fieldCount] = start;
+            ends[fieldCount] = end;
+            fieldCount++;
+        }
+
+        private static boolean isBlank(byte b) {
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public int getFieldCount() {
+            return fieldCount;
+        }
+
+        /**
+         * Checks that the row has at least the given number of fields.
+         *
+         * @param count The required field count.
+         * @throws IllegalArgumentException If the row is shorter.
+         */
+        public void requireFields(int count) {
+            if (fieldCount < count) {
+                throw new IllegalArgumentException("Expected " + count + " fields but found " + fieldCount);
+            }
+        }
+
+        /**
+         * Decodes a field as text.
+         *
+         * @param field The field index.
+         * @return The trimmed field value.
+         */
+        public String getString(int field) {
+            int start = start(field);
+            int length = ends[field] - start;
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(start, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Parses a field as a decimal integer.
+         *
+         * @param field The field index.
+         * @return The value.
+         * @throws NumberFormatException If the field is not a valid {@code int}.
+         */
+        public int getInt(int field) {
+            long value = getLong(field);
+            if (value != (int) value) {
+                throw new NumberFormatException("Value out of range for an int: " + value);
+            }
+            return (int) value;
+        }
+
+        /**
+         * Parses a field as a decimal integer.
+         *
+         * @param field The field index.
+         * @return The value.
+         * @throws NumberFormatException If the field is not a valid {@code long}.
+         */
+        public long getLong(int field) {
+            int i = start(field);
+            int end = ends[field];
+            boolean negative = i < end && buffer.get(i) == '-';
+            if (i < end && (negative || buffer.get(i) == '+')) {
+                i++;
+            }
+            if (i == end) {
+                throw new NumberFormatException("Not a number: \"" + getString(field) + "\"");
+            }
+            long value = 0;
+            for (; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                    throw new NumberFormatException("Not a valid number: \"" + getString(field) + "\"");
+                }
+                value = value * 10 + digit;
+            }
+            return negative ? -value : value;
+        }
+
+        /**
+         * Parses a field as a decimal number.
+         * <p>
+         * Plain decimals with up to 15 significant digits (e.g., {@code 5000.0}) are parsed directly from the
+         * bytes, with the same result as {@link Double#parseDouble(String)}; anything else (exponents, longer
+         * mantissas) falls back to it.
+         * </p>
+         *
+         * @param field The field index.
+         * @return The value.
+         * @throws NumberFormatException If the field is not a valid number.
+         */
+        public double getDouble(int field) {
+            int i = start(field);
+            int end = ends[field];
+            boolean negative = i < end && buffer.get(i) == '-';
+            if (i < end && (negative || buffer.get(i) == '+')) {
+                i++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int fractionDigits = 0;
+            boolean point = false;
+            boolean anyDigit = false;
+            for (; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b == '.' && !point) {
+                    point = true;
+                } else if (b >= '0' && b <= '9' && digits < 15 && fractionDigits < POWERS_OF_TEN.length - 1) {
+                    anyDigit = true;
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    if (point) {
+                        fractionDigits++;
+                    }
+                } else {
+                    return Double.parseDouble(getString(field));
+                }
+            }
+            if (!anyDigit) {
+                throw new NumberFormatException("Not a number: \"" + getString(field) + "\"");
+            }
+            // Both operands are exact doubles, so the division is correctly rounded
+            double value = fractionDigits == 0 ? mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+
+        private int start(int field) {
+            if (field < 0 || field >= fieldCount) {
+                throw new IllegalArgumentException("Line " + lineNumber + " has no field " + field);
+            }
+            return starts[field];
+        }
+
+        private static final double[] POWERS_OF_TEN = {
+                1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+                1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+    }
+
+    /**
+     * The outcome of reading a file.
+     */
+    public static final class Result {
+        private int rows;
+        private int skippedRows;
+        private int firstSkippedLine;
+        private String firstError;
+
+        private void skip(int lineNumber, IllegalArgumentException e) {
+            if (skippedRows++ == 0) {
+                firstSkippedLine = lineNumber;
+                firstError = e.getMessage();
+            }
+        }
+
+        /**
+         * @return The number of rows the handler accepted.
+         */
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * @return The number of malformed rows that were skipped.
+         */
+        public int getSkippedRows() {
+            return skippedRows;
+        }
+
+        /**
+         * @return The line number of the first skipped row, or 0 if none was skipped.
+         */
+        public int getFirstSkippedLine() {
+            return firstSkippedLine;
+        }
+
+        /**
+         * @return The reason the first skipped row was rejected, or {@code null} if none was skipped.
+         */
+        public String getFirstError() {
+            return firstError;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.cnrasili.moviebooking.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link BestSeatFinder} class.
+ * <p>
+ * Uses a 5x8 {@link StandardHall}: rows 1-4 hold 8 standard seats, row 5 holds 4 LoveSeats.
+ * The middle row is row 3.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+class BestSeatFinderTest {
+
+    private ShowTime showTime;
+
+    @BeforeEach
+    void setUp() {
+        Movie movie = new Movie2D("Test Movie", 120, 100.0, Genre.ACTION, AgeRating.GENERAL_AUDIENCE);
+        showTime = new ShowTime(LocalDateTime.now().plusDays(1), movie, new StandardHall("Test Hall", 5, 8));
+    }
+
+    /**
+     * Verifies that an empty hall seats the party in the middle of the middle row.
+     */
+    @Test
+    void testFindBestSeats_CenterOfEmptyHall() {
+        List<Seat> seats = showTime.findBestSeats(4);
+
+        assertEquals(4, seats.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(3, seats.get(i).getRow());
+            assertEquals(3 + i, seats.get(i).getNumber());
+        }
+    }
+
+    /**
+     * Verifies that occupied seats break up blocks, and that the next best row is used when the middle row
+     * has no run long enough.
+     */
+    @Test
+    void testFindBestSeats_SkipsOccupiedSeats() {
+        showTime.getSeat(3, 3).reserve();
+        showTime.getSeat(3, 6).reserve();
+
+        List<Seat> seats = showTime.findBestSeats(3);
+
+        assertEquals(3, seats.size());
+        assertEquals(2, seats.get(0).getRow(), "Row 3 has no run of three; the front neighbour row wins the tie");
+        assertEquals(3, seats.get(0).getNumber());
+        for (Seat seat : seats) {
+            assertTrue(seat.isAvailable());
+        }
+    }
+
+    /**
+     * Verifies that LoveSeats are only used whole: a couple can take one, an odd party never does.
+     */
+    @Test
+    void testFindBestSeats_RespectsLoveSeatPairs() {
+        for (int row = 1; row <= 4; row++) {
+            for (int number = 1; number <= 8; number++) {
+                showTime.getSeat(row, number).reserve();
+            }
+        }
+
+        List<Seat> couple = showTime.findBestSeats(2);
+        assertEquals(1, couple.size(), "A couple fits in a single LoveSeat");
+        assertTrue(couple.get(0) instanceof LoveSeat);
+
+        assertTrue(showTime.findBestSeats(3).isEmpty(), "An odd party can't split a LoveSeat");
+    }
+
+    /**
+     * Verifies that the search reports no result when the hall is full.
+     */
+    @Test
+    void testFindBestSeats_FullHall() {
+        for (Seat seat : showTime.getSeats()) {
+            seat.reserve();
+        }
+        assertTrue(showTime.findBestSeats(1).isEmpty());
+    }
+}
@@ -0,0 +1,152 @@
+package com.cnrasili.moviebooking.model;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SeatOccupancy}: the 2-bit packing, its status transitions, lazy allocation and the
+ * per-row available counts.
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+class SeatOccupancyTest {
+
+    private final ShowTime showTime = new ShowTime(LocalDateTime.now().plusDays(1),
+            new Movie2D("Test Movie", 120, 100.0, Genre.ACTION, AgeRating.GENERAL_AUDIENCE), new StandardHall("Test Hall", 5, 8));
+
+    /**
+     * Verifies that reading seats, searching and no-op changes leave an untouched session unallocated.
+     */
+    @Test
+    void testUntouchedSession_StaysUnallocated() {
+        SeatOccupancy occupancy = showTime.getOccupancy();
+
+        assertTrue(showTime.getSeat(3, 4).isAvailable());
+        assertEquals(4, showTime.findBestSeats(4).size());
+        assertEquals(8, occupancy.getAvailableInRow(1));
+        assertFalse(showTime.getSeat(3, 4).confirmHold(), "An available seat has no hold to confirm");
+        showTime.getSeat(3, 4).cancelBooking();
+
+        assertFalse(occupancy.isMaterialized());
+    }
+
+    /**
+     * Verifies that the first hold allocates the state, and that it then tracks seats and row counts.
+     */
+    @Test
+    void testFirstHold_AllocatesState() {
+        SeatOccupancy occupancy = showTime.getOccupancy();
+
+        assertTrue(showTime.getSeat(2, 5).tryHold());
+        assertTrue(occupancy.isMaterialized());
+        assertEquals(SeatStatus.HELD, showTime.getSeat(2, 5).getStatus());
+        assertEquals(7, occupancy.getAvailableInRow(2));
+
+        assertTrue(showTime.getSeat(2, 5).releaseHold());
+        assertEquals(8, occupancy.getAvailableInRow(2));
+        assertTrue(showTime.getSeat(2, 5).isAvailable());
+    }
+
+    /**
+     * Verifies that seats on both sides of a word boundary (indexes 31/32 and 63/64) are stored independently.
+     */
+    @Test
+    void testWordBoundary_SeatsAreIndependent() {
+        SeatOccupancy occupancy = new SeatOccupancy(70);
+        int[] boundary = {31, 32, 63, 64};
+        SeatStatus[] statuses = {SeatStatus.BOOKED, SeatStatus.HELD, SeatStatus.BLOCKED, SeatStatus.BOOKED};
+
+        for (int i = 0; i < boundary.length; i++) {
+            occupancy.set(boundary[i], statuses[i]);
+        }
+        for (int i = 0; i < boundary.length; i++) {
+            assertEquals(statuses[i], occupancy.get(boundary[i]), "Seat " + boundary[i]);
+        }
+        assertEquals(SeatStatus.AVAILABLE, occupancy.get(30));
+        assertEquals(SeatStatus.AVAILABLE, occupancy.get(33));
+        assertEquals(SeatStatus.AVAILABLE, occupancy.get(65));
+
+        occupancy.set(32, SeatStatus.AVAILABLE);
+        assertEquals(SeatStatus.BOOKED, occupancy.get(31), "Clearing seat 32 must not touch seat 31");
+        assertEquals(SeatStatus.AVAILABLE, occupancy.get(32));
+        assertThrows(IndexOutOfBoundsException.class, () -> occupancy.get(70));
+    }
+
+    /**
+     * Verifies every transition between the four statuses, with compare-and-set succeeding only from the expected
+     * status and leaving the neighbouring seats alone.
+     */
+    @Test
+    void testCompareAndSet_EveryTransition() {
+        for (SeatStatus from : SeatStatus.values()) {
+            for (SeatStatus to : SeatStatus.values()) {
+                SeatOccupancy occupancy = new SeatOccupancy(64);
+                occupancy.set(30, SeatStatus.BLOCKED);
+                occupancy.set(32, SeatStatus.HELD);
+                occupancy.set(31, from);
+
+                for (SeatStatus wrong : SeatStatus.values()) {
+                    if (wrong != from) {
+                        assertFalse(occupancy.compareAndSet(31, wrong, to), from + " -> " + to + " expecting " + wrong);
+                    }
+                }
+                assertTrue(occupancy.compareAndSet(31, from, to), from + " -> " + to);
+                assertEquals(to, occupancy.get(31));
+                assertEquals(SeatStatus.BLOCKED, occupancy.get(30));
+                assertEquals(SeatStatus.HELD, occupancy.get(32));
+            }
+        }
+    }
+
+    /**
+     * Verifies that concurrent bookings and cancellations across a hall keep the per-row available counts equal to
+     * the seats actually available once the threads are done.
+     */
+    @Test
+    void testAvailablePerRow_UnderContention() throws InterruptedException {
+        CinemaHall hall = new IMAXHall("IMAX", 6, 8);
+        SeatOccupancy occupancy = new SeatOccupancy(hall);
+        int seats = occupancy.size();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int round = 0; round < 2000; round++) {
+                    int index = (round * 7 + offset) % seats;
+                    if (occupancy.compareAndSet(index, SeatStatus.AVAILABLE, SeatStatus.BOOKED) && (round + offset) % 3 != 0) {
+                        occupancy.compareAndSet(index, SeatStatus.BOOKED, SeatStatus.AVAILABLE);
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        for (int row = 1; row <= hall.getTotalRows(); row++) {
+            int available = 0;
+            for (int number = 1; number <= hall.getSeatsInRow(row); number++) {
+                if (occupancy.get(hall.getSeatIndex(row, number)) == SeatStatus.AVAILABLE) {
+                    available++;
+                }
+            }
+            assertEquals(available, occupancy.getAvailableInRow(row), "Row " + row);
+        }
+        assertTrue(occupancy.isMaterialized());
+    }
+}
@@ -0,0 +1,225 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link BookingJournal} class.
+ * <p>
+ * Each test books and refunds tickets with a journal installed, then simulates a restart by rebuilding the
+ * in-memory data from scratch and reopening the same journal file.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.4
+ */
+class BookingJournalTest {
+
+    private static final String CARD = "1111111111111111";
+
+    private Path journalFile;
+    private Booking booking;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journalFile = Files.createTempFile("bookings", ".journal");
+        booking = new Booking();
+        customer = new Customer("Test", "User", "test@mail.com", "5555555555", 2000);
+        loadData();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (CinemaSystem.journal != null) {
+            CinemaSystem.journal.close();
+            CinemaSystem.journal = null;
+        }
+        CinemaSystem.branches.clear();
+        CinemaSystem.allMovies.clear();
+        Files.deleteIfExists(journalFile);
+        Files.deleteIfExists(Paths.get(journalFile + ".snapshot"));
+        Files.deleteIfExists(Paths.get(journalFile + ".sealed"));
+    }
+
+    /**
+     * Verifies that sold tickets, refunds and card debits are restored exactly after a restart.
+     */
+    @Test
+    void testReplay_RestoresTicketsSeatsAndBalances() throws Exception {
+        CinemaSystem.journal = BookingJournal.open(journalFile);
+
+        ShowTime show = CinemaSystem.activeShowTimes.iterator().next();
+        Ticket kept = booking.createTicket(customer, show, show.getSeat(2, 3), new StandardPriceStrategy(), new CreditCardPaymentService(), CARD);
+        Ticket refunded = booking.createTicket(customer, show, show.getSeat(2, 4), new StandardPriceStrategy(), new CreditCardPaymentService(), CARD);
+        assertTrue(new RefundService().processRefund(refunded.getPnrCode()));
+        double balance = CinemaSystem.mockCardDB.get(CARD);
+
+        restart();
+
+        assertEquals(5, CinemaSystem.journal.getReplayedRecords(), "Two debits, two sales and one refund should be replayed");
+        ShowTime restoredShow = CinemaSystem.activeShowTimes.iterator().next();
+        Ticket restored = CinemaSystem.searchTicketByPNR(kept.getPnrCode());
+        assertNotNull(restored, "Sold ticket should be restored");
+        assertSame(restoredShow, restored.getShowTime(), "Ticket should point at the reloaded session");
+        assertEquals(kept.getFinalPrice(), restored.getFinalPrice());
+        assertEquals(kept.getCreationDate(), restored.getCreationDate());
+        assertEquals(SeatStatus.BOOKED, restoredShow.getSeat(2, 3).getStatus());
+
+        assertNull(CinemaSystem.searchTicketByPNR(refunded.getPnrCode()), "Refunded ticket should stay refunded");
+        assertEquals(SeatStatus.AVAILABLE, restoredShow.getSeat(2, 4).getStatus());
+        assertEquals(balance, CinemaSystem.mockCardDB.get(CARD), "Card balance should include both debits");
+    }
+
+    /**
+     * Verifies that a torn record at the end of the file is discarded and the journal stays appendable.
+     */
+    @Test
+    void testReplay_DiscardsTornTail() throws Exception {
+        CinemaSystem.journal = BookingJournal.open(journalFile);
+        ShowTime show = CinemaSystem.activeShowTimes.iterator().next();
+        Ticket ticket = booking.createTicket(customer, show, show.getSeat(1, 1), new StandardPriceStrategy(), new CreditCardPaymentService(), CARD);
+        CinemaSystem.journal.close();
+        CinemaSystem.journal = null;
+
+        long validSize = Files.size(journalFile);
+        Files.write(journalFile, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        restart();
+        assertEquals(validSize, Files.size(journalFile), "Torn tail should be cut off");
+        assertNotNull(CinemaSystem.searchTicketByPNR(ticket.getPnrCode()));
+
+        ShowTime restoredShow = CinemaSystem.activeShowTimes.iterator().next();
+        Ticket next = booking.createTicket(customer, restoredShow, restoredShow.getSeat(1, 2), new StandardPriceStrategy(), new CreditCardPaymentService(), CARD);
+        restart();
+        assertNotNull(CinemaSystem.searchTicketByPNR(next.getPnrCode()), "Records appended after recovery should replay");
+    }
+
+    /**
+     * Verifies that a restart loads the snapshot and replays only the records written after it.
+     */
+    @Test
+    void testSnapshot_RestoresSnapshotPlusTail() throws Exception {
+        CinemaSystem.journal = BookingJournal.open(journalFile);
+        ShowTime show = CinemaSystem.activeShowTimes.iterator().next();
+        Ticket early = booking.createTicket(customer, show, show.getSeat(1, 1), new StandardPriceStrategy(), new CreditCardPaymentService(), CARD);
+        Ticket refunded = booking.createTicket(customer, show, show.getSeat(1, 2), new StandardPriceStrategy(), new CreditCardPaymentService(), CARD);
+
+        assertTrue(CinemaSystem.journal.snapshot(), "Journaled changes should be snapshotted");
+        assertFalse(CinemaSystem.journal.snapshot(), "Nothing new to snapshot");
+        assertTrue(Files.exists(CinemaSystem.journal.getSnapshotFile()));
+        assertFalse(Files.exists(Paths.get(journalFile + ".sealed")), "Sealed segment should be folded and deleted");
+
+        Ticket late = booking.createTicket(customer, show, show.getSeat(1, 3), new StandardPriceStrategy(), new CreditCardPaymentService(), CARD);
+        assertTrue(new RefundService().processRefund(refunded.getPnrCode()));
+        double balance = CinemaSystem.mockCardDB.get(CARD);
+
+        restart();
+
+        assertEquals(3, CinemaSystem.journal.getReplayedRecords(), "Only the debit, sale and refund after the snapshot should be replayed");
+        ShowTime restoredShow = CinemaSystem.activeShowTimes.iterator().next();
+        assertNotNull(CinemaSystem.searchTicketByPNR(early.getPnrCode()), "Snapshotted ticket should be restored");
+        assertNotNull(CinemaSystem.searchTicketByPNR(late.getPnrCode()), "Journal tail ticket should be restored");
+        assertNull(CinemaSystem.searchTicketByPNR(refunded.getPnrCode()), "A refund in the tail should undo a snapshotted sale");
+        assertEquals(SeatStatus.BOOKED, restoredShow.getSeat(1, 1).getStatus());
+        assertEquals(SeatStatus.AVAILABLE, restoredShow.getSeat(1, 2).getStatus());
+        assertEquals(SeatStatus.BOOKED, restoredShow.getSeat(1, 3).getStatus());
+        assertEquals(balance, CinemaSystem.mockCardDB.get(CARD), "Card balance should include all three debits");
+
+        assertTrue(CinemaSystem.journal.snapshot());
+        restart();
+        assertEquals(0, CinemaSystem.journal.getReplayedRecords());
+        assertEquals(2, CinemaSystem.soldTickets.size());
+        assertEquals(balance, CinemaSystem.mockCardDB.get(CARD));
+    }
+
+    /**
+     * Verifies that a batch failing halfway through its write is cut off again: its record is reported as failed,
+     * and records written after it are still replayed instead of being hidden behind a torn frame.
+     */
+    @Test
+    void testWriteFailure_DoesNotHideLaterRecords() throws Exception {
+        AtomicBoolean failNextWrite = new AtomicBoolean();
+        CinemaSystem.journal = BookingJournal.open(journalFile, channel -> new FailingChannel(channel, failNextWrite));
+
+        CinemaSystem.journal.cardDebited(CARD, 10.0).join();
+        failNextWrite.set(true);
+        CompletableFuture<Void> failed = CinemaSystem.journal.cardDebited(CARD, 20.0);
+        assertThrows(CompletionException.class, failed::join, "A failed write should fail its future");
+        CinemaSystem.journal.cardDebited(CARD, 30.0).join();
+
+        restart();
+
+        assertEquals(2, CinemaSystem.journal.getReplayedRecords(), "Both acknowledged debits should be replayed");
+        assertEquals(5000.0 - 40.0, CinemaSystem.mockCardDB.get(CARD), 1e-9);
+    }
+
+    /**
+     * Verifies that a journal failure after the card has been charged does not surface as an unchecked exception:
+     * the booking stands (seat sold, card charged) and is only reported as not durable.
+     */
+    @Test
+    void testJournalFailure_KeepsChargedBooking() throws Exception {
+        CinemaSystem.journal = BookingJournal.open(journalFile);
+        CinemaSystem.journal.close();
+
+        ShowTime show = CinemaSystem.activeShowTimes.iterator().next();
+        Ticket ticket = assertDoesNotThrow(() -> booking.createTicket(customer, show, show.getSeat(3, 3),
+                new StandardPriceStrategy(), new CreditCardPaymentService(), CARD));
+        Order order = assertDoesNotThrow(() -> booking.createGroupBooking(customer, show,
+                List.of(show.getSeat(4, 1), show.getSeat(4, 2)), new StandardPriceStrategy(), new CreditCardPaymentService(), CARD));
+
+        assertEquals(SeatStatus.BOOKED, show.getSeat(3, 3).getStatus());
+        assertSame(ticket, CinemaSystem.searchTicketByPNR(ticket.getPnrCode()));
+        assertEquals(2, order.getTickets().size());
+        assertEquals(5000.0 - ticket.getFinalPrice() - order.getTotalPrice(), CinemaSystem.mockCardDB.get(CARD), 1e-6);
+        CinemaSystem.journal = null;
+    }
+
+    /**
+     * Simulates a restart: closes the journal, reloads the static data and replays the journal.
+     */
+    private void restart() throws IOException {
+        if (CinemaSystem.journal != null) {
+            CinemaSystem.journal.close();
+        }
+        loadData();
+        CinemaSystem.journal = BookingJournal.open(journalFile);
+    }
+
+    /**
+     * Stands in for {@link DataInitializer#loadMockData()}: one branch, one movie, one session, one card.
+     */
+    private void loadData() {
+        CinemaSystem.journal = null;
+        CinemaSystem.branches.clear();
+        CinemaSystem.allMovies.clear();
+        CinemaSystem.activeShowTimes.clear();
+        CinemaSystem.soldTickets.clear();
+        CinemaSystem.mockCardDB.clear();
+        CinemaSystem.mockCardDB.put(CARD, 5000.0);
+
+        CinemaBranch branch = new CinemaBranch("Test Branch", "Istanbul", "Test");
+        CinemaHall hall = new StandardHall("Test Hall", 5, 5);
+        branch.addHall(hall);
+        CinemaSystem.branches.add(branch);
+        Movie movie = new Movie2D("Test Movie", 120, 100.0, Genre.ACTION, AgeRating.PLUS_13);
+        CinemaSystem.allMovies.add(movie);
+        LocalDateTime time = LocalDateTime.now().plusDays(1).withHour(14).truncatedTo(ChronoUnit.HOURS);
+        CinemaSystem.activeShowTimes.add(new ShowTime(time, movie, hall));
+    }
+}
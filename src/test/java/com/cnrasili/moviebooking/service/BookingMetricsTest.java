@@ -0,0 +1,125 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.exception.PaymentFailedException;
+import com.cnrasili.moviebooking.exception.SeatOccupiedException;
+import com.cnrasili.moviebooking.model.*;
+import com.cnrasili.moviebooking.util.LatencyHistogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link BookingMetrics} class and its {@link LatencyHistogram}s.
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+class BookingMetricsTest {
+
+    private final Booking booking = new Booking();
+    private final PaymentService paymentService = new CreditCardPaymentService();
+    private final Customer customer = new Customer("Test", "User", "test@mail.com", "5555555555", 2000);
+    private ShowTime showTime;
+
+    @BeforeEach
+    void setUp() {
+        CinemaSystem.activeShowTimes.clear();
+        CinemaSystem.soldTickets.clear();
+        CinemaSystem.mockCardDB.clear();
+        CinemaSystem.mockCardDB.put("1111111111111111", 5000.0);
+        CinemaSystem.mockCardDB.put("3333333333333333", 1.0);
+        CinemaSystem.metrics.reset();
+
+        CinemaBranch branch = new CinemaBranch("Metrics Branch", "City", "District");
+        CinemaHall hall = new VIPHall("VIP", 3, 3);
+        branch.addHall(hall);
+        showTime = new ShowTime(LocalDateTime.now().plusDays(1).withHour(14),
+                new Movie2D("Test Movie", 120, 100.0, Genre.ACTION, AgeRating.GENERAL_AUDIENCE), hall);
+        CinemaSystem.activeShowTimes.add(showTime);
+    }
+
+    /**
+     * Verifies that each checkout is counted under the stage it ended in, with its branch, hall type and outcome:
+     * a sale passes every stage, a declined card fails in PAYMENT and a sold seat fails in AVAILABILITY.
+     */
+    @Test
+    void testCreateTicket_RecordsStagesAndOutcomes() throws Exception {
+        Seat seat = showTime.getSeat(1, 1);
+        booking.createTicket(customer, showTime, seat, new StandardPriceStrategy(), paymentService, "1111111111111111");
+        assertThrows(PaymentFailedException.class, () -> booking.createTicket(customer, showTime, showTime.getSeat(1, 2),
+                new StandardPriceStrategy(), paymentService, "3333333333333333"));
+        assertThrows(SeatOccupiedException.class, () -> booking.createTicket(customer, showTime, seat,
+                new StandardPriceStrategy(), paymentService, "1111111111111111"));
+
+        List<BookingMetrics.Entry> entries = CinemaSystem.metrics.snapshot();
+        for (BookingMetrics.Entry entry : entries) {
+            assertEquals("Metrics Branch", entry.getBranch());
+            assertEquals("VIPHall", entry.getHallType());
+        }
+        assertEquals(1, count(entries, BookingMetrics.Stage.REGISTRATION, BookingMetrics.OK));
+        assertEquals(1, count(entries, BookingMetrics.Stage.PAYMENT, BookingMetrics.OK));
+        assertEquals(1, count(entries, BookingMetrics.Stage.PAYMENT, "PaymentFailedException"));
+        assertEquals(1, count(entries, BookingMetrics.Stage.AVAILABILITY, "SeatOccupiedException"));
+        assertEquals(1, count(entries, BookingMetrics.Stage.TOTAL, BookingMetrics.OK));
+        assertEquals(1, count(entries, BookingMetrics.Stage.TOTAL, "PaymentFailedException"));
+        assertEquals(1, count(entries, BookingMetrics.Stage.TOTAL, "SeatOccupiedException"));
+        assertTrue(CinemaSystem.metrics.dump().contains("SeatOccupiedException"));
+    }
+
+    /**
+     * Verifies that a group checkout is counted once however many seats it holds, and that a group losing one of
+     * its seats fails in RESERVATION.
+     */
+    @Test
+    void testCreateGroupBooking_RecordsStagesAndOutcomes() throws Exception {
+        booking.createGroupBooking(customer, showTime, List.of(showTime.getSeat(1, 1), showTime.getSeat(1, 2)),
+                new StandardPriceStrategy(), paymentService, "1111111111111111");
+        assertThrows(SeatOccupiedException.class, () -> booking.createGroupBooking(customer, showTime,
+                List.of(showTime.getSeat(1, 2), showTime.getSeat(1, 3)), new StandardPriceStrategy(), paymentService,
+                "1111111111111111"));
+
+        List<BookingMetrics.Entry> entries = CinemaSystem.metrics.snapshot();
+        assertEquals(2, count(entries, BookingMetrics.Stage.PRICING, BookingMetrics.OK));
+        assertEquals(1, count(entries, BookingMetrics.Stage.REGISTRATION, BookingMetrics.OK));
+        assertEquals(1, count(entries, BookingMetrics.Stage.RESERVATION, "SeatOccupiedException"));
+        assertEquals(1, count(entries, BookingMetrics.Stage.TOTAL, BookingMetrics.OK));
+        assertEquals(1, count(entries, BookingMetrics.Stage.TOTAL, "SeatOccupiedException"));
+        assertTrue(showTime.getSeat(1, 3).isAvailable());
+    }
+
+    /**
+     * Verifies that histogram percentiles are within one bucket (1/16) of the exact values, and that merged
+     * snapshots add up.
+     */
+    @Test
+    void testLatencyHistogram_Percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(100_000_000, snapshot.getMax());
+        assertEquals(50_000_500, snapshot.getMean(), 1.0);
+        assertEquals(50_000_000, snapshot.valueAt(50), 50_000_000 / 16.0);
+        assertEquals(99_000_000, snapshot.valueAt(99), 99_000_000 / 16.0);
+        assertEquals(snapshot.getMax(), snapshot.valueAt(100));
+
+        LatencyHistogram.Snapshot merged = snapshot.merge(LatencyHistogram.Snapshot.EMPTY).merge(snapshot);
+        assertEquals(200_000, merged.getCount());
+        assertEquals(snapshot.valueAt(50), merged.valueAt(50));
+    }
+
+    private static long count(List<BookingMetrics.Entry> entries, BookingMetrics.Stage stage, String outcome) {
+        long count = 0;
+        for (BookingMetrics.Entry entry : entries) {
+            if (entry.getStage() == stage && entry.getOutcome().equals(outcome)) {
+                count += entry.getLatency().getCount();
+            }
+        }
+        return count;
+    }
+}
@@ -7,6 +7,13 @@ import com.cnrasili.moviebooking.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -19,7 +26,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * </p>
  *
  * @author cnrasili
- * @version 2.0
+ * @version 2.1
  */
 class BookingTest {
 
@@ -203,4 +210,100 @@ class BookingTest {
             booking.createTicket(customer, showTime, seat, new StandardPriceStrategy(), paymentService, unknownCard);
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifies that a seat cannot be sold twice when many buyers race for it concurrently.
+     * <p>
+     * All threads are released at the same time against the same seat. Exactly one booking must succeed,
+     * every other attempt must fail with {@link SeatOccupiedException}, and the card must be charged only once.
+     * </p>
+     */
+    @Test
+    void testCreateTicket_ConcurrentBuyersSameSeat() throws InterruptedException {
+        String richCard = "1111111111111111";
+        int buyers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(buyers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        for (int i = 0; i < buyers; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    booking.createTicket(customer, showTime, seat, new StandardPriceStrategy(), paymentService, richCard);
+                    successes.incrementAndGet();
+                } catch (SeatOccupiedException e) {
+                    conflicts.incrementAndGet();
+                } catch (Exception e) {
+                    // Any other failure leaves both counters untouched and fails the assertions below
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1, successes.get(), "Exactly one buyer should get the seat");
+        assertEquals(buyers - 1, conflicts.get(), "All other buyers should be rejected");
+        assertEquals(1, CinemaSystem.soldTickets.size());
+        assertEquals(5000.0 - 90.0, CinemaSystem.mockCardDB.get(richCard), "Card should be charged only once");
+    }
+
+    /**
+     * Verifies that the seat is released again when the payment is rejected.
+     */
+    @Test
+    void testCreateTicket_SeatReleasedWhenPaymentFails() {
+        String poorCard = "3333333333333333";
+
+        assertThrows(PaymentFailedException.class, () -> {
+            booking.createTicket(customer, showTime, seat, new StandardPriceStrategy(), paymentService, poorCard);
+        });
+
+        assertEquals(SeatStatus.AVAILABLE, seat.getStatus(), "Seat should be AVAILABLE after a failed payment");
+    }
+
+    /**
+     * Verifies that a group booking charges the card once and issues one ticket per seat.
+     */
+    @Test
+    void testCreateGroupBooking_SinglePayment() {
+        String richCard = "1111111111111111";
+        List<Seat> seats = Arrays.asList(showTime.getSeat(2, 3), showTime.getSeat(2, 1), showTime.getSeat(2, 2));
+
+        assertDoesNotThrow(() -> {
+            Order order = booking.createGroupBooking(customer, showTime, seats, new StandardPriceStrategy(), paymentService, richCard);
+
+            assertEquals(3, order.getTickets().size(), "One ticket per seat should be issued");
+            assertEquals(270.0, order.getTotalPrice(), "Every seat should be priced like a single ticket");
+            assertEquals(5000.0 - 270.0, CinemaSystem.mockCardDB.get(richCard), "Card should be charged once for the total");
+            assertEquals(3, CinemaSystem.soldTickets.size());
+            for (Seat groupSeat : seats) {
+                assertEquals(SeatStatus.BOOKED, groupSeat.getStatus());
+            }
+        });
+    }
+
+    /**
+     * Verifies that a group booking is all-or-nothing: if one seat is taken, no seat is booked and nothing is charged.
+     */
+    @Test
+    void testCreateGroupBooking_AllOrNothing() {
+        String richCard = "1111111111111111";
+        Seat taken = showTime.getSeat(3, 3);
+        taken.reserve();
+        List<Seat> seats = Arrays.asList(showTime.getSeat(3, 1), showTime.getSeat(3, 2), taken, showTime.getSeat(3, 4));
+
+        assertThrows(SeatOccupiedException.class, () -> {
+            booking.createGroupBooking(customer, showTime, seats, new StandardPriceStrategy(), paymentService, richCard);
+        });
+
+        assertEquals(SeatStatus.AVAILABLE, showTime.getSeat(3, 1).getStatus(), "Seats claimed before the conflict should be released");
+        assertEquals(SeatStatus.AVAILABLE, showTime.getSeat(3, 2).getStatus());
+        assertEquals(SeatStatus.AVAILABLE, showTime.getSeat(3, 4).getStatus());
+        assertEquals(5000.0, CinemaSystem.mockCardDB.get(richCard), "Card should not be charged");
+        assertTrue(CinemaSystem.soldTickets.isEmpty());
+    }
+}
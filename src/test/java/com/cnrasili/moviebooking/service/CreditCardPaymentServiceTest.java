@@ -0,0 +1,137 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.exception.PaymentFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link CreditCardPaymentService} class.
+ * <p>
+ * Besides the basic debit behaviour, this suite hammers the shared {@link CinemaSystem#mockCardDB}
+ * from many threads at once and checks that no balance update is ever lost and no card is overdrawn.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+class CreditCardPaymentServiceTest {
+
+    private static final String[] CARDS = {
+            "1111111111111111", "2222222222222222", "3333333333333333", "4444444444444444"
+    };
+    private static final double INITIAL_BALANCE = 10000.0;
+
+    private PaymentService paymentService;
+
+    /**
+     * Resets the mock bank so every card starts with {@value #INITIAL_BALANCE} TL.
+     */
+    @BeforeEach
+    void setUp() {
+        CinemaSystem.mockCardDB.clear();
+        for (String card : CARDS) {
+            CinemaSystem.mockCardDB.put(card, INITIAL_BALANCE);
+        }
+        paymentService = new CreditCardPaymentService();
+    }
+
+    /**
+     * Verifies that a successful payment deducts exactly the requested amount.
+     */
+    @Test
+    void testProcessPayment_DeductsBalance() {
+        assertDoesNotThrow(() -> paymentService.processPayment(250.0, CARDS[0]));
+        assertEquals(INITIAL_BALANCE - 250.0, CinemaSystem.mockCardDB.get(CARDS[0]));
+    }
+
+    /**
+     * Verifies that balances are conserved when many threads pay with the same set of cards concurrently.
+     * <p>
+     * Each thread performs a series of small payments, rotating over all cards. At the end, the balance of
+     * every card must equal its initial balance minus exactly the sum of the payments made with it.
+     * </p>
+     */
+    @Test
+    void testProcessPayment_ConcurrentDebitsAreConserved() throws InterruptedException {
+        int threads = 8;
+        int paymentsPerThread = 200;
+        double amount = 2.5;
+        AtomicIntegerArray successes = new AtomicIntegerArray(CARDS.length);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < paymentsPerThread; i++) {
+                        int card = (offset + i) % CARDS.length;
+                        paymentService.processPayment(amount, CARDS[card]);
+                        successes.incrementAndGet(card);
+                    }
+                } catch (InterruptedException | PaymentFailedException e) {
+                    // Leaves the success counters short, which the assertions below detect
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        double total = 0.0;
+        for (int card = 0; card < CARDS.length; card++) {
+            double expected = INITIAL_BALANCE - successes.get(card) * amount;
+            assertEquals(expected, CinemaSystem.mockCardDB.get(CARDS[card]), "Balance of card " + CARDS[card] + " should be conserved");
+            total += CinemaSystem.mockCardDB.get(CARDS[card]);
+        }
+        assertEquals(CARDS.length * INITIAL_BALANCE - threads * paymentsPerThread * amount, total, "No payment should be lost");
+    }
+
+    /**
+     * Verifies that concurrent payments never overdraw a card.
+     * <p>
+     * A card holding 100 TL receives 64 simultaneous 10 TL payments: exactly ten must succeed
+     * and the balance must end at zero.
+     * </p>
+     */
+    @Test
+    void testProcessPayment_ConcurrentDebitsNeverOverdraw() throws InterruptedException {
+        String card = CARDS[0];
+        CinemaSystem.mockCardDB.put(card, 100.0);
+
+        int threads = 64;
+        AtomicIntegerArray outcome = new AtomicIntegerArray(2);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    paymentService.processPayment(10.0, card);
+                    outcome.incrementAndGet(0);
+                } catch (PaymentFailedException e) {
+                    outcome.incrementAndGet(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(10, outcome.get(0), "Exactly ten payments should succeed");
+        assertEquals(threads - 10, outcome.get(1), "All other payments should be rejected");
+        assertEquals(0.0, CinemaSystem.mockCardDB.get(card));
+    }
+}
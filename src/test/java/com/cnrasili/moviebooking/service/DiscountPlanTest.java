@@ -0,0 +1,87 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link DiscountPlan} class.
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+class DiscountPlanTest {
+
+    private static final LocalDateTime NEXT_MONDAY_11AM = LocalDateTime.now()
+            .with(TemporalAdjusters.next(DayOfWeek.MONDAY)).withHour(11).withMinute(0).withSecond(0).withNano(0);
+
+    private final Movie comedy = new Movie2D("Comedy", 100, 100.0, Genre.COMEDY, AgeRating.GENERAL_AUDIENCE);
+    private final Movie horror = new Movie2D("Horror", 100, 100.0, Genre.HORROR, AgeRating.PLUS_18);
+
+    @AfterEach
+    void tearDown() {
+        CinemaSystem.pricingRules = DiscountPlan.DEFAULT;
+    }
+
+    /**
+     * Verifies session conditions (weekday, time window, genre, hall type) and booking conditions (student,
+     * group size).
+     */
+    @Test
+    void testPercentOf_MatchesConditions() {
+        DiscountPlan plan = DiscountPlan.compile(Arrays.asList(
+                new DiscountRule("Weekday Matinee", 15).on(DayOfWeek.MONDAY, DayOfWeek.TUESDAY)
+                        .between(LocalTime.of(10, 0), LocalTime.of(14, 0)),
+                new DiscountRule("Comedy Week", 5).forGenre(Genre.COMEDY),
+                new DiscountRule("IMAX Students", 10).forStudents().inHallType(IMAXHall.class),
+                new DiscountRule("Group of 4", 8).forGroupsOf(4)), 100);
+        ShowTime matinee = new ShowTime(NEXT_MONDAY_11AM, comedy, new IMAXHall("IMAX", 6, 8));
+        ShowTime evening = new ShowTime(NEXT_MONDAY_11AM.withHour(20), horror, new StandardHall("Hall", 5, 5));
+
+        assertEquals(8, plan.getColumnCount(), "4 contexts x 2 group buckets");
+        assertEquals(20, plan.percentOf(matinee, plan.columnOf(false, false, 1)), "Matinee + comedy");
+        assertEquals(30, plan.percentOf(matinee, plan.columnOf(true, false, 2)), "Matinee + comedy + IMAX students");
+        assertEquals(38, plan.percentOf(matinee, plan.columnOf(true, false, 6)), "... + group of 4");
+        assertEquals(0, plan.percentOf(evening, plan.columnOf(true, true, 1)));
+        assertEquals(8, plan.percentOf(evening, plan.columnOf(false, false, 4)));
+    }
+
+    /**
+     * Verifies that an exclusive rule replaces the stacked rules only when it is better, and the overall cap.
+     */
+    @Test
+    void testPercentOf_ExclusivityAndCap() {
+        DiscountPlan plan = DiscountPlan.compile(Arrays.asList(
+                new DiscountRule("First Session", 10).forFirstSession(),
+                new DiscountRule("Student", 20).forStudents(),
+                new DiscountRule("Big Group", 25).forGroupsOf(10).exclusive(),
+                new DiscountRule("Horror Night", 40).forGenre(Genre.HORROR)), 45);
+        ShowTime comedyShow = new ShowTime(NEXT_MONDAY_11AM, comedy, new StandardHall("Hall", 5, 5));
+        ShowTime horrorShow = new ShowTime(NEXT_MONDAY_11AM, horror, new StandardHall("Hall", 5, 5));
+
+        assertEquals(30, plan.percentOf(comedyShow, plan.columnOf(true, true, 1)));
+        assertEquals(30, plan.percentOf(comedyShow, plan.columnOf(true, true, 12)), "Stacked 30% beats exclusive 25%");
+        assertEquals(25, plan.percentOf(comedyShow, plan.columnOf(false, false, 12)), "Exclusive 25% beats stacked 0%");
+        assertEquals(45, plan.percentOf(horrorShow, plan.columnOf(true, true, 1)), "70% is capped at 45%");
+    }
+
+    /**
+     * Verifies that bookings are priced with an installed plan, group size included.
+     */
+    @Test
+    void testFinalPrice_UsesInstalledPlan() {
+        CinemaSystem.pricingRules = DiscountPlan.compile(Arrays.asList(
+                new DiscountRule("Group of 3", 10).forGroupsOf(3)), 100);
+        ShowTime show = new ShowTime(NEXT_MONDAY_11AM, comedy, new StandardHall("Hall", 5, 5));
+
+        assertEquals(10000, PricingEngine.finalPrice(show, show.getSeat(1, 1), true, 2, new StudentStrategy()),
+                "Neither a first-session nor a student promotion is installed");
+        assertEquals(9000, PricingEngine.finalPrice(show, show.getSeat(1, 1), false, 3, new StandardPriceStrategy()));
+    }
+}
@@ -0,0 +1,57 @@
+package com.cnrasili.moviebooking.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A file channel that, once armed, writes only half of the next frame and then fails, like a full disk.
+ * <p>
+ * Used to test that the {@link BookingJournal} and the {@link TicketArchive} recover from failed writes.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+final class FailingChannel extends FileChannel {
+    private final FileChannel delegate;
+    private final AtomicBoolean failNextWrite;
+
+    FailingChannel(FileChannel delegate, AtomicBoolean failNextWrite) {
+        this.delegate = delegate;
+        this.failNextWrite = failNextWrite;
+    }
+
+    @Override
+    public long write(ByteBuffer[] sources, int offset, int length) throws IOException {
+        if (failNextWrite.getAndSet(false)) {
+            ByteBuffer half = sources[offset].duplicate();
+            half.limit(half.position() + half.remaining() / 2);
+            delegate.write(half);
+            throw new IOException("No space left on device");
+        }
+        return delegate.write(sources, offset, length);
+    }
+
+    @Override public int read(ByteBuffer target) throws IOException { return delegate.read(target); }
+    @Override public long read(ByteBuffer[] targets, int offset, int length) throws IOException { return delegate.read(targets, offset, length); }
+    @Override public int write(ByteBuffer source) throws IOException { return delegate.write(source); }
+    @Override public long position() throws IOException { return delegate.position(); }
+    @Override public FileChannel position(long newPosition) throws IOException { delegate.position(newPosition); return this; }
+    @Override public long size() throws IOException { return delegate.size(); }
+    @Override public FileChannel truncate(long size) throws IOException { delegate.truncate(size); return this; }
+    @Override public void force(boolean metaData) throws IOException { delegate.force(metaData); }
+    @Override public long transferTo(long position, long count, WritableByteChannel target) throws IOException { return delegate.transferTo(position, count, target); }
+    @Override public long transferFrom(ReadableByteChannel source, long position, long count) throws IOException { return delegate.transferFrom(source, position, count); }
+    @Override public int read(ByteBuffer target, long position) throws IOException { return delegate.read(target, position); }
+    @Override public int write(ByteBuffer source, long position) throws IOException { return delegate.write(source, position); }
+    @Override public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException { return delegate.map(mode, position, size); }
+    @Override public FileLock lock(long position, long size, boolean shared) throws IOException { return delegate.lock(position, size, shared); }
+    @Override public FileLock tryLock(long position, long size, boolean shared) throws IOException { return delegate.tryLock(position, size, shared); }
+    @Override protected void implCloseChannel() throws IOException { delegate.close(); }
+}
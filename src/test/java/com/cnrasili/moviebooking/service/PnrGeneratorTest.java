@@ -0,0 +1,90 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.exception.InvalidPNRException;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link PnrGenerator} class.
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+class PnrGeneratorTest {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    /**
+     * Verifies that concurrent callers never receive the same code, and that codes carry the shard prefix.
+     */
+    @Test
+    void testNext_UniqueAcrossThreads() throws Exception {
+        PnrGenerator generator = new PnrGenerator(37);
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    codes.add(generator.next());
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(400_000, codes.size(), "Every code should be unique");
+        String code = codes.iterator().next();
+        assertEquals(PnrGenerator.LENGTH, code.length());
+        assertEquals("15", code.substring(0, 2), "Shard 37 is 1 * 32 + 5");
+        assertFalse(PnrGenerator.isMistyped(code));
+    }
+
+    /**
+     * Verifies that the check character catches every single-character typo and a swap of two neighbours.
+     */
+    @Test
+    void testIsMistyped_DetectsTypos() {
+        String code = new PnrGenerator(1).next();
+        for (int i = 0; i < code.length(); i++) {
+            for (char c : ALPHABET.toCharArray()) {
+                if (c != code.charAt(i)) {
+                    String typo = code.substring(0, i) + c + code.substring(i + 1);
+                    assertTrue(PnrGenerator.isMistyped(typo), typo);
+                }
+            }
+        }
+
+        char[] swapped = code.toCharArray();
+        int i = 2;
+        // Luhn mod 32 misses only swaps of equal characters and of '0' with 'Z'
+        while (swapped[i] == swapped[i + 1] || swapped[i] + swapped[i + 1] == '0' + 'Z') {
+            i++;
+        }
+        char first = swapped[i];
+        swapped[i] = swapped[i + 1];
+        swapped[i + 1] = first;
+        assertTrue(PnrGenerator.isMistyped(new String(swapped)));
+
+        assertFalse(PnrGenerator.isMistyped("PNR123"), "Codes of other formats are not judged");
+        assertFalse(PnrGenerator.isMistyped("PNR-99999999"));
+    }
+
+    /**
+     * Verifies that a refund with a mistyped code is rejected before looking up the ticket.
+     */
+    @Test
+    void testProcessRefund_RejectsMistypedCode() {
+        String code = new PnrGenerator(1).next();
+        char last = code.charAt(code.length() - 1);
+        String typo = code.substring(0, code.length() - 1) + (last == '0' ? '1' : '0');
+
+        InvalidPNRException e = assertThrows(InvalidPNRException.class, () -> new RefundService().processRefund(typo));
+        assertTrue(e.getMessage().contains("Mistyped"));
+    }
+}
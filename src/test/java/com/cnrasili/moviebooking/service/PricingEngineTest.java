@@ -0,0 +1,61 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link PricingEngine} class and the {@link PriceTable}s it reads from.
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+class PricingEngineTest {
+
+    private final ShowTime show = new ShowTime(LocalDateTime.now().plusDays(1),
+            new Movie3D("Test Movie", 120, 33.33, Genre.ACTION, AgeRating.GENERAL_AUDIENCE), new IMAXHall("IMAX", 6, 8));
+
+    @AfterEach
+    void tearDown() {
+        CinemaSystem.pricingRules = DiscountPlan.DEFAULT;
+    }
+
+    /**
+     * Verifies table prices in kurus: (33.33 + 50) * 1.5 = 124.995 TL rounds once to 12500 kurus, and every
+     * discount is taken from that base.
+     */
+    @Test
+    void testFinalPrice_ReadsTable() {
+        Seat standard = show.getSeat(1, 1);
+        Seat loveSeat = show.getSeat(6, 1);
+
+        assertEquals(12500, PricingEngine.basePrice(show, standard));
+        assertEquals(24999, PricingEngine.basePrice(show, loveSeat), "249.99 TL, not twice the rounded standard price");
+        assertEquals(12500, PricingEngine.finalPrice(show, standard, false, 1, new StandardPriceStrategy()));
+        assertEquals(11250, PricingEngine.finalPrice(show, standard, true, 1, new StandardPriceStrategy()));
+        assertEquals(8750, PricingEngine.finalPrice(show, standard, true, 1, new StudentStrategy()), "10% + 20% off");
+        assertEquals(19999, PricingEngine.finalPrice(show, loveSeat, false, 1, new StudentStrategy()));
+        assertSame(show.getPriceTable(DiscountPlan.DEFAULT), show.getPriceTable(DiscountPlan.DEFAULT), "The table is built once");
+    }
+
+    /**
+     * Verifies that new promotion rules rebuild the table, and that custom strategies are computed directly.
+     */
+    @Test
+    void testFinalPrice_RulesChangeAndCustomStrategy() {
+        Seat seat = show.getSeat(1, 1);
+        PriceTable before = show.getPriceTable(CinemaSystem.pricingRules);
+
+        CinemaSystem.pricingRules = DiscountPlan.compile(java.util.Arrays.asList(
+                new DiscountRule("First Session", 25).forFirstSession(),
+                new DiscountRule("Student", 20).forStudents()), 100);
+        assertEquals(6875, PricingEngine.finalPrice(show, seat, true, 1, new StudentStrategy()), "25% + 20% off");
+        assertNotSame(before, show.getPriceTable(CinemaSystem.pricingRules));
+
+        PriceStrategy minusFive = basePrice -> basePrice - 5.0;
+        assertEquals(12000, PricingEngine.finalPrice(show, seat, false, 1, minusFive));
+        assertEquals(8875, PricingEngine.finalPrice(show, seat, true, 1, minusFive));
+    }
+}
@@ -5,6 +5,12 @@ import com.cnrasili.moviebooking.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -19,7 +25,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * </p>
  *
  * @author cnrasili
- * @version 1.0
+ * @version 1.1
  */
 class RefundServiceTest {
 
@@ -97,4 +103,66 @@ class RefundServiceTest {
             refundService.processRefund(fakePnr);
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifies that concurrent refunds of the same ticket succeed exactly once, and that the losing refund never
+     * frees the seat after it has been sold again in between.
+     */
+    @Test
+    void testProcessRefund_ConcurrentDoubleRefund() throws Exception {
+        Seat seat = validTicket.getSeat();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int round = 0; round < 500; round++) {
+                CinemaSystem.soldTickets.clear();
+                seat.cancelBooking();
+                assertTrue(seat.tryReserve());
+                CinemaSystem.soldTickets.add(validTicket);
+
+                CountDownLatch start = new CountDownLatch(1);
+                Callable<Boolean> refund = () -> {
+                    start.await();
+                    try {
+                        return refundService.processRefund(validTicket.getPnrCode());
+                    } catch (InvalidPNRException e) {
+                        return false;
+                    }
+                };
+                Callable<Boolean> resale = () -> {
+                    start.await();
+                    while (!seat.tryReserve()) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            return false;
+                        }
+                        Thread.onSpinWait();
+                    }
+                    return true;
+                };
+                Future<Boolean> first = executor.submit(refund);
+                Future<Boolean> second = executor.submit(refund);
+                Future<Boolean> resold = executor.submit(resale);
+                start.countDown();
+
+                int successes = (first.get() ? 1 : 0) + (second.get() ? 1 : 0);
+                assertEquals(1, successes, "Exactly one refund should succeed");
+                assertTrue(resold.get(10, TimeUnit.SECONDS));
+                assertEquals(SeatStatus.BOOKED, seat.getStatus(), "The resold seat must not be freed by the losing refund");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Verifies that the ticket registry refuses a second ticket registered under an already used PNR code,
+     * and that the original ticket stays reachable through {@link CinemaSystem#searchTicketByPNR(String)}.
+     */
+    @Test
+    void testSoldTickets_RejectsDuplicatePNR() {
+        Ticket duplicate = new Ticket(validTicket.getPnrCode(), null, validTicket.getShowTime(), validTicket.getSeat(), 50.0, 50.0);
+
+        assertFalse(CinemaSystem.soldTickets.add(duplicate), "Duplicate PNR should be rejected");
+        assertSame(validTicket, CinemaSystem.searchTicketByPNR(validTicket.getPnrCode()), "Original ticket should remain registered");
+        assertEquals(1, CinemaSystem.soldTickets.size());
+    }
+}
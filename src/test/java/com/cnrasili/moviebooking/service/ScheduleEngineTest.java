@@ -0,0 +1,84 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ScheduleEngine} class.
+ * <p>
+ * Uses a standalone {@link ShowTimeRegistry} and a single hall screening one movie at 10:00 every day, plus a
+ * late show on Fridays.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+class ScheduleEngineTest {
+
+    private final LocalDate today = LocalDate.of(2030, 1, 7); // a Monday
+    private ShowTimeRegistry registry;
+    private ScheduleEngine engine;
+    private CinemaHall hall;
+    private Movie movie;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ShowTimeRegistry();
+        engine = new ScheduleEngine(registry, 7);
+        CinemaBranch branch = new CinemaBranch("Test Branch", "Istanbul", "Test");
+        hall = new StandardHall("Test Hall", 5, 5);
+        branch.addHall(hall);
+        movie = new Movie2D("Test Movie", 120, 100.0, Genre.ACTION, AgeRating.PLUS_13);
+        engine.setTemplate(hall, new ScheduleTemplate()
+                .addDailySlot(LocalTime.of(10, 0), movie)
+                .addSlot(DayOfWeek.FRIDAY, LocalTime.of(23, 0), movie));
+    }
+
+    /**
+     * Verifies that a roll generates the horizon after today, following the weekly template.
+     */
+    @Test
+    void testRoll_GeneratesHorizon() {
+        assertEquals(8, engine.roll(today), "Seven daily shows plus the Friday late show");
+
+        assertTrue(registry.showTimesOnDate(today).isEmpty(), "Today is not part of the window");
+        assertEquals(1, registry.showTimesOnDate(today.plusDays(1)).size());
+        assertEquals(2, registry.showTimesOnDate(LocalDate.of(2030, 1, 11)).size(), "Friday has a late show");
+        assertEquals(today.plusDays(7), engine.getLastDay());
+        assertEquals(0, engine.roll(today), "Rolling again on the same day changes nothing");
+    }
+
+    /**
+     * Verifies that moving on evicts the finished days and only appends the missing ones.
+     */
+    @Test
+    void testRoll_NextDayIsIncremental() {
+        engine.roll(today);
+        ShowTime kept = registry.showTimesOnDate(today.plusDays(2)).iterator().next();
+
+        assertEquals(2, engine.roll(today.plusDays(2)), "Only the two new last days are generated");
+        assertEquals(1, registry.showTimesOnDate(today.plusDays(9)).size());
+        assertTrue(registry.showTimesOnDate(today.plusDays(1)).isEmpty(), "Finished days are evicted");
+        assertTrue(registry.contains(kept), "Sessions of the current day are kept as they are");
+        assertEquals(9, registry.size(), "Eight days plus the Friday late show");
+    }
+
+    /**
+     * Verifies that a session registered beforehand (e.g., restored from the journal) is not duplicated.
+     */
+    @Test
+    void testExtend_SkipsExistingSessions() {
+        ShowTime restored = new ShowTime(today.plusDays(1).atTime(10, 0), movie, hall);
+        registry.add(restored);
+
+        engine.roll(today);
+
+        assertEquals(1, registry.showTimesOnDate(today.plusDays(1)).size());
+        assertSame(restored, registry.showTimesOnDate(today.plusDays(1)).iterator().next());
+    }
+}
@@ -0,0 +1,105 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.exception.PaymentFailedException;
+import com.cnrasili.moviebooking.exception.SeatOccupiedException;
+import com.cnrasili.moviebooking.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SeatHoldService} class.
+ * <p>
+ * The service under test uses a short TTL (200 ms) and a fine timer resolution (10 ms), so expiry can be
+ * observed without slowing down the suite.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+class SeatHoldServiceTest {
+
+    private SeatHoldService holdService;
+    private Booking booking;
+    private ShowTime showTime;
+    private Seat seat;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        CinemaSystem.activeShowTimes.clear();
+        CinemaSystem.soldTickets.clear();
+        CinemaSystem.mockCardDB.clear();
+        CinemaSystem.mockCardDB.put("1111111111111111", 5000.0);
+        CinemaSystem.mockCardDB.put("3333333333333333", 50.0);
+
+        holdService = new SeatHoldService(Duration.ofMillis(200), Duration.ofMillis(10));
+        booking = new Booking();
+        Movie movie = new Movie2D("Test Movie", 120, 100.0, Genre.ACTION, AgeRating.PLUS_13);
+        showTime = new ShowTime(LocalDateTime.now().plusDays(1).withHour(14), movie, new StandardHall("Test Hall", 5, 5));
+        seat = showTime.getSeat(1, 1);
+        customer = new Customer("Test", "User", "test@mail.com", "5555555555", 2000);
+        CinemaSystem.activeShowTimes.add(showTime);
+    }
+
+    @AfterEach
+    void tearDown() {
+        holdService.shutdown();
+    }
+
+    /**
+     * Verifies that a held seat is unavailable to other customers and becomes available again once the TTL elapses.
+     */
+    @Test
+    void testHold_ExpiresAfterTtl() throws Exception {
+        SeatHold hold = holdService.hold(showTime, seat);
+
+        assertEquals(SeatStatus.HELD, seat.getStatus());
+        assertThrows(SeatOccupiedException.class, () -> holdService.hold(showTime, seat), "A held seat can't be held twice");
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (hold.isActive() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertFalse(hold.isActive(), "Hold should expire after its TTL");
+        assertEquals(SeatStatus.AVAILABLE, seat.getStatus(), "Expired hold should free the seat");
+        assertThrows(SeatOccupiedException.class,
+                () -> booking.createTicket(customer, hold, new StandardPriceStrategy(), new CreditCardPaymentService(), "1111111111111111"),
+                "An expired hold can't be paid for");
+    }
+
+    /**
+     * Verifies that paying for a hold books the seat, and that a confirmed hold never expires afterwards.
+     */
+    @Test
+    void testCreateTicket_ConfirmsHold() throws Exception {
+        SeatHold hold = holdService.hold(showTime, seat);
+
+        Ticket ticket = booking.createTicket(customer, hold, new StandardPriceStrategy(), new CreditCardPaymentService(), "1111111111111111");
+
+        assertNotNull(ticket);
+        assertTrue(hold.isConfirmed());
+        Thread.sleep(400);
+        assertEquals(SeatStatus.BOOKED, seat.getStatus(), "A confirmed hold must not be released by the timer");
+    }
+
+    /**
+     * Verifies that a failed payment keeps the hold, so the customer can retry with another card.
+     */
+    @Test
+    void testCreateTicket_FailedPaymentKeepsHold() throws Exception {
+        SeatHold hold = holdService.hold(showTime, seat);
+
+        assertThrows(PaymentFailedException.class,
+                () -> booking.createTicket(customer, hold, new StandardPriceStrategy(), new CreditCardPaymentService(), "3333333333333333"));
+
+        assertTrue(hold.isActive());
+        assertEquals(SeatStatus.HELD, seat.getStatus());
+        assertNotNull(booking.createTicket(customer, hold, new StandardPriceStrategy(), new CreditCardPaymentService(), "1111111111111111"));
+        assertEquals(SeatStatus.BOOKED, seat.getStatus());
+    }
+}
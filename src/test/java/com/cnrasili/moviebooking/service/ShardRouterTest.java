@@ -0,0 +1,123 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the per-branch sharding of the booking state ({@link ShardRouter},
+ * {@link ShardedShowTimeRegistry} and {@link ShardedTicketRegistry}).
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+class ShardRouterTest {
+
+    private ShardRouter router;
+    private ShardedShowTimeRegistry showTimes;
+    private ShardedTicketRegistry tickets;
+    private Movie movie;
+    private CinemaBranch kadikoy;
+    private CinemaBranch besiktas;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        router = new ShardRouter();
+        showTimes = new ShardedShowTimeRegistry(router);
+        tickets = new ShardedTicketRegistry(router);
+        movie = new Movie2D("Test Movie", 120, 100.0, Genre.ACTION, AgeRating.GENERAL_AUDIENCE);
+        kadikoy = new CinemaBranch("Kadikoy", "Istanbul", "Kadikoy");
+        kadikoy.addHall(new StandardHall("Hall 1", 5, 5));
+        besiktas = new CinemaBranch("Besiktas", "Istanbul", "Besiktas");
+        besiktas.addHall(new StandardHall("Hall 1", 5, 5));
+        customer = new Customer("Test", "User", "test@mail.com", "5555555555", 2000);
+    }
+
+    /**
+     * Verifies that each branch gets its own shard, and that showtimes are stored and queried per shard.
+     */
+    @Test
+    void testShowTimes_StoredInBranchShard() {
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1).withHour(12).truncatedTo(ChronoUnit.HOURS);
+        ShowTime early = new ShowTime(tomorrow, movie, besiktas.getHalls().get(0));
+        ShowTime late = new ShowTime(tomorrow.plusHours(3), movie, kadikoy.getHalls().get(0));
+        assertTrue(showTimes.add(late));
+        assertTrue(showTimes.add(early));
+
+        BranchShard kadikoyShard = router.shardFor(kadikoy);
+        assertEquals(1, kadikoyShard.getId(), "Shard 0 is reserved for halls outside any branch");
+        assertEquals("01", kadikoyShard.getPnrPrefix());
+        assertTrue(kadikoyShard.getShowTimes().contains(late));
+        assertFalse(kadikoyShard.getShowTimes().contains(early));
+
+        assertEquals(2, showTimes.size());
+        assertEquals(2, showTimes.showTimesForMovie(movie).size());
+        assertEquals(1, showTimes.query().atBranch(kadikoy).list().size());
+        assertFalse(showTimes.isFirstSession(late), "The first session is determined across all branches");
+        assertTrue(showTimes.isFirstSession(early));
+
+        assertTrue(showTimes.remove(early));
+        assertTrue(showTimes.isFirstSession(late));
+    }
+
+    /**
+     * Verifies PNR routing, the fallback for codes without a shard prefix, and chain-wide PNR uniqueness.
+     */
+    @Test
+    void testTickets_RoutedByPnr() {
+        ShowTime atKadikoy = new ShowTime(LocalDateTime.now().plusDays(1), movie, kadikoy.getHalls().get(0));
+        ShowTime atBesiktas = new ShowTime(LocalDateTime.now().plusDays(1), movie, besiktas.getHalls().get(0));
+        String prefix = router.shardFor(besiktas).getPnrPrefix();
+
+        Ticket routed = new Ticket(prefix + "ABCDEF12", customer, atBesiktas, atBesiktas.getSeat(1, 1), 100.0, 100.0);
+        Ticket legacy = new Ticket("PNR123", customer, atKadikoy, atKadikoy.getSeat(1, 1), 100.0, 100.0);
+        assertTrue(tickets.add(routed));
+        assertTrue(tickets.add(legacy));
+
+        assertSame(router.shardFor(besiktas), router.shardForPnr(routed.getPnrCode()));
+        assertSame(routed, tickets.get(routed.getPnrCode()));
+        assertSame(legacy, tickets.get("PNR123"), "Codes without a shard prefix are searched in every shard");
+        assertNull(tickets.get(router.shardFor(kadikoy).getPnrPrefix() + "00000000"));
+        assertFalse(tickets.add(new Ticket("PNR123", customer, atBesiktas, atBesiktas.getSeat(2, 2), 100.0, 100.0)),
+                "A PNR can't be reused at another branch");
+
+        assertEquals(2, tickets.size());
+        assertTrue(tickets.remove(legacy));
+        assertNull(tickets.get("PNR123"));
+        assertEquals(1, router.shardFor(besiktas).getTickets().size());
+    }
+
+    /**
+     * Verifies that well-formed codes are never searched for in every shard: a code stored outside its prefix
+     * shard is found through the side index, and a miss stops after the prefix shard and that index.
+     */
+    @Test
+    void testTickets_WellFormedCodesSkipFallbackScan() {
+        ShowTime atKadikoy = new ShowTime(LocalDateTime.now().plusDays(1), movie, kadikoy.getHalls().get(0));
+        ShowTime atBesiktas = new ShowTime(LocalDateTime.now().plusDays(1), movie, besiktas.getHalls().get(0));
+        BranchShard kadikoyShard = router.shardFor(kadikoy);
+        BranchShard besiktasShard = router.shardFor(besiktas);
+
+        // Issued by Kadikoy but sold at Besiktas, e.g. restored after branches.csv changed order
+        Ticket moved = new Ticket(kadikoyShard.nextPnr(), customer, atBesiktas, atBesiktas.getSeat(1, 1), 100.0, 100.0);
+        assertTrue(tickets.add(moved));
+        assertTrue(besiktasShard.getTickets().contains(moved));
+        assertSame(moved, tickets.get(moved.getPnrCode()));
+        assertFalse(tickets.add(new Ticket(moved.getPnrCode(), customer, atKadikoy, atKadikoy.getSeat(1, 1), 100.0, 100.0)),
+                "A PNR can't be reused in its prefix shard either");
+
+        // Put past the registry, so only a scan of every shard could find it
+        Ticket hidden = new Ticket(kadikoyShard.nextPnr(), customer, atBesiktas, atBesiktas.getSeat(2, 2), 100.0, 100.0);
+        besiktasShard.getTickets().add(hidden);
+        assertNull(tickets.get(hidden.getPnrCode()), "Well-formed codes must not fall back to a scan");
+
+        assertTrue(tickets.remove(moved));
+        assertNull(tickets.get(moved.getPnrCode()));
+        assertTrue(PnrGenerator.isWellFormed(moved.getPnrCode()));
+        assertFalse(PnrGenerator.isWellFormed("PNR123"));
+    }
+}
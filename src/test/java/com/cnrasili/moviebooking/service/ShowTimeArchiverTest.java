@@ -0,0 +1,156 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ShowTimeArchiver} and {@link TicketArchive} classes.
+ * <p>
+ * The session is scheduled tomorrow; the archiver is run with a "now" after the end of the movie.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.1
+ */
+class ShowTimeArchiverTest {
+
+    private static final String CARD = "1111111111111111";
+
+    private Path journalFile;
+    private Path archiveFile;
+    private ShowTime show;
+    private Booking booking;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journalFile = Files.createTempFile("bookings", ".journal");
+        archiveFile = Files.createTempFile("bookings", ".archive");
+        booking = new Booking();
+        customer = new Customer("Test", "User", "test@mail.com", "5555555555", 2000);
+        loadData();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (CinemaSystem.journal != null) {
+            CinemaSystem.journal.close();
+            CinemaSystem.journal = null;
+        }
+        if (CinemaSystem.archive != null) {
+            CinemaSystem.archive.close();
+            CinemaSystem.archive = null;
+        }
+        CinemaSystem.branches.clear();
+        CinemaSystem.allMovies.clear();
+        CinemaSystem.activeShowTimes.clear();
+        CinemaSystem.soldTickets.clear();
+        Files.deleteIfExists(journalFile);
+        Files.deleteIfExists(Paths.get(journalFile + ".snapshot"));
+        Files.deleteIfExists(Paths.get(journalFile + ".sealed"));
+        Files.deleteIfExists(archiveFile);
+    }
+
+    /**
+     * Verifies that finished tickets leave the hot registries but stay reachable by PNR, also after reopening.
+     */
+    @Test
+    void testArchiveFinished_MovesTicketsToArchive() throws Exception {
+        CinemaSystem.archive = TicketArchive.open(archiveFile);
+        Ticket ticket = booking.createTicket(customer, show, show.getSeat(2, 3), new StandardPriceStrategy(), new CreditCardPaymentService(), CARD);
+        ShowTimeArchiver archiver = new ShowTimeArchiver(CinemaSystem.archive);
+
+        assertEquals(0, archiver.archiveFinished(show.getTime()), "A running session is not archived");
+        assertEquals(1, archiver.archiveFinished(show.getTime().plusMinutes(121)));
+
+        assertEquals(0, CinemaSystem.soldTickets.size());
+        assertFalse(CinemaSystem.activeShowTimes.iterator().hasNext(), "Finished session should be dropped");
+        Ticket archived = CinemaSystem.searchTicketByPNR(ticket.getPnrCode());
+        assertNotNull(archived, "Archived ticket should be found through the archive");
+        assertEquals(ticket.getFinalPrice(), archived.getFinalPrice());
+        assertEquals(ticket.getCreationDate(), archived.getCreationDate());
+        assertEquals(show.getTime(), archived.getShowTime().getTime());
+        assertFalse(CinemaSystem.activeShowTimes.iterator().hasNext(), "Reading the archive must not reschedule the session");
+
+        CinemaSystem.archive.close();
+        CinemaSystem.archive = TicketArchive.open(archiveFile);
+        assertEquals(1, CinemaSystem.archive.size());
+        assertNotNull(CinemaSystem.searchTicketByPNR(ticket.getPnrCode()), "Archive should be indexed again on open");
+    }
+
+    /**
+     * Verifies that archived tickets are not restored into memory by the journal after a restart.
+     */
+    @Test
+    void testArchiveFinished_NotRestoredByJournal() throws Exception {
+        CinemaSystem.journal = BookingJournal.open(journalFile);
+        CinemaSystem.archive = TicketArchive.open(archiveFile);
+        Ticket ticket = booking.createTicket(customer, show, show.getSeat(1, 1), new StandardPriceStrategy(), new CreditCardPaymentService(), CARD);
+        assertEquals(1, new ShowTimeArchiver(CinemaSystem.archive).archiveFinished(show.getTime().plusDays(1)));
+
+        CinemaSystem.journal.close();
+        loadData();
+        CinemaSystem.journal = BookingJournal.open(journalFile);
+
+        assertEquals(0, CinemaSystem.soldTickets.size(), "Archived ticket should not be replayed");
+        assertEquals(SeatStatus.AVAILABLE, show.getSeat(1, 1).getStatus());
+        assertNotNull(CinemaSystem.searchTicketByPNR(ticket.getPnrCode()));
+    }
+
+    /**
+     * Verifies that a batch written after a failed append is still found once the archive is reopened, i.e. the
+     * torn part of the failed batch does not stay in front of it.
+     */
+    @Test
+    void testAppendFailure_DoesNotHideLaterTickets() throws Exception {
+        Ticket lost = booking.createTicket(customer, show, show.getSeat(1, 1), new StandardPriceStrategy(), new CreditCardPaymentService(), CARD);
+        Ticket kept = booking.createTicket(customer, show, show.getSeat(1, 2), new StandardPriceStrategy(), new CreditCardPaymentService(), CARD);
+        AtomicBoolean failNextWrite = new AtomicBoolean(true);
+        CinemaSystem.archive = TicketArchive.open(archiveFile, channel -> new FailingChannel(channel, failNextWrite));
+
+        assertThrows(IOException.class, () -> CinemaSystem.archive.append(List.of(lost)));
+        CinemaSystem.archive.append(List.of(kept));
+        CinemaSystem.archive.close();
+        CinemaSystem.archive = TicketArchive.open(archiveFile);
+
+        assertEquals(1, CinemaSystem.archive.size());
+        assertFalse(CinemaSystem.archive.contains(lost.getPnrCode()), "The failed batch should not be indexed");
+        Ticket archived = CinemaSystem.archive.find(kept.getPnrCode());
+        assertNotNull(archived, "The batch after the failed one should survive a reopen");
+        assertEquals(kept.getFinalPrice(), archived.getFinalPrice());
+    }
+
+    /**
+     * Stands in for {@link DataInitializer#loadMockData()}: one branch, one movie, one session, one card.
+     */
+    private void loadData() {
+        CinemaSystem.journal = null;
+        CinemaSystem.branches.clear();
+        CinemaSystem.allMovies.clear();
+        CinemaSystem.activeShowTimes.clear();
+        CinemaSystem.soldTickets.clear();
+        CinemaSystem.mockCardDB.clear();
+        CinemaSystem.mockCardDB.put(CARD, 5000.0);
+
+        CinemaBranch branch = new CinemaBranch("Test Branch", "Istanbul", "Test");
+        CinemaHall hall = new StandardHall("Test Hall", 5, 5);
+        branch.addHall(hall);
+        CinemaSystem.branches.add(branch);
+        Movie movie = new Movie2D("Test Movie", 120, 100.0, Genre.ACTION, AgeRating.PLUS_13);
+        CinemaSystem.allMovies.add(movie);
+        LocalDateTime time = LocalDateTime.now().plusDays(1).withHour(14).truncatedTo(ChronoUnit.HOURS);
+        show = new ShowTime(time, movie, hall);
+        CinemaSystem.activeShowTimes.add(show);
+    }
+}
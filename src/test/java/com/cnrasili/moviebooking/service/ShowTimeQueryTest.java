@@ -0,0 +1,177 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ShowTimeQuery} class.
+ * <p>
+ * The queries run against a registry that records which secondary index a query iterates, so the tests can check
+ * that the smallest one is chosen.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+class ShowTimeQueryTest {
+
+    private final LocalDate day = LocalDate.now().plusDays(1);
+    private final List<String> iteratedIndexes = new ArrayList<>();
+    private TrackingRegistry registry;
+    private CinemaBranch kadikoy;
+    private CinemaBranch besiktas;
+    private Movie drama;
+    private Movie action;
+
+    /**
+     * Two branches with a standard and an IMAX hall each, and two movies over two days: many sessions share the
+     * branch, the date or the hall type, but only a few the rarely shown drama.
+     */
+    @BeforeEach
+    void setUp() {
+        registry = new TrackingRegistry();
+        kadikoy = newBranch("Kadikoy");
+        besiktas = newBranch("Besiktas");
+        drama = new Movie2D("Drama", 120, 80.0, Genre.DRAMA, AgeRating.GENERAL_AUDIENCE);
+        action = new Movie3D("Action", 120, 100.0, Genre.ACTION, AgeRating.GENERAL_AUDIENCE);
+
+        for (CinemaBranch branch : new CinemaBranch[]{kadikoy, besiktas}) {
+            for (CinemaHall hall : branch.getHalls()) {
+                for (int d = 0; d < 2; d++) {
+                    for (int hour = 10; hour <= 22; hour += 3) {
+                        registry.add(new ShowTime(day.plusDays(d).atTime(hour, 0), action, hall));
+                    }
+                }
+            }
+        }
+        registry.add(new ShowTime(day.atTime(21, 0), drama, kadikoy.getHalls().get(1)));
+        registry.add(new ShowTime(day.atTime(13, 0), drama, kadikoy.getHalls().get(0)));
+        registry.add(new ShowTime(day.plusDays(1).atTime(13, 0), drama, besiktas.getHalls().get(1)));
+    }
+
+    /**
+     * Verifies that the query iterates only the smallest of the indexes named by its criteria.
+     */
+    @Test
+    void testList_StartsFromSmallestIndex() {
+        registry.query().atBranch(kadikoy).onDate(day).forMovie(drama).list();
+        assertEquals(List.of("movie"), iteratedIndexes, "The drama has 3 sessions, fewer than a branch or a day");
+
+        iteratedIndexes.clear();
+        registry.query().atBranch(kadikoy).onDate(day).inHallType(IMAXHall.class).forMovie(action).list();
+        assertEquals(1, iteratedIndexes.size());
+        assertNotEquals("movie", iteratedIndexes.get(0), "The action movie is on almost every session");
+
+        iteratedIndexes.clear();
+        assertEquals(registry.size(), registry.query().list().size(), "Without criteria, every session matches");
+        assertTrue(iteratedIndexes.isEmpty());
+    }
+
+    /**
+     * Verifies that branch, movie, date and hall type are combined with AND semantics.
+     */
+    @Test
+    void testList_CombinesAllFilters() {
+        List<ShowTime> result = registry.query()
+                .atBranch(kadikoy)
+                .forMovie(drama)
+                .onDate(day)
+                .inHallType(IMAXHall.class)
+                .list();
+
+        assertEquals(1, result.size());
+        ShowTime match = result.get(0);
+        assertSame(kadikoy, match.getHall().getBranch());
+        assertSame(drama, match.getMovie());
+        assertEquals(day.atTime(21, 0), match.getTime());
+        assertTrue(match.getHall() instanceof IMAXHall);
+
+        assertTrue(registry.query().atBranch(besiktas).forMovie(drama).onDate(day).list().isEmpty());
+        assertEquals(5, registry.query().atBranch(besiktas).onDate(day).inHallType(StandardHall.class).list().size());
+        for (ShowTime showTime : registry) {
+            boolean expected = showTime.getHall().getBranch() == kadikoy && showTime.getMovie() == drama;
+            assertEquals(expected, registry.query().atBranch(kadikoy).forMovie(drama).matches(showTime));
+        }
+    }
+
+    /**
+     * Verifies that results are sorted by start time, then by hall name for sessions starting together.
+     */
+    @Test
+    void testList_SortedByTimeThenHall() {
+        List<ShowTime> result = registry.query().forMovie(action).onDate(day).list();
+
+        assertEquals(20, result.size(), "5 sessions a day in each of the 4 halls");
+        for (int i = 1; i < result.size(); i++) {
+            ShowTime previous = result.get(i - 1);
+            ShowTime current = result.get(i);
+            LocalDateTime previousTime = previous.getTime();
+            assertFalse(current.getTime().isBefore(previousTime), "Sorted by start time");
+            if (current.getTime().equals(previousTime)) {
+                assertTrue(previous.getHall().getName().compareTo(current.getHall().getName()) <= 0, "Ties sorted by hall name");
+            }
+        }
+    }
+
+    private static CinemaBranch newBranch(String name) {
+        CinemaBranch branch = new CinemaBranch(name, "Istanbul", name);
+        branch.addHall(new StandardHall(name + " Standard", 5, 5));
+        branch.addHall(new IMAXHall(name + " IMAX", 6, 8));
+        return branch;
+    }
+
+    /**
+     * A registry whose secondary indexes record when a query iterates them.
+     */
+    private final class TrackingRegistry extends ShowTimeRegistry {
+        @Override
+        public Set<ShowTime> showTimesAtBranch(CinemaBranch branch) {
+            return new Tracked("branch", super.showTimesAtBranch(branch));
+        }
+
+        @Override
+        public Set<ShowTime> showTimesForMovie(Movie movie) {
+            return new Tracked("movie", super.showTimesForMovie(movie));
+        }
+
+        @Override
+        public Set<ShowTime> showTimesOnDate(LocalDate date) {
+            return new Tracked("date", super.showTimesOnDate(date));
+        }
+
+        @Override
+        public Set<ShowTime> showTimesInHallType(Class<? extends CinemaHall> hallType) {
+            return new Tracked("hallType", super.showTimesInHallType(hallType));
+        }
+    }
+
+    private final class Tracked extends AbstractSet<ShowTime> {
+        private final String name;
+        private final Set<ShowTime> delegate;
+
+        Tracked(String name, Set<ShowTime> delegate) {
+            this.name = name;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Iterator<ShowTime> iterator() {
+            iteratedIndexes.add(name);
+            return delegate.iterator();
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.cnrasili.moviebooking.service;
+
+import com.cnrasili.moviebooking.model.*;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the first-session index of {@link ShowTimeRegistry} and {@link ShardedShowTimeRegistry}.
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+class ShowTimeRegistryTest {
+
+    private final LocalDate day = LocalDate.now().plusDays(1);
+    private final Movie movie = new Movie2D("Test Movie", 120, 100.0, Genre.ACTION, AgeRating.GENERAL_AUDIENCE);
+    private final CinemaHall hall = new StandardHall("Hall 1", 5, 5);
+    private final CinemaHall otherHall = new StandardHall("Hall 2", 5, 5);
+
+    /**
+     * Verifies that removing the earliest session moves the first session to the next one, and that two
+     * sessions starting at the same time are counted separately.
+     */
+    @Test
+    void testFirstSession_AddAndRemoveEarliest() {
+        ShowTimeRegistry registry = new ShowTimeRegistry();
+        ShowTime morning = new ShowTime(at(day, 10), movie, hall);
+        ShowTime afternoon = new ShowTime(at(day, 14), movie, hall);
+        ShowTime afternoonTwin = new ShowTime(at(day, 14), movie, otherHall);
+        ShowTime evening = new ShowTime(at(day, 18), movie, hall);
+        registry.add(afternoon);
+        registry.add(evening);
+        assertEquals(at(day, 14), registry.getFirstSessionStart(movie, day));
+
+        registry.add(morning);
+        registry.add(afternoonTwin);
+        assertEquals(at(day, 10), registry.getFirstSessionStart(movie, day), "A new earlier session becomes the first");
+        assertTrue(registry.isFirstSession(morning));
+        assertFalse(registry.isFirstSession(afternoon));
+
+        registry.remove(morning);
+        assertEquals(at(day, 14), registry.getFirstSessionStart(movie, day));
+        assertTrue(registry.isFirstSession(afternoon));
+        assertTrue(registry.isFirstSession(afternoonTwin));
+
+        registry.remove(afternoon);
+        assertEquals(at(day, 14), registry.getFirstSessionStart(movie, day), "The twin session still starts at 14:00");
+        registry.remove(afternoonTwin);
+        assertEquals(at(day, 18), registry.getFirstSessionStart(movie, day));
+        registry.remove(evening);
+        assertNull(registry.getFirstSessionStart(movie, day));
+        assertTrue(registry.isFirstSession(evening), "Without sessions, any session counts as first");
+    }
+
+    /**
+     * Verifies that each date of a movie has its own first session, unaffected by other dates and other movies.
+     */
+    @Test
+    void testFirstSession_SeveralDates() {
+        ShowTimeRegistry registry = new ShowTimeRegistry();
+        LocalDate nextDay = day.plusDays(1);
+        Movie otherMovie = new Movie3D("Other Movie", 90, 120.0, Genre.DRAMA, AgeRating.GENERAL_AUDIENCE);
+        ShowTime lateFirstDay = new ShowTime(at(day, 20), movie, hall);
+        ShowTime earlyNextDay = new ShowTime(at(nextDay, 9), movie, hall);
+        ShowTime laterNextDay = new ShowTime(at(nextDay, 11), movie, hall);
+        ShowTime otherMovieEarly = new ShowTime(at(day, 8), otherMovie, otherHall);
+        registry.add(lateFirstDay);
+        registry.add(laterNextDay);
+        registry.add(earlyNextDay);
+        registry.add(otherMovieEarly);
+
+        assertEquals(at(day, 20), registry.getFirstSessionStart(movie, day), "A later session on another date does not count");
+        assertEquals(at(nextDay, 9), registry.getFirstSessionStart(movie, nextDay));
+        assertTrue(registry.isFirstSession(lateFirstDay), "Another movie's earlier session does not count");
+        assertFalse(registry.isFirstSession(laterNextDay));
+
+        registry.remove(lateFirstDay);
+        assertNull(registry.getFirstSessionStart(movie, day));
+        assertEquals(at(nextDay, 9), registry.getFirstSessionStart(movie, nextDay));
+        assertEquals(at(day, 8), registry.getFirstSessionStart(otherMovie, day));
+    }
+
+    /**
+     * Verifies that the sharded registry returns the earliest first session across all branches.
+     */
+    @Test
+    void testFirstSession_ChainWideMinimum() {
+        ShardRouter router = new ShardRouter();
+        ShardedShowTimeRegistry registry = new ShardedShowTimeRegistry(router);
+        CinemaBranch kadikoy = new CinemaBranch("Kadikoy", "Istanbul", "Kadikoy");
+        kadikoy.addHall(hall);
+        CinemaBranch besiktas = new CinemaBranch("Besiktas", "Istanbul", "Besiktas");
+        besiktas.addHall(otherHall);
+        ShowTime kadikoyShow = new ShowTime(at(day, 15), movie, hall);
+        ShowTime besiktasShow = new ShowTime(at(day, 11), movie, otherHall);
+        registry.add(kadikoyShow);
+        registry.add(besiktasShow);
+
+        assertEquals(at(day, 15), router.shardFor(kadikoy).getShowTimes().getFirstSessionStart(movie, day));
+        assertEquals(at(day, 11), registry.getFirstSessionStart(movie, day));
+        assertFalse(registry.isFirstSession(kadikoyShow), "An earlier session at another branch takes the discount");
+        assertTrue(registry.isFirstSession(besiktasShow));
+
+        registry.remove(besiktasShow);
+        assertEquals(at(day, 15), registry.getFirstSessionStart(movie, day));
+        assertTrue(registry.isFirstSession(kadikoyShow));
+    }
+
+    private static LocalDateTime at(LocalDate date, int hour) {
+        return date.atTime(hour, 0);
+    }
+}
@@ -0,0 +1,80 @@
+package com.cnrasili.moviebooking.service;
+
+import org.junit.jupiter.api.Test;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link StudentIdRegistry} class.
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+class StudentIdRegistryTest {
+
+    /**
+     * Verifies lookups for encoded IDs (including leading zeros) and for IDs outside the standard format.
+     */
+    @Test
+    void testContains_EncodedAndOtherIds() {
+        StudentIdRegistry registry = new StudentIdRegistry();
+        assertTrue(registry.add("ST1001"));
+        assertTrue(registry.add("ST007"));
+        assertTrue(registry.add("ERASMUS-42"));
+        assertFalse(registry.add("ST1001"), "Duplicates are not added twice");
+
+        assertTrue(registry.contains("ST1001"));
+        assertTrue(registry.contains("ST007"));
+        assertFalse(registry.contains("ST7"), "Leading zeros are part of the ID");
+        assertTrue(registry.contains("ERASMUS-42"));
+        assertFalse(registry.contains("ST1002"));
+        assertFalse(registry.contains("st1001"));
+        assertEquals(3, registry.size());
+        assertEquals(Set.of("ST1001", "ST007", "ERASMUS-42"), new HashSet<>(registry));
+    }
+
+    /**
+     * Verifies that the table keeps every ID while growing from its initial capacity.
+     */
+    @Test
+    void testAdd_GrowsWithoutLosingIds() {
+        StudentIdRegistry registry = new StudentIdRegistry();
+        for (int i = 0; i < 100_000; i++) {
+            registry.add("ST" + i);
+        }
+
+        assertEquals(100_000, registry.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(registry.contains("ST" + i), "ST" + i);
+        }
+        assertFalse(registry.contains("ST100000"));
+    }
+
+    /**
+     * Verifies that a reload replaces the IDs, and that a failed reload keeps the current ones.
+     */
+    @Test
+    void testReload_ReplacesIds() throws Exception {
+        StudentIdRegistry registry = new StudentIdRegistry();
+        registry.add("ST1001");
+        Path file = Files.createTempFile("student_ids", ".csv");
+        try {
+            Files.write(file, List.of("ST2001", "", "ST2002"));
+            assertEquals(2, registry.reload(file).getRows());
+
+            assertFalse(registry.contains("ST1001"));
+            assertTrue(registry.contains("ST2001"));
+            assertTrue(registry.contains("ST2002"));
+
+            Files.delete(file);
+            assertThrows(java.io.IOException.class, () -> registry.reload(file));
+            assertTrue(registry.contains("ST2001"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.cnrasili.moviebooking.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link EventLog} class.
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+class EventLogTest {
+
+    private final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() {
+        // Events left by other tests would otherwise be written to the captured stream
+        EventLog.console().flush();
+        originalOut = System.out;
+        System.setOut(new PrintStream(captured, true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    /**
+     * Verifies that events are written in order with their fields filled in, and that events below the minimum
+     * level never reach the output.
+     */
+    @Test
+    void testLog_ConsoleFormatAndLevels() {
+        EventLog log = new EventLog(16);
+        log.log(EventLog.Level.DEBUG, "hidden");
+        log.log(EventLog.Level.INFO, ">> Payment Approved! {amount} TL deducted.", "amount", 90.0);
+        log.log(EventLog.Level.INFO, "{a} and {b}, {c}", "a", 1, "b", 2);
+        log.flush();
+
+        String expected = ">> Payment Approved! 90.0 TL deducted." + System.lineSeparator()
+                + "1 and 2, {c}" + System.lineSeparator();
+        assertEquals(expected, captured.toString());
+        assertFalse(log.isEnabled(EventLog.Level.DEBUG));
+
+        captured.reset();
+        log.setStructured(true);
+        log.log(EventLog.Level.INFO, "Paid {amount}", "amount", 5, "card", "1234");
+        log.flush();
+        assertTrue(captured.toString().trim().endsWith("INFO Paid 5 amount=5 card=1234"), captured.toString());
+    }
+
+    /**
+     * Verifies that concurrent callers never lose or duplicate an event: every event is either written exactly
+     * once or counted as dropped, and each caller's events keep their order.
+     */
+    @Test
+    void testLog_ConcurrentProducers() throws InterruptedException {
+        EventLog log = new EventLog(64);
+        int threads = 4;
+        int perThread = 2000;
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String name = "t" + t;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    log.log(EventLog.Level.INFO, "{thread} {i}", "thread", name, "i", i);
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        log.flush();
+
+        String[] lines = captured.toString().split(System.lineSeparator());
+        int written = captured.size() == 0 ? 0 : lines.length;
+        assertEquals(threads * perThread, written + log.getDroppedCount());
+
+        int[] last = new int[threads];
+        Arrays.fill(last, -1);
+        for (String line : lines) {
+            String[] parts = line.split(" ");
+            int thread = Integer.parseInt(parts[0].substring(1));
+            int i = Integer.parseInt(parts[1]);
+            assertTrue(i > last[thread], "Out of order: " + line);
+            last[thread] = i;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.cnrasili.moviebooking.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link HashedTimerWheel} class.
+ * <p>
+ * Each test records the time at which every payload fires, measured from the moment it was scheduled.
+ * Upper bounds are generous to tolerate a busy machine; lower bounds are exact, since timeouts must never fire
+ * early.
+ * </p>
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+class HashedTimerWheelTest {
+
+    private final Map<String, Long> firedAfterNanos = new ConcurrentHashMap<>();
+    private final Map<String, Long> scheduledAtNanos = new ConcurrentHashMap<>();
+    private HashedTimerWheel<String> wheel;
+
+    @AfterEach
+    void tearDown() {
+        if (wheel != null) {
+            wheel.stop();
+        }
+    }
+
+    /**
+     * Verifies that a timeout several wheel rotations away is not fired when the wheel first passes its bucket,
+     * but only once its rounds have run out.
+     */
+    @Test
+    void testSchedule_ExpiresAcrossFullRotations() throws InterruptedException {
+        CountDownLatch fired = newWheel(10, 4, 2);
+        schedule("far", 130);
+        schedule("near", 15);
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(firedAfterNanos.get("near") < firedAfterNanos.get("far"));
+        assertTrue(firedAfterNanos.get("far") >= TimeUnit.MILLISECONDS.toNanos(130),
+                "A 130 ms timeout on a 40 ms wheel must wait for three rotations");
+        assertTrue(firedAfterNanos.get("far") < TimeUnit.MILLISECONDS.toNanos(1000));
+    }
+
+    /**
+     * Verifies that a cancelled timeout never fires, and that a fired timeout can no longer be cancelled.
+     */
+    @Test
+    void testCancel_BeforeFire() throws InterruptedException {
+        CountDownLatch fired = newWheel(10, 8, 1);
+        HashedTimerWheel.Timeout<String> cancelled = schedule("cancelled", 30);
+        HashedTimerWheel.Timeout<String> kept = schedule("kept", 60);
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel(), "A timeout can only be cancelled once");
+        assertTrue(cancelled.isCancelled());
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertFalse(firedAfterNanos.containsKey("cancelled"), "A cancelled timeout must not fire");
+        assertFalse(kept.cancel(), "A fired timeout can't be cancelled");
+        assertEquals("kept", kept.getPayload());
+    }
+
+    /**
+     * Verifies the tick granularity: timeouts due within the same tick fire together at the end of that tick,
+     * never before their own delay.
+     */
+    @Test
+    void testSchedule_FiresAtTickGranularity() throws InterruptedException {
+        long tickMillis = 200;
+        CountDownLatch fired = newWheel(tickMillis, 8, 2);
+        schedule("early", 5);
+        schedule("late", 40);
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        long early = firedAfterNanos.get("early");
+        long late = firedAfterNanos.get("late");
+        assertTrue(early >= TimeUnit.MILLISECONDS.toNanos(40), "Both timeouts are due in the first tick, so both fire at its end");
+        assertTrue(late >= TimeUnit.MILLISECONDS.toNanos(40));
+        assertTrue(Math.abs(early - late) < TimeUnit.MILLISECONDS.toNanos(tickMillis / 2), "Both should fire on the same tick");
+    }
+
+    private CountDownLatch newWheel(long tickMillis, int size, int expected) {
+        CountDownLatch fired = new CountDownLatch(expected);
+        wheel = new HashedTimerWheel<>(tickMillis, TimeUnit.MILLISECONDS, size, payload -> {
+            firedAfterNanos.put(payload, System.nanoTime() - scheduledAtNanos.get(payload));
+            fired.countDown();
+        }, "test-timer-wheel");
+        return fired;
+    }
+
+    private HashedTimerWheel.Timeout<String> schedule(String payload, long delayMillis) {
+        scheduledAtNanos.put(payload, System.nanoTime());
+        return wheel.schedule(payload, delayMillis, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,89 @@
+package com.cnrasili.moviebooking.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link MappedCsvReader} class.
+ *
+ * @author cnrasili
+ * @version 1.0
+ */
+class MappedCsvReaderTest {
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("data", ".csv");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Verifies field splitting, trimming, UTF-8 text, CRLF line endings, blank lines and a missing final newline.
+     */
+    @Test
+    void testRead_SplitsAndTrimsFields() throws IOException {
+        write("\uFEFFParibu Cineverse Akasya , \u0130stanbul,\u00DCsk\u00FCdar\r\n\r\n  \nCinemaximum,Ankara,\t\u00C7ankaya");
+        List<String> rows = new ArrayList<>();
+
+        MappedCsvReader.Result result = MappedCsvReader.read(file,
+                row -> rows.add(row.getFieldCount() + ":" + row.getString(0) + "|" + row.getString(1) + "|" + row.getString(2)));
+
+        assertEquals(List.of("3:Paribu Cineverse Akasya|\u0130stanbul|\u00DCsk\u00FCdar", "3:Cinemaximum|Ankara|\u00C7ankaya"), rows);
+        assertEquals(2, result.getRows());
+        assertEquals(0, result.getSkippedRows());
+    }
+
+    /**
+     * Verifies that numbers parsed from the bytes match the standard library parsers.
+     */
+    @Test
+    void testRead_ParsesNumbers() throws IOException {
+        String[] values = {"5000.0", "50", "-12.75", "0.1", "1234567.89", "007", "1e3", "12345678901234567890.5"};
+        write(String.join("\n", values) + "\n");
+        List<Double> parsed = new ArrayList<>();
+
+        MappedCsvReader.read(file, row -> parsed.add(row.getDouble(0)));
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(Double.parseDouble(values[i]), parsed.get(i), "Value " + values[i]);
+        }
+    }
+
+    /**
+     * Verifies that malformed rows are skipped and counted, and that the following rows are still read.
+     */
+    @Test
+    void testRead_SkipsAndCountsBadRows() throws IOException {
+        write("1111111111111111,5000.0\n2222222222222222,abc\n3333333333333333\n4444444444444444,,\n5555555555555555,50\n");
+        List<String> cards = new ArrayList<>();
+
+        MappedCsvReader.Result result = MappedCsvReader.read(file, row -> {
+            row.requireFields(2);
+            row.getDouble(1);
+            cards.add(row.getString(0));
+        });
+
+        assertEquals(List.of("1111111111111111", "5555555555555555"), cards);
+        assertEquals(2, result.getRows());
+        assertEquals(3, result.getSkippedRows());
+        assertEquals(2, result.getFirstSkippedLine());
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}